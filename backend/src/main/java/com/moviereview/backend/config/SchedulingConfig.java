@@ -0,0 +1,40 @@
+package com.moviereview.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers so the short periodic jobs (activity flush, leaderboard and
+ * trending publishes, view flush) never queue behind the long batch passes
+ * (recommendation rebuild, suggestion refresh, stats reconcile, year-in-review
+ * enrichment). The batch jobs run on their own single thread, one at a time,
+ * via {@code @Scheduled(scheduler = "batchScheduler")}.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Value("${scheduling.pool-size:2}")
+    private int poolSize;
+
+    /** Default scheduler for every @Scheduled method that doesn't name one. */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return scheduler(poolSize, "scheduler-");
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler batchScheduler() {
+        return scheduler(1, "batch-");
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(int size, String prefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(size);
+        scheduler.setThreadNamePrefix(prefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+}
@@ -2,6 +2,8 @@ package com.moviereview.backend.config;
 
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -56,6 +58,8 @@ public class SecurityConfig {
 		http.csrf(csrf -> csrf.disable());
 
 		http.authorizeHttpRequests(auth -> auth
+				// Streaming responses finish on an async dispatch of an already authorized request
+				.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 				.requestMatchers(HttpMethod.GET, "/api/users/**").permitAll()
 				.requestMatchers(HttpMethod.GET, "/api/lists/**").permitAll()
 				.requestMatchers("/", "/login**", "/error**", "/auth/**", "/ws/**", "/api/movies/**").permitAll()
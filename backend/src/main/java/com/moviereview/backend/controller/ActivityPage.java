@@ -0,0 +1,74 @@
+package com.moviereview.backend.controller;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset paging for the likes / watched / watchlist profile tabs. The
+ * cursor is the (createdAt, id) of the last row served, so every page is
+ * an index range scan on (user_id, created_at, id) however deep the user
+ * scrolls.
+ */
+final class ActivityPage {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 100;
+
+    private ActivityPage() {
+    }
+
+    /** A decoded {@code createdAt,id} cursor; {@code null} fields for the first page. */
+    record Cursor(LocalDateTime createdAt, Long id) {
+
+        static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) return new Cursor(null, null);
+            int comma = cursor.lastIndexOf(',');
+            try {
+                return new Cursor(LocalDateTime.parse(cursor.substring(0, comma)),
+                        Long.valueOf(cursor.substring(comma + 1)));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        boolean isFirst() {
+            return id == null;
+        }
+    }
+
+    /** One row more than the page size, so the caller can tell whether another page follows. */
+    static Pageable probe(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return PageRequest.of(0, Math.min(limit, MAX_LIMIT) + 1);
+    }
+
+    /**
+     * {@code {items, nextCursor, total}}; {@code total} comes from the
+     * counter row and is only sent with the first page.
+     */
+    static <T> Map<String, Object> of(List<T> rows, Pageable probe, Long total,
+            Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        int size = probe.getPageSize() - 1;
+        List<T> items = rows.size() > size ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (rows.size() > size) {
+            T last = items.get(items.size() - 1);
+            nextCursor = createdAt.apply(last) + "," + id.apply(last);
+        }
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("items", items);
+        result.put("nextCursor", nextCursor);
+        if (total != null) result.put("total", total);
+        return result;
+    }
+}
@@ -16,8 +16,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.CurrentUserId;
 import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.security.TokenVersionCache;
 import com.moviereview.backend.service.CloudinaryService;
+import com.moviereview.backend.service.UserSearchIndex;
+import com.moviereview.backend.service.UserStatsService;
 
 @RestController
 @RequestMapping("/auth")
@@ -28,14 +32,21 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final CloudinaryService cloudinaryService;
+    private final UserStatsService userStatsService;
+    private final UserSearchIndex userSearchIndex;
+    private final TokenVersionCache tokenVersionCache;
 
     public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder,
-            AuthenticationManager authenticationManager, JwtUtils jwtUtils, CloudinaryService cloudinaryService) {
+            AuthenticationManager authenticationManager, JwtUtils jwtUtils, CloudinaryService cloudinaryService,
+            UserStatsService userStatsService, UserSearchIndex userSearchIndex, TokenVersionCache tokenVersionCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
         this.cloudinaryService = cloudinaryService;
+        this.userStatsService = userStatsService;
+        this.userSearchIndex = userSearchIndex;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @PostMapping("/register")
@@ -49,8 +60,10 @@ public class AuthController {
         user.setName(request.getName());
         user.setProvider("local");
         userRepository.save(user);
+        userStatsService.onRegistered(user.getId());
+        userSearchIndex.put(user);
 
-        String token = jwtUtils.generateToken(user.getEmail());
+        String token = jwtUtils.generateToken(user);
         return ResponseEntity.ok(Map.of("token", token));
     }
 
@@ -60,13 +73,24 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
 
         if (authentication.isAuthenticated()) {
-            String token = jwtUtils.generateToken(request.getEmail());
+            User user = userRepository.findByEmail(request.getEmail())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            String token = jwtUtils.generateToken(user);
             return ResponseEntity.ok(Map.of("token", token));
         } else {
             return ResponseEntity.status(401).body("Invalid credentials");
         }
     }
 
+    /** Signs out every other session: tokens issued so far stop working and the caller gets a fresh one. */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@CurrentUserId Long userId) {
+        tokenVersionCache.revokeAll(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(Map.of("token", jwtUtils.generateToken(user)));
+    }
+
     @org.springframework.web.bind.annotation.GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(Authentication authentication) {
         if (authentication == null) {
@@ -133,6 +157,7 @@ public class AuthController {
                         user.setWebsite(request.getWebsite());
 
                     userRepository.save(user);
+                    userSearchIndex.put(user);
 
                     return ResponseEntity.ok(Map.of(
                             "id", user.getId(),
@@ -167,6 +192,7 @@ public class AuthController {
             userRepository.findByEmail(email).ifPresent(user -> {
                 user.setAvatarUrl(imageUrl);
                 userRepository.save(user);
+                userSearchIndex.put(user);
             });
 
             return ResponseEntity.ok(Map.of("url", imageUrl));
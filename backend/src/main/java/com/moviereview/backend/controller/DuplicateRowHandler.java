@@ -0,0 +1,28 @@
+package com.moviereview.backend.controller;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Two concurrent inserts of the same like / watched / watchlist row both
+ * pass their NOT EXISTS check; the unique key rejects the second. That
+ * request's transaction is rolled back and answered with 409 instead of 500.
+ */
+@RestControllerAdvice
+public class DuplicateRowHandler {
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> onDuplicate(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException cve)
+                || cve.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Already exists"));
+    }
+}
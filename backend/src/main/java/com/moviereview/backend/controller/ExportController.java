@@ -0,0 +1,76 @@
+package com.moviereview.backend.controller;
+
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/{kind}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String kind,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @CurrentUserId Long userId) {
+        ExportService.Format fmt;
+        if ("csv".equalsIgnoreCase(format)) {
+            fmt = ExportService.Format.CSV;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            fmt = ExportService.Format.NDJSON;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+        boolean all = "all".equals(kind);
+        if (!all && !ExportService.KINDS.contains(kind)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export: " + kind);
+        }
+        if (all && fmt == ExportService.Format.CSV) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Combined export is only available as ndjson");
+        }
+
+        String extension = fmt == ExportService.Format.CSV ? "csv" : "ndjson";
+        String filename = "moviepulse-" + kind + "." + extension;
+        MediaType contentType = fmt == ExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 16384);
+            exportService.export(userId, kind, fmt, writer);
+            writer.flush();
+            if (target instanceof GZIPOutputStream gz) {
+                gz.finish();
+            }
+        };
+
+        // gzip is a transfer encoding of the same csv/ndjson file, so browsers
+        // and HTTP clients decompress it transparently and save the plain file.
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(contentType);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -1,12 +1,16 @@
 package com.moviereview.backend.controller;
 
-import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Like;
-import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.ActivityWriteBuffer;
+import com.moviereview.backend.service.CommunityTrending;
+import com.moviereview.backend.service.IdempotentRequests;
+import com.moviereview.backend.service.UserActivitySets;
+import com.moviereview.backend.service.UserStatsService;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,45 +21,64 @@ import java.util.Map;
 public class LikeController {
 
     private final LikeRepository likeRepository;
-    private final UserRepository userRepository;
-
-    public LikeController(LikeRepository likeRepository, UserRepository userRepository) {
+    private final ActivityLeaderboard leaderboard;
+    private final UserActivitySets activitySets;
+    private final UserStatsService userStatsService;
+    private final IdempotentRequests idempotentRequests;
+    private final ActivityWriteBuffer writeBuffer;
+    private final CommunityTrending trending;
+
+    public LikeController(LikeRepository likeRepository, ActivityLeaderboard leaderboard,
+            UserActivitySets activitySets, UserStatsService userStatsService,
+            IdempotentRequests idempotentRequests, ActivityWriteBuffer writeBuffer,
+            CommunityTrending trending) {
         this.likeRepository = likeRepository;
-        this.userRepository = userRepository;
+        this.leaderboard = leaderboard;
+        this.activitySets = activitySets;
+        this.userStatsService = userStatsService;
+        this.idempotentRequests = idempotentRequests;
+        this.writeBuffer = writeBuffer;
+        this.trending = trending;
     }
 
     @GetMapping
-    public ResponseEntity<List<Like>> getLikes(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return ResponseEntity.ok(likeRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    public ResponseEntity<List<Like>> getLikes(@CurrentUserId Long userId) {
+        writeBuffer.flushUser(userId);
+        return ResponseEntity.ok(likeRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
+    /**
+     * One keyset page, newest first, as {@code {items, nextCursor, total}};
+     * without {@code limit} the page holds {@link ActivityPage#DEFAULT_LIMIT} rows.
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Like>> getUserLikes(@PathVariable Long userId) {
-        return ResponseEntity.ok(likeRepository.findByUserIdOrderByCreatedAtDesc(userId));
+    public ResponseEntity<?> getUserLikes(@PathVariable Long userId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+        writeBuffer.flushUser(userId);
+        ActivityPage.Cursor after = ActivityPage.Cursor.parse(cursor);
+        Pageable probe = ActivityPage.probe(limit != null ? limit : ActivityPage.DEFAULT_LIMIT);
+        List<Like> rows = after.isFirst()
+                ? likeRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, probe)
+                : likeRepository.findPageBefore(userId, after.createdAt(), after.id(), probe);
+        Long total = after.isFirst() ? userStatsService.get(userId).getLikesCount() : null;
+        return ResponseEntity.ok(ActivityPage.of(rows, probe, total, Like::getCreatedAt, Like::getId));
     }
 
     @GetMapping("/{movieId}/check")
-    public ResponseEntity<Map<String, Boolean>> checkLikeStatus(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        boolean exists = likeRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<Map<String, Boolean>> checkLikeStatus(@PathVariable String movieId, @CurrentUserId Long userId) {
+        boolean exists = activitySets.contains(UserActivitySets.Kind.LIKED, userId, movieId);
         return ResponseEntity.ok(Map.of("isLiked", exists));
     }
 
     @PostMapping
-    public ResponseEntity<?> addToLikes(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> addToLikes(@RequestBody Map<String, Object> payload, @CurrentUserId Long userId,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return idempotentRequests.execute(userId, idempotencyKey, () -> addLike(payload, userId));
+    }
 
+    private ResponseEntity<?> addLike(Map<String, Object> payload, Long userId) {
         String movieId = String.valueOf(payload.get("movieId"));
-        if (likeRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
+        if (activitySets.contains(UserActivitySets.Kind.LIKED, userId, movieId)) {
             return ResponseEntity.badRequest().body("Movie already liked");
         }
 
@@ -64,20 +87,19 @@ public class LikeController {
         Double voteAverage = payload.get("voteAverage") != null ? Double.valueOf(payload.get("voteAverage").toString()) : 0.0;
         String releaseDate = (String) payload.get("releaseDate");
 
-        Like like = new Like(user, movieId, title, posterPath, voteAverage, releaseDate);
-        likeRepository.save(like);
+        writeBuffer.add(UserActivitySets.Kind.LIKED, userId, movieId,
+                new ActivityWriteBuffer.Movie(title, posterPath, voteAverage, releaseDate));
+        activitySets.added(UserActivitySets.Kind.LIKED, userId, movieId);
+        leaderboard.onActivity(userId);
+        trending.record(CommunityTrending.Signal.LIKE, movieId, title, posterPath);
 
         return ResponseEntity.ok(Map.of("message", "Added to likes"));
     }
 
     @DeleteMapping("/{movieId}")
-    @Transactional
-    public ResponseEntity<?> removeFromLikes(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        likeRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<?> removeFromLikes(@PathVariable String movieId, @CurrentUserId Long userId) {
+        writeBuffer.remove(UserActivitySets.Kind.LIKED, userId, movieId);
+        activitySets.removed(UserActivitySets.Kind.LIKED, userId, movieId);
         return ResponseEntity.ok(Map.of("message", "Removed from likes"));
     }
 }
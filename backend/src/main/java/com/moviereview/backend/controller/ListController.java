@@ -1,13 +1,26 @@
 package com.moviereview.backend.controller;
 
+import com.moviereview.backend.model.ListTag;
 import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.model.MovieListItem;
+import com.moviereview.backend.model.MovieSummary;
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.MovieListRepository;
 import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.AfterCommit;
+import com.moviereview.backend.service.CommunityTrending;
+import com.moviereview.backend.service.ListBrowseService;
+import com.moviereview.backend.service.ListItemService;
+import com.moviereview.backend.service.ListTagService;
+import com.moviereview.backend.service.MovieSummaryCache;
+import com.moviereview.backend.service.UserStatsService;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Map;
@@ -19,13 +32,27 @@ public class ListController {
 
     private final MovieListRepository movieListRepository;
     private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final CommunityTrending trending;
+    private final ListBrowseService listBrowseService;
+    private final ListItemService listItemService;
+    private final ListTagService listTagService;
+    private final MovieSummaryCache movieSummaryCache;
 
-    public ListController(MovieListRepository movieListRepository, UserRepository userRepository) {
+    public ListController(MovieListRepository movieListRepository, UserRepository userRepository,
+            UserStatsService userStatsService, CommunityTrending trending, ListBrowseService listBrowseService,
+            ListItemService listItemService, ListTagService listTagService, MovieSummaryCache movieSummaryCache) {
         this.movieListRepository = movieListRepository;
         this.userRepository = userRepository;
+        this.userStatsService = userStatsService;
+        this.trending = trending;
+        this.listBrowseService = listBrowseService;
+        this.listItemService = listItemService;
+        this.listTagService = listTagService;
+        this.movieSummaryCache = movieSummaryCache;
     }
 
-    private Map<String, Object> toMap(MovieList l) {
+    private Map<String, Object> toMap(MovieList l, List<String> movieIds) {
         Map<String, Object> m = new java.util.HashMap<>();
         m.put("id", l.getId());
         m.put("name", l.getName());
@@ -33,9 +60,9 @@ public class ListController {
         m.put("tags", l.getTags() != null ? l.getTags() : "");
         m.put("isPublic", l.isPublic());
         m.put("ranked", l.isRanked());
-        m.put("movieIds", l.getMovieIds());
+        m.put("movieIds", movieIds);
         m.put("createdAt", l.getCreatedAt().toString());
-        m.put("filmCount", l.getMovieIds().size());
+        m.put("filmCount", movieIds.size());
         if (l.getUser() != null) {
             m.put("authorId", l.getUser().getId());
             m.put("authorName", l.getUser().getName());
@@ -44,46 +71,246 @@ public class ListController {
         return m;
     }
 
+    /** The list and all its film ids; {@code view=true} counts the read as a detail page view. */
     @GetMapping("/{id}")
     @Transactional(readOnly = true)
-    public ResponseEntity<Map<String, Object>> getList(@PathVariable Long id) {
-        return movieListRepository.findById(id)
-                .map(l -> ResponseEntity.ok(toMap(l)))
+    public ResponseEntity<Map<String, Object>> getList(@PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean view) {
+        return movieListRepository.findDetailById(id)
+                .map(l -> {
+                    if (view) listBrowseService.recordView(l.getId());
+                    return ResponseEntity.ok(toMap(l, listItemService.movieIds(l.getId())));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * A list's films a page at a time, in order. {@code after} is the
+     * {@code nextCursor} of the previous page.
+     */
+    @GetMapping("/{id}/items")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getListItems(@PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 200) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 200");
+        }
+        if (!movieListRepository.existsById(id)) return ResponseEntity.notFound().build();
+        ListItemService.Cursor cursor = ListItemService.Cursor.parse(after);
+        List<MovieListItem> items = listItemService.page(id, cursor, limit + 1);
+        boolean hasNext = items.size() > limit;
+        if (hasNext) items = items.subList(0, limit);
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("items", items.stream().map(i -> {
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("movieId", i.getMovieId());
+            m.put("rank", i.getRank());
+            return m;
+        }).collect(Collectors.toList()));
+        result.put("nextCursor", hasNext ? ListItemService.Cursor.of(items.get(items.size() - 1)) : null);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * The detail page in one round trip: the list itself (first page only)
+     * and a page of its films with title, poster and year, in order. Long
+     * lists continue with {@code after} set to the previous
+     * {@code nextCursor}. Only the detail page's own first read passes
+     * {@code view=true}, so other readers such as the list editor are never
+     * counted as views. Not transactional, and with open-in-view off no
+     * connection is held while uncached films are fetched from TMDB.
+     */
+    @GetMapping("/{id}/hydrated")
+    public ResponseEntity<Map<String, Object>> getHydratedList(@PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean view) {
+        if (limit < 1 || limit > 200) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 200");
+        }
+        MovieList l = movieListRepository.findDetailById(id).orElse(null);
+        if (l == null) return ResponseEntity.notFound().build();
+        ListItemService.Cursor cursor = ListItemService.Cursor.parse(after);
+        List<MovieListItem> items = listItemService.page(id, cursor, limit + 1);
+        boolean hasNext = items.size() > limit;
+        if (hasNext) items = items.subList(0, limit);
+        Map<String, MovieSummary> summaries = movieSummaryCache.get(
+                items.stream().map(MovieListItem::getMovieId).toList());
+
+        if (view) listBrowseService.recordView(id);
+        Map<String, Object> result;
+        if (cursor == null) {
+            result = toMap(l, listItemService.movieIds(id));
+        } else {
+            result = new java.util.HashMap<>();
+            result.put("id", l.getId());
+        }
+        result.put("films", items.stream().map(i -> {
+            // TMDB's field names, so the poster components take these as they are
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("id", i.getMovieId());
+            m.put("rank", i.getRank());
+            MovieSummary s = summaries.get(i.getMovieId());
+            if (s != null) {
+                m.put("title", s.getTitle());
+                m.put("poster_path", s.getPosterPath());
+                m.put("release_date", s.getReleaseDate());
+                m.put("year", s.getYear());
+                m.put("vote_average", s.getVoteAverage());
+            }
+            return m;
+        }).collect(Collectors.toList()));
+        result.put("nextCursor", hasNext ? ListItemService.Cursor.of(items.get(items.size() - 1)) : null);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Positional edits: {@code {"ops": [{"type": "INSERT"|"MOVE"|"REMOVE",
+     * "movieId": ..., "after": movieId, "index": n}]}}, applied in order.
+     * Only the rows of the films named are written.
+     */
+    @PatchMapping("/{id}/items")
+    @Transactional
+    public ResponseEntity<Map<String, Object>> patchListItems(@PathVariable Long id,
+            @RequestBody Map<String, Object> payload, @CurrentUserId Long userId) {
+        MovieList list = movieListRepository.findForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("List not found"));
+        if (!list.getUser().getId().equals(userId))
+            return ResponseEntity.status(403).build();
+        if (!(payload.get("ops") instanceof List<?> rawOps) || rawOps.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ops must be a non-empty array");
+        }
+        List<ListItemService.Op> ops = new java.util.ArrayList<>();
+        for (Object raw : rawOps) {
+            if (!(raw instanceof Map<?, ?> op)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each op must be an object");
+            }
+            ListItemService.OpType type;
+            try {
+                type = ListItemService.OpType.valueOf(String.valueOf(op.get("type")).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown op type: " + op.get("type"));
+            }
+            Object index = op.get("index");
+            ops.add(new ListItemService.Op(type,
+                    op.get("movieId") != null ? String.valueOf(op.get("movieId")) : null,
+                    op.get("after") != null ? String.valueOf(op.get("after")) : null,
+                    index instanceof Number n ? Integer.valueOf(n.intValue()) : null));
+        }
+        List<String> added = listItemService.apply(list, ops);
+        recordListAdds(added);
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("id", list.getId());
+        result.put("filmCount", list.getFilmCount());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Public lists a page at a time, "recent" or "popular" (most viewed)
+     * first. Each card carries a film count and the first few movie ids for
+     * its posters rather than the whole list.
+     */
     @GetMapping("/all")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<Map<String, Object>>> getAllPublicLists() {
-        List<MovieList> lists = movieListRepository.findAll().stream()
-                .filter(MovieList::isPublic)
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lists.stream().map(this::toMap).collect(Collectors.toList()));
+    public ResponseEntity<Map<String, Object>> getAllPublicLists(@RequestParam(defaultValue = "recent") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
+        }
+        Slice<MovieList> lists = listBrowseService.browse(sort, page, size);
+        if (lists == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + sort);
+        }
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("content", lists.stream().map(ListController::toSummary).collect(Collectors.toList()));
+        result.put("page", page);
+        result.put("size", size);
+        result.put("sort", sort);
+        result.put("hasNext", lists.hasNext());
+        return ResponseEntity.ok(result);
+    }
+
+    /** Public lists carrying a tag, newest first, a page at a time. */
+    @GetMapping
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getListsByTag(@RequestParam String tag,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
+        }
+        Slice<MovieList> lists = listTagService.browse(tag, page, size);
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("content", lists.stream().map(ListController::toSummary).collect(Collectors.toList()));
+        result.put("page", page);
+        result.put("size", size);
+        result.put("tag", tag);
+        result.put("hasNext", lists.hasNext());
+        return ResponseEntity.ok(result);
+    }
+
+    /** The tag facet for the Lists page: the most used tags with their public list counts. */
+    @GetMapping("/tags")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Map<String, Object>>> getTagFacets(@RequestParam(defaultValue = "30") int limit) {
+        List<Map<String, Object>> result = new java.util.ArrayList<>();
+        for (ListTag tag : listTagService.facets(Math.min(Math.max(1, limit), 100))) {
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("name", tag.getName());
+            m.put("listCount", tag.getListCount());
+            result.add(m);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /** A list card without its films, shared with the movie page's lists. */
+    static Map<String, Object> toSummary(MovieList l) {
+        Map<String, Object> m = new java.util.HashMap<>();
+        m.put("id", l.getId());
+        m.put("name", l.getName());
+        m.put("description", l.getDescription() != null ? l.getDescription() : "");
+        m.put("tags", l.getTags() != null ? l.getTags() : "");
+        m.put("ranked", l.isRanked());
+        m.put("createdAt", l.getCreatedAt().toString());
+        m.put("filmCount", l.getFilmCount());
+        m.put("previewMovieIds", l.getPreviewMovieIds() == null || l.getPreviewMovieIds().isEmpty()
+                ? List.of() : List.of(l.getPreviewMovieIds().split(",")));
+        m.put("viewCount", l.getViewCount());
+        if (l.getUser() != null) {
+            m.put("authorId", l.getUser().getId());
+            m.put("authorName", l.getUser().getName());
+            m.put("authorPicture", l.getUser().getAvatarUrl() != null ? l.getUser().getAvatarUrl() : "");
+        }
+        return m;
     }
 
     @GetMapping("/user/{userId}")
     @Transactional(readOnly = true)
     public ResponseEntity<List<Map<String, Object>>> getUserLists(@PathVariable Long userId) {
-        List<MovieList> lists = movieListRepository.findByUserId(userId);
-        return ResponseEntity.ok(lists.stream().map(this::toMap).collect(Collectors.toList()));
+        return ResponseEntity.ok(toMaps(movieListRepository.findByUserId(userId)));
     }
 
     @GetMapping("/my")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<Map<String, Object>>> getMyLists(Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        List<MovieList> lists = movieListRepository.findByUserId(user.getId());
-        return ResponseEntity.ok(lists.stream().map(this::toMap).collect(Collectors.toList()));
+    public ResponseEntity<List<Map<String, Object>>> getMyLists(@CurrentUserId Long userId) {
+        return ResponseEntity.ok(toMaps(movieListRepository.findByUserId(userId)));
+    }
+
+    /** Cards with their films, loaded for all the lists in one query. */
+    private List<Map<String, Object>> toMaps(List<MovieList> lists) {
+        Map<Long, List<String>> movieIds = listItemService.movieIds(lists.stream().map(MovieList::getId).toList());
+        return lists.stream()
+                .map(l -> toMap(l, movieIds.getOrDefault(l.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 
     @PostMapping
     @Transactional
     public ResponseEntity<Map<String, Object>> createList(@RequestBody Map<String, Object> payload,
-            Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @CurrentUserId Long userId) {
+        User user = userRepository.getReferenceById(userId);
         MovieList list = new MovieList();
         list.setUser(user);
         list.setName((String) payload.getOrDefault("name", "Untitled List"));
@@ -93,43 +320,70 @@ public class ListController {
         list.setRanked(Boolean.TRUE.equals(payload.get("ranked")));
         @SuppressWarnings("unchecked")
         List<String> movieIds = (List<String>) payload.get("movieIds");
-        if (movieIds != null) list.setMovieIds(movieIds);
         movieListRepository.save(list);
-        return ResponseEntity.ok(toMap(list));
+        recordListAdds(listItemService.replaceAll(list, movieIds != null ? movieIds : List.of()));
+        listTagService.sync(list);
+        userStatsService.onListsChanged(userId, 1);
+        return ResponseEntity.ok(toMap(list, listItemService.movieIds(list.getId())));
     }
 
     @PutMapping("/{id}")
     @Transactional
     public ResponseEntity<Map<String, Object>> updateList(@PathVariable Long id,
-            @RequestBody Map<String, Object> payload, Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        MovieList list = movieListRepository.findById(id)
+            @RequestBody Map<String, Object> payload, @CurrentUserId Long userId) {
+        MovieList list = movieListRepository.findForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("List not found"));
-        if (!list.getUser().getId().equals(user.getId()))
+        if (!list.getUser().getId().equals(userId))
             return ResponseEntity.status(403).build();
         if (payload.containsKey("name")) list.setName((String) payload.get("name"));
         if (payload.containsKey("description")) list.setDescription((String) payload.get("description"));
-        if (payload.containsKey("tags")) list.setTags((String) payload.get("tags"));
-        if (payload.containsKey("visibility")) list.setPublic(!"private".equals(payload.get("visibility")));
+        if (payload.containsKey("visibility")) {
+            boolean wasPublic = list.isPublic();
+            list.setPublic(!"private".equals(payload.get("visibility")));
+            if (list.isPublic() != wasPublic) {
+                listItemService.visibilityChanged(list);
+                listTagService.visibilityChanged(list);
+            }
+        }
+        if (payload.containsKey("tags")) {
+            list.setTags((String) payload.get("tags"));
+            listTagService.sync(list);
+        }
         if (payload.containsKey("ranked")) list.setRanked(Boolean.TRUE.equals(payload.get("ranked")));
         @SuppressWarnings("unchecked")
         List<String> movieIds = (List<String>) payload.get("movieIds");
-        if (movieIds != null) list.setMovieIds(movieIds);
+        if (movieIds != null) {
+            recordListAdds(listItemService.replaceAll(list, movieIds));
+        }
         movieListRepository.save(list);
-        return ResponseEntity.ok(toMap(list));
+        return ResponseEntity.ok(toMap(list, listItemService.movieIds(list.getId())));
+    }
+
+    /**
+     * Films newly added to a list count towards community trending, with
+     * their cached title and poster; films not cached yet are recorded once
+     * TMDB has answered, without holding up the response.
+     */
+    private void recordListAdds(List<String> added) {
+        if (added.isEmpty()) return;
+        AfterCommit.run(() -> movieSummaryCache.getAsync(added).thenAccept(summaries -> added.forEach(id -> {
+            MovieSummary s = summaries.get(id);
+            trending.record(CommunityTrending.Signal.LIST_ADD, id, s != null ? s.getTitle() : null,
+                    s != null ? s.getPosterPath() : null);
+        })));
     }
 
     @DeleteMapping("/{id}")
     @Transactional
-    public ResponseEntity<?> deleteList(@PathVariable Long id, Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        MovieList list = movieListRepository.findById(id)
+    public ResponseEntity<?> deleteList(@PathVariable Long id, @CurrentUserId Long userId) {
+        MovieList list = movieListRepository.findForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("List not found"));
-        if (!list.getUser().getId().equals(user.getId()))
+        if (!list.getUser().getId().equals(userId))
             return ResponseEntity.status(403).build();
+        listItemService.deleteAll(list);
+        listTagService.deleteAll(list);
         movieListRepository.delete(list);
+        userStatsService.onListsChanged(userId, -1);
         return ResponseEntity.ok(Map.of("message", "Deleted"));
     }
 }
@@ -0,0 +1,97 @@
+package com.moviereview.backend.controller;
+
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.RecommendationService;
+import com.moviereview.backend.service.UserActivitySets;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The caller's own state across many movies at once, so a grid of posters
+ * needs one request instead of one check per poster per activity.
+ */
+@RestController
+@RequestMapping("/api/me")
+public class MeController {
+
+    static final int MAX_MOVIES = 300;
+
+    private final UserActivitySets activitySets;
+    private final ReviewRepository reviewRepository;
+    private final RecommendationService recommendationService;
+
+    public MeController(UserActivitySets activitySets, ReviewRepository reviewRepository,
+            RecommendationService recommendationService) {
+        this.activitySets = activitySets;
+        this.reviewRepository = reviewRepository;
+        this.recommendationService = recommendationService;
+    }
+
+    /** "Because you liked X": neighbours of the caller's recent likes, entries and watched marks. */
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<Map<String, Object>>> getRecommendations(@RequestParam(defaultValue = "20") int limit,
+            @CurrentUserId Long userId) {
+        List<Map<String, Object>> result = new java.util.ArrayList<>();
+        for (RecommendationService.Recommendation r : recommendationService.recommendationsFor(userId,
+                Math.max(1, limit))) {
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("movieId", r.movieId());
+            m.put("title", r.title());
+            m.put("posterPath", r.posterPath());
+            m.put("score", Math.round(r.score() * 1000) / 1000.0);
+            m.put("becauseMovieId", r.becauseMovieId());
+            m.put("becauseTitle", r.becauseTitle());
+            result.add(m);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Liked / watched / watchlisted / rating for each of {@code movieIds}
+     * (comma-separated), keyed by movie id. Likes, watched and watchlist come
+     * from the in-memory activity sets; ratings take one query.
+     */
+    @GetMapping("/status")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Map<String, Object>>> getStatus(@RequestParam List<String> movieIds,
+            @CurrentUserId Long userId) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : movieIds) {
+            if (!id.isBlank()) ids.add(id.trim());
+        }
+        if (ids.isEmpty() || ids.size() > MAX_MOVIES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "movieIds must list between 1 and " + MAX_MOVIES + " movies");
+        }
+
+        Map<String, Object[]> entries = new java.util.HashMap<>();
+        for (Object[] row : reviewRepository.findEntriesIn(userId, ids)) {
+            entries.putIfAbsent((String) row[0], row);
+        }
+
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            Object[] entry = entries.get(id);
+            double rating = entry != null ? ((Number) entry[1]).doubleValue() : 0;
+            Map<String, Object> status = new java.util.HashMap<>();
+            status.put("isLiked", activitySets.contains(UserActivitySets.Kind.LIKED, userId, id));
+            status.put("isWatched", activitySets.contains(UserActivitySets.Kind.WATCHED, userId, id));
+            status.put("inWatchlist", activitySets.contains(UserActivitySets.Kind.WATCHLIST, userId, id));
+            status.put("hasEntry", entry != null);
+            status.put("hasReview", entry != null && ((Number) entry[2]).intValue() == 1);
+            status.put("rating", rating > 0 ? rating : null);
+            result.put(id, status);
+        }
+        return ResponseEntity.ok(result);
+    }
+}
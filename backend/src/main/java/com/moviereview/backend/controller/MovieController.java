@@ -1,73 +1,83 @@
 package com.moviereview.backend.controller;
 
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.CommunityTrending;
+import com.moviereview.backend.service.FriendActivityService;
+import com.moviereview.backend.service.MovieListIndex;
 import com.moviereview.backend.service.TmdbService;
-import com.moviereview.backend.repository.*;
-import com.moviereview.backend.model.User;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/api/movies")
 public class MovieController {
 
     private final TmdbService tmdbService;
-    private final UserRepository userRepository;
-    private final LikeRepository likeRepository;
-    private final WatchedRepository watchedRepository;
-    private final WatchlistRepository watchlistRepository;
+    private final FriendActivityService friendActivityService;
+    private final ActivityLeaderboard leaderboard;
+    private final CommunityTrending communityTrending;
+    private final MovieListIndex movieListIndex;
 
-    public MovieController(TmdbService tmdbService, UserRepository userRepository, LikeRepository likeRepository,
-            WatchedRepository watchedRepository, WatchlistRepository watchlistRepository) {
+    public MovieController(TmdbService tmdbService, FriendActivityService friendActivityService,
+            ActivityLeaderboard leaderboard, CommunityTrending communityTrending, MovieListIndex movieListIndex) {
         this.tmdbService = tmdbService;
-        this.userRepository = userRepository;
-        this.likeRepository = likeRepository;
-        this.watchedRepository = watchedRepository;
-        this.watchlistRepository = watchlistRepository;
+        this.friendActivityService = friendActivityService;
+        this.leaderboard = leaderboard;
+        this.communityTrending = communityTrending;
+        this.movieListIndex = movieListIndex;
     }
 
     @GetMapping("/{id}/friend-activity")
     public ResponseEntity<List<Map<String, Object>>> getFriendActivity(@PathVariable String id,
-            Authentication authentication) {
-        if (authentication == null) {
+            @CurrentUserId(required = false) Long userId) {
+        if (userId == null) {
             return ResponseEntity.ok(List.of());
         }
+        return ResponseEntity.ok(friendActivityService.activity(userId, id));
+    }
 
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email).orElse(null);
-        if (currentUser == null) {
-            return ResponseEntity.ok(List.of());
+    /** "Appears in N lists": the public lists featuring a film, most viewed first. */
+    @GetMapping("/{id}/lists")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getListsContaining(@PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
         }
+        Slice<MovieList> lists = movieListIndex.listsContaining(id, page, size);
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("listCount", movieListIndex.count(id));
+        result.put("content", lists.stream().map(ListController::toSummary).toList());
+        result.put("page", page);
+        result.put("size", size);
+        result.put("hasNext", lists.hasNext());
+        return ResponseEntity.ok(result);
+    }
 
-        Set<User> following = currentUser.getFollowing();
-        List<Map<String, Object>> activity = new ArrayList<>();
-
-        for (User friend : following) {
-            String status = null;
-            // Precedence: Like > Watched > Watchlist
-            if (likeRepository.existsByUserIdAndMovieId(friend.getId(), id)) {
-                status = "LIKED";
-            } else if (watchedRepository.existsByUserIdAndMovieId(friend.getId(), id)) {
-                status = "WATCHED";
-            } else if (watchlistRepository.existsByUserIdAndMovieId(friend.getId(), id)) {
-                status = "WATCHLIST";
-            }
-
-            if (status != null) {
-                activity.add(Map.of(
-                        "userId", friend.getId(),
-                        "name", friend.getName(),
-                        "avatarUrl", friend.getAvatarUrl() != null ? friend.getAvatarUrl() : "",
-                        "status", status));
-            }
+    /** Films with the most diary entries over the last seven days. */
+    @GetMapping("/most-logged")
+    public ResponseEntity<List<Map<String, Object>>> getMostLogged(@RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> result = new java.util.ArrayList<>();
+        for (ActivityLeaderboard.Ranked r : leaderboard.topFilms(Math.max(1, limit))) {
+            ActivityLeaderboard.Film film = leaderboard.film(r.id());
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("movieId", String.valueOf(r.id()));
+            m.put("title", film != null ? film.title() : null);
+            m.put("posterUrl", film != null ? film.posterUrl() : null);
+            m.put("entriesCount", r.count());
+            result.add(m);
         }
-
-        return ResponseEntity.ok(activity);
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/trending")
@@ -75,6 +85,22 @@ public class MovieController {
         return ResponseEntity.ok(tmdbService.getTrendingMovies());
     }
 
+    /** Films trending on MoviePulse itself: recent likes, watched marks, entries and list adds, decayed. */
+    @GetMapping("/trending/community")
+    public ResponseEntity<List<Map<String, Object>>> getCommunityTrending(
+            @RequestParam(defaultValue = "20") int limit) {
+        List<Map<String, Object>> result = new java.util.ArrayList<>();
+        for (CommunityTrending.Trending t : communityTrending.top(Math.max(1, limit))) {
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("movieId", t.movieId());
+            m.put("title", t.title());
+            m.put("posterPath", t.posterPath());
+            m.put("score", Math.round(t.score() * 100) / 100.0);
+            result.add(m);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/top-rated")
     public ResponseEntity<List<Map<String, Object>>> getTopRatedMovies() {
         return ResponseEntity.ok(tmdbService.getTopRatedMovies());
@@ -1,11 +1,10 @@
 package com.moviereview.backend.controller;
 
 import com.moviereview.backend.model.Notification;
-import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.NotificationRepository;
-import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.CurrentUserId;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,21 +16,15 @@ import java.util.stream.Collectors;
 public class NotificationController {
 
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
 
-    public NotificationController(NotificationRepository notificationRepository, UserRepository userRepository) {
+    public NotificationController(NotificationRepository notificationRepository) {
         this.notificationRepository = notificationRepository;
-        this.userRepository = userRepository;
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getNotifications(Authentication authentication) {
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ResponseEntity<List<Map<String, Object>>> getNotifications(@CurrentUserId Long userId) {
         List<Notification> notifications = notificationRepository
-                .findByRecipientIdOrderByCreatedAtDesc(currentUser.getId());
+                .findByRecipientIdOrderByCreatedAtDesc(userId);
 
         List<Map<String, Object>> result = notifications.stream()
                 .map(n -> Map.<String, Object>of(
@@ -49,15 +42,12 @@ public class NotificationController {
     }
 
     @PutMapping("/{id}/read")
-    public ResponseEntity<?> markAsRead(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    @Transactional
+    public ResponseEntity<?> markAsRead(@PathVariable Long id, @CurrentUserId Long userId) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
-        if (!notification.getRecipient().getId().equals(currentUser.getId())) {
+        if (!notification.getRecipient().getId().equals(userId)) {
             return ResponseEntity.status(403).body("Access denied");
         }
 
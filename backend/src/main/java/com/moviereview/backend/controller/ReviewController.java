@@ -8,12 +8,25 @@ import com.moviereview.backend.repository.LikeRepository;
 import com.moviereview.backend.repository.ReviewLikeRepository;
 import com.moviereview.backend.repository.ReviewRepository;
 import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.ActivityWriteBuffer;
+import com.moviereview.backend.service.AfterCommit;
+import com.moviereview.backend.service.CommunityTrending;
+import com.moviereview.backend.service.FollowGraphIndex;
+import com.moviereview.backend.service.IdempotentRequests;
+import com.moviereview.backend.service.TasteCompatibility;
+import com.moviereview.backend.service.UserActivitySets;
+import com.moviereview.backend.service.UserStatsService;
+import com.moviereview.backend.service.YearInReviewService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,61 +40,77 @@ public class ReviewController {
     private final UserRepository userRepository;
     private final LikeRepository likeRepository;
     private final ReviewLikeRepository reviewLikeRepository;
+    private final FollowGraphIndex followGraph;
+    private final UserStatsService userStatsService;
+    private final ActivityLeaderboard leaderboard;
+    private final YearInReviewService yearInReviewService;
+    private final UserActivitySets activitySets;
+    private final IdempotentRequests idempotentRequests;
+    private final ActivityWriteBuffer writeBuffer;
+    private final CommunityTrending trending;
+    private final TasteCompatibility tasteCompatibility;
 
     public ReviewController(ReviewRepository reviewRepository, UserRepository userRepository,
-            LikeRepository likeRepository, ReviewLikeRepository reviewLikeRepository) {
+            LikeRepository likeRepository, ReviewLikeRepository reviewLikeRepository,
+            FollowGraphIndex followGraph, UserStatsService userStatsService, ActivityLeaderboard leaderboard,
+            YearInReviewService yearInReviewService, UserActivitySets activitySets,
+            IdempotentRequests idempotentRequests, ActivityWriteBuffer writeBuffer,
+            CommunityTrending trending, TasteCompatibility tasteCompatibility) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.likeRepository = likeRepository;
         this.reviewLikeRepository = reviewLikeRepository;
+        this.followGraph = followGraph;
+        this.userStatsService = userStatsService;
+        this.leaderboard = leaderboard;
+        this.yearInReviewService = yearInReviewService;
+        this.activitySets = activitySets;
+        this.idempotentRequests = idempotentRequests;
+        this.writeBuffer = writeBuffer;
+        this.trending = trending;
+        this.tasteCompatibility = tasteCompatibility;
     }
 
     @PostMapping("/{reviewId}/like")
-    @Transactional
-    public ResponseEntity<?> likeReview(@PathVariable Long reviewId, Authentication authentication) {
-        try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> likeReview(@PathVariable Long reviewId, @CurrentUserId Long userId,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return idempotentRequests.execute(userId, idempotencyKey, () -> addReviewLike(reviewId, userId));
+    }
 
-            Review review = reviewRepository.findById(reviewId)
+    private ResponseEntity<?> addReviewLike(Long reviewId, Long userId) {
+        int inserted;
+        try {
+            inserted = reviewLikeRepository.insertIfAbsent(userId, reviewId, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request inserted the same like first
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Review already liked");
+        }
+        if (inserted == 0) {
+            // Nothing inserted: work out which rule stopped it
+            Long authorId = reviewRepository.findUserIdById(reviewId)
                     .orElseThrow(() -> new RuntimeException("Review not found"));
-
             // Prevent self-liking
-            if (review.getUser().getId().equals(user.getId())) {
+            if (authorId.equals(userId)) {
                 return ResponseEntity.badRequest().body("Cannot like your own review");
             }
-
-            if (reviewLikeRepository.existsByUserIdAndReviewId(user.getId(), reviewId)) {
-                return ResponseEntity.badRequest().body("Review already liked");
-            }
-
-            ReviewLike reviewLike = new ReviewLike(user, review);
-            reviewLikeRepository.save(reviewLike);
-
-            return ResponseEntity.ok(Map.of("message", "Review liked"));
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+            return ResponseEntity.badRequest().body("Review already liked");
         }
+
+        return ResponseEntity.ok(Map.of("message", "Review liked"));
     }
 
     // Support both DELETE method and POST .../unlike for compatibility
     @PostMapping("/{reviewId}/unlike")
     @Transactional
-    public ResponseEntity<?> unlikeReviewPost(@PathVariable Long reviewId, Authentication authentication) {
-        return unlikeReview(reviewId, authentication);
+    public ResponseEntity<?> unlikeReviewPost(@PathVariable Long reviewId, @CurrentUserId Long userId) {
+        return unlikeReview(reviewId, userId);
     }
 
     @DeleteMapping("/{reviewId}/like")
     @Transactional
-    public ResponseEntity<?> unlikeReview(@PathVariable Long reviewId, Authentication authentication) {
+    public ResponseEntity<?> unlikeReview(@PathVariable Long reviewId, @CurrentUserId Long userId) {
         try {
-            String email = authentication.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            reviewLikeRepository.deleteByUserIdAndReviewId(user.getId(), reviewId);
+            reviewLikeRepository.deleteByUserIdAndReviewId(userId, reviewId);
 
             return ResponseEntity.ok(Map.of("message", "Review unliked"));
         } catch (Exception e) {
@@ -106,28 +135,33 @@ public class ReviewController {
 
     @PostMapping
     @Transactional
-    public ResponseEntity<?> createReview(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ResponseEntity<?> createReview(@RequestBody Map<String, Object> payload, @CurrentUserId Long userId) {
         String movieId = String.valueOf(payload.get("movieId"));
-        List<Review> existingReviews = reviewRepository.findAllByUserIdAndMovieId(user.getId(), movieId);
+        List<Review> existingReviews = reviewRepository.findAllByUserIdAndMovieId(userId, movieId);
         Review review;
+        boolean isNew = existingReviews.isEmpty();
 
-        if (!existingReviews.isEmpty()) {
+        if (!isNew) {
             review = existingReviews.get(0);
             // Optional: cleanup duplicates if any
             if (existingReviews.size() > 1) {
                 for (int i = 1; i < existingReviews.size(); i++) {
-                    reviewRepository.delete(existingReviews.get(i));
+                    Review duplicate = existingReviews.get(i);
+                    reviewRepository.delete(duplicate);
+                    userStatsService.onReviewAdded(userId, duplicate.getContent() != null,
+                            duplicate.getCreatedAt(), -1);
+                    yearInReviewService.onEntryChanged(userId, YearInReviewService.Entry.of(duplicate), null);
                 }
             }
         } else {
             review = new Review();
-            review.setUser(user);
+            // Loaded rather than referenced: the saved entry is serialized with its author
+            review.setUser(userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found")));
             review.setMovieId(movieId);
         }
+        boolean hadContent = !isNew && review.getContent() != null;
+        YearInReviewService.Entry before = isNew ? null : YearInReviewService.Entry.of(review);
 
         review.setMovieTitle((String) payload.get("movieTitle"));
         review.setMovieYear((String) payload.get("movieYear"));
@@ -163,7 +197,7 @@ public class ReviewController {
         // Handle Like status
         Boolean isLiked = (Boolean) payload.get("isLiked");
         if (isLiked != null) {
-            boolean currentlyLiked = likeRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+            boolean currentlyLiked = activitySets.contains(UserActivitySets.Kind.LIKED, userId, movieId);
 
             if (isLiked && !currentlyLiked) {
                 // Add like
@@ -172,43 +206,69 @@ public class ReviewController {
                         : 0.0;
                 String releaseDate = (String) payload.get("releaseDate");
 
-                Like like = new Like(
-                        user,
-                        movieId,
+                ActivityWriteBuffer.Movie movie = new ActivityWriteBuffer.Movie(
                         review.getMovieTitle(),
                         review.getMoviePosterUrl(),
                         voteAverage,
                         releaseDate != null ? releaseDate : review.getMovieYear());
 
-                likeRepository.save(like);
+                // Buffered only once the entry itself has committed
+                AfterCommit.run(() -> {
+                    writeBuffer.add(UserActivitySets.Kind.LIKED, userId, movieId, movie);
+                    activitySets.added(UserActivitySets.Kind.LIKED, userId, movieId);
+                    leaderboard.onActivity(userId);
+                    trending.record(CommunityTrending.Signal.LIKE, movieId, movie.title(), movie.posterPath());
+                });
             } else if (!isLiked && currentlyLiked) {
                 // Remove like
-                likeRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+                AfterCommit.run(() -> {
+                    writeBuffer.remove(UserActivitySets.Kind.LIKED, userId, movieId);
+                    activitySets.removed(UserActivitySets.Kind.LIKED, userId, movieId);
+                });
             }
         }
 
         Review savedReview = reviewRepository.save(review);
+        boolean hasContent = savedReview.getContent() != null;
+        if (isNew) {
+            userStatsService.onReviewAdded(userId, hasContent, savedReview.getCreatedAt(), 1);
+            AfterCommit.run(() -> {
+                leaderboard.onEntry(userId, movieId, savedReview.getMovieTitle(), savedReview.getMoviePosterUrl());
+                trending.record(CommunityTrending.Signal.REVIEW, movieId, savedReview.getMovieTitle(),
+                        savedReview.getMoviePosterUrl());
+            });
+        } else if (hasContent != hadContent) {
+            userStatsService.onReviewTextChanged(userId, hasContent ? 1 : -1);
+        }
+        yearInReviewService.onEntryChanged(userId, before, YearInReviewService.Entry.of(savedReview));
+        AfterCommit.run(() -> tasteCompatibility.onRatingsChanged(userId));
         return ResponseEntity.ok(savedReview);
     }
 
     @GetMapping("/friends")
-    public ResponseEntity<List<Map<String, Object>>> getFriendReviews(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Long> followingIds = user.getFollowing().stream()
-                .map(User::getId)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Map<String, Object>>> getFriendReviews(@CurrentUserId Long userId) {
+        List<Long> followingIds = java.util.Arrays.stream(followGraph.followingIds(userId))
+                .boxed()
                 .toList();
 
         if (followingIds.isEmpty()) {
             return ResponseEntity.ok(List.of());
         }
 
-        List<Review> reviews = reviewRepository.findByUserIdInOrderByCreatedAtDesc(followingIds);
+        List<Review> reviews = reviewRepository.findByUserIdInOrderByCreatedAtDesc(followingIds).stream()
+                .filter(r -> !r.isRatingOnly())
+                .toList();
+        if (reviews.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<Long> reviewIds = reviews.stream().map(Review::getId).toList();
+        java.util.Set<Long> likedReviewIds = new java.util.HashSet<>(
+                reviewLikeRepository.findLikedReviewIds(userId, reviewIds));
+        activitySets.preload(UserActivitySets.Kind.LIKED,
+                reviews.stream().map(r -> r.getUser().getId()).distinct().toList());
 
         List<Map<String, Object>> result = reviews.stream()
-                .filter(r -> !r.isRatingOnly())
                 .map(review -> {
             Map<String, Object> map = new HashMap<>();
             map.put("id", review.getId());
@@ -222,13 +282,13 @@ public class ReviewController {
             map.put("containsSpoiler", review.isContainsSpoiler());
             map.put("createdAt", review.getCreatedAt());
             map.put("user", review.getUser());
-            map.put("tags", review.getTags());
+            map.put("tags", tags(review));
 
-            boolean isLiked = likeRepository.existsByUserIdAndMovieId(review.getUser().getId(), review.getMovieId());
+            boolean isLiked = activitySets.contains(UserActivitySets.Kind.LIKED, review.getUser().getId(),
+                    review.getMovieId());
             map.put("isLiked", isLiked);
 
-            boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(user.getId(), review.getId());
-            map.put("isReviewLiked", isReviewLiked);
+            map.put("isReviewLiked", likedReviewIds.contains(review.getId()));
 
             return map;
         }).toList();
@@ -237,18 +297,24 @@ public class ReviewController {
     }
 
     @GetMapping("/user/{userId}")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Map<String, Object>>> getUserReviews(@PathVariable Long userId,
-            Authentication authentication) {
-        List<Review> reviews = reviewRepository.findByUserId(userId);
-        User currentUser = null;
-        if (authentication != null) {
-            String email = authentication.getName();
-            currentUser = userRepository.findByEmail(email).orElse(null);
+            @CurrentUserId(required = false) Long currentUserId) {
+        List<Review> reviews = reviewRepository.findByUserId(userId).stream()
+                .filter(r -> !r.isRatingOnly())
+                .toList();
+        if (reviews.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<Long> reviewIds = reviews.stream().map(Review::getId).toList();
+        java.util.Set<Long> likedReviewIds = currentUserId == null ? java.util.Set.of()
+                : new java.util.HashSet<>(reviewLikeRepository.findLikedReviewIds(currentUserId, reviewIds));
+        Map<Long, Long> likeCounts = new HashMap<>();
+        for (Object[] row : reviewLikeRepository.countByReviewIds(reviewIds)) {
+            likeCounts.put((Long) row[0], (Long) row[1]);
         }
 
-        User finalCurrentUser = currentUser;
         List<Map<String, Object>> result = reviews.stream()
-                .filter(r -> !r.isRatingOnly())
                 .map(review -> {
             Map<String, Object> map = new HashMap<>();
             map.put("id", review.getId());
@@ -263,25 +329,19 @@ public class ReviewController {
             map.put("watchedDate", review.getWatchedDate());
             map.put("createdAt", review.getCreatedAt());
             map.put("user", review.getUser());
-            map.put("tags", review.getTags());
+            map.put("tags", tags(review));
 
             // Check if MOVIE is liked (legacy field isLiked usually meant movie like in
             // some contexts,
             // but in ReviewCard it often means Review Like.
             // In getFriendReviews, isLiked = movie like, isReviewLiked = review like.
             // Let's keep consistency with getFriendReviews).
-            boolean isLiked = likeRepository.existsByUserIdAndMovieId(review.getUser().getId(), review.getMovieId());
+            boolean isLiked = activitySets.contains(UserActivitySets.Kind.LIKED, review.getUser().getId(),
+                    review.getMovieId());
             map.put("isLiked", isLiked); // This is "did the reviewer like the movie?"
 
-            boolean isReviewLiked = false;
-            if (finalCurrentUser != null) {
-                isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(finalCurrentUser.getId(),
-                        review.getId());
-            }
-            map.put("isReviewLiked", isReviewLiked);
-
-            long likesCount = reviewLikeRepository.countByReviewId(review.getId());
-            map.put("likesCount", likesCount);
+            map.put("isReviewLiked", likedReviewIds.contains(review.getId()));
+            map.put("likesCount", likeCounts.getOrDefault(review.getId(), 0L));
 
             return map;
         }).toList();
@@ -291,13 +351,10 @@ public class ReviewController {
 
     @GetMapping("/movie/{movieId}/check")
     @Transactional
-    public ResponseEntity<?> checkReviewStatus(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Review> reviews = reviewRepository.findAllByUserIdAndMovieId(user.getId(), movieId.trim());
-        Optional<Like> likeOpt = likeRepository.findByUserIdAndMovieId(user.getId(), movieId.trim());
+    public ResponseEntity<?> checkReviewStatus(@PathVariable String movieId, @CurrentUserId Long userId) {
+        writeBuffer.flushUser(userId);
+        List<Review> reviews = reviewRepository.findAllByUserIdAndMovieId(userId, movieId.trim());
+        Optional<Like> likeOpt = likeRepository.findByUserIdAndMovieId(userId, movieId.trim());
 
         Map<String, Object> response = new HashMap<>();
 
@@ -326,7 +383,7 @@ public class ReviewController {
                 response.put("review", review);
             }
 
-            boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(user.getId(), review.getId());
+            boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(userId, review.getId());
             response.put("isReviewLiked", isReviewLiked);
 
             long reviewLikeCount = reviewLikeRepository.countByReviewId(review.getId());
@@ -339,6 +396,11 @@ public class ReviewController {
         }
     }
 
+    /** The entry's tags, loaded now while the transaction is open. */
+    private static List<String> tags(Review review) {
+        return review.getTags() != null ? new java.util.ArrayList<>(review.getTags()) : null;
+    }
+
     @GetMapping("/search/tags")
     public ResponseEntity<List<Review>> searchReviewsByTag(@RequestParam String tag) {
         return ResponseEntity.ok(reviewRepository.findByTagsContaining(tag));
@@ -346,7 +408,8 @@ public class ReviewController {
 
     @GetMapping("/user/{userId}/movie/{movieId}")
     public ResponseEntity<?> getUserReviewForMovie(@PathVariable Long userId, @PathVariable String movieId,
-            Authentication authentication) {
+            @CurrentUserId(required = false) Long currentUserId) {
+        writeBuffer.flushUser(userId);
         List<Review> reviews = reviewRepository.findAllByUserIdAndMovieId(userId, movieId.trim());
         Optional<Like> likeOpt = likeRepository.findByUserIdAndMovieId(userId, movieId.trim());
 
@@ -372,16 +435,10 @@ public class ReviewController {
             }
 
             // Check if requesting user liked this review
-            if (authentication != null) {
-                String email = authentication.getName();
-                Optional<User> currentUserOpt = userRepository.findByEmail(email);
-                if (currentUserOpt.isPresent()) {
-                    boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(currentUserOpt.get().getId(),
-                            review.getId());
-                    response.put("isReviewLiked", isReviewLiked);
-                } else {
-                    response.put("isReviewLiked", false);
-                }
+            if (currentUserId != null) {
+                boolean isReviewLiked = reviewLikeRepository.existsByUserIdAndReviewId(currentUserId,
+                        review.getId());
+                response.put("isReviewLiked", isReviewLiked);
             } else {
                 response.put("isReviewLiked", false);
             }
@@ -4,119 +4,223 @@ import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Notification;
 import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.NotificationRepository;
-import com.moviereview.backend.repository.ReviewRepository;
-import com.moviereview.backend.repository.MovieListRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.AfterCommit;
+import com.moviereview.backend.service.FollowGraphIndex;
+import com.moviereview.backend.service.JdbcWrites;
+import com.moviereview.backend.service.SuggestionService;
+import com.moviereview.backend.service.TasteCompatibility;
+import com.moviereview.backend.service.UserSearchIndex;
+import com.moviereview.backend.service.UserStatsService;
+import com.moviereview.backend.service.YearInReviewService;
+import com.moviereview.backend.model.UserStats;
+import com.moviereview.backend.model.UserSuggestion;
+import com.moviereview.backend.model.YearInReview;
+import com.moviereview.backend.repository.UserStatsRepository.MemberSummary;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final String INSERT_FOLLOWER =
+            "INSERT INTO user_followers (user_id, follower_id) VALUES (?, ?)";
+
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
-    private final ReviewRepository reviewRepository;
-    private final MovieListRepository movieListRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final FollowGraphIndex followGraph;
+    private final UserStatsService userStatsService;
+    private final UserSearchIndex userSearchIndex;
+    private final SuggestionService suggestionService;
+    private final ActivityLeaderboard leaderboard;
+    private final YearInReviewService yearInReviewService;
+    private final TasteCompatibility tasteCompatibility;
+    private final JdbcTemplate jdbcTemplate;
 
     public UserController(UserRepository userRepository,
             NotificationRepository notificationRepository,
-            ReviewRepository reviewRepository,
-            MovieListRepository movieListRepository,
-            SimpMessagingTemplate messagingTemplate) {
+            SimpMessagingTemplate messagingTemplate,
+            FollowGraphIndex followGraph,
+            UserStatsService userStatsService,
+            UserSearchIndex userSearchIndex,
+            SuggestionService suggestionService,
+            ActivityLeaderboard leaderboard,
+            YearInReviewService yearInReviewService,
+            TasteCompatibility tasteCompatibility,
+            JdbcTemplate jdbcTemplate) {
         this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
-        this.reviewRepository = reviewRepository;
-        this.movieListRepository = movieListRepository;
         this.messagingTemplate = messagingTemplate;
+        this.followGraph = followGraph;
+        this.userStatsService = userStatsService;
+        this.userSearchIndex = userSearchIndex;
+        this.suggestionService = suggestionService;
+        this.leaderboard = leaderboard;
+        this.yearInReviewService = yearInReviewService;
+        this.tasteCompatibility = tasteCompatibility;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Map<String, Object>>> searchUsers(@RequestParam String query) {
-        List<User> users = userRepository.findByNameContainingIgnoreCase(query);
-        List<Map<String, Object>> result = users.stream()
+    public ResponseEntity<List<Map<String, Object>>> searchUsers(@RequestParam String query,
+            @RequestParam(defaultValue = "20") int limit,
+            @CurrentUserId(required = false) Long searcherId) {
+        List<Map<String, Object>> result = userSearchIndex.search(query, searcherId, Math.max(1, Math.min(limit, 50)))
+                .stream()
                 .map(u -> Map.<String, Object>of(
-                        "id", u.getId(),
-                        "name", u.getName(),
-                        "username", u.getEmail() != null ? u.getEmail().split("@")[0] : "",
-                        "picture", u.getAvatarUrl() != null ? u.getAvatarUrl() : ""))
+                        "id", u.id(),
+                        "name", u.name(),
+                        "username", u.username(),
+                        "picture", u.avatarUrl() != null ? u.avatarUrl() : "",
+                        "followersCount", followGraph.followerCount(u.id())))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/all")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<Map<String, Object>>> getAllUsers(Authentication authentication) {
-        List<User> users = userRepository.findAll();
-        List<Map<String, Object>> result = users.stream().map(u -> {
-            long filmsCount = reviewRepository.countByUserId(u.getId());
-            long reviewsCount = reviewRepository.countByUserIdAndContentIsNotNull(u.getId());
+    public ResponseEntity<Map<String, Object>> getAllUsers(@RequestParam(defaultValue = "followers") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "48") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
+        }
+        Slice<MemberSummary> members = userStatsService.members(sort, page, size);
+        if (members == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + sort);
+        }
+        List<Map<String, Object>> content = members.stream().map(u -> {
             Map<String, Object> m = new java.util.HashMap<>();
             m.put("id", u.getId());
             m.put("name", u.getName());
             m.put("picture", u.getAvatarUrl() != null ? u.getAvatarUrl() : "");
-            m.put("filmsCount", filmsCount);
-            m.put("reviewsCount", reviewsCount);
-            m.put("followersCount", u.getFollowers().size());
+            m.put("filmsCount", u.getFilmsCount());
+            m.put("reviewsCount", u.getReviewsCount());
+            m.put("followersCount", u.getFollowersCount());
             return m;
         }).collect(Collectors.toList());
+
+        Map<String, Object> result = new java.util.HashMap<>();
+        result.put("content", content);
+        result.put("page", page);
+        result.put("size", size);
+        result.put("sort", sort);
+        result.put("hasNext", members.hasNext());
+        return ResponseEntity.ok(result);
+    }
+
+    /** Most active members over the last seven days: diary entries, likes and watched marks. */
+    @GetMapping("/active")
+    public ResponseEntity<List<Map<String, Object>>> getActiveMembers(@RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> result = new java.util.ArrayList<>();
+        for (ActivityLeaderboard.Ranked r : leaderboard.topMembers(Math.max(1, limit))) {
+            UserSearchIndex.Entry u = userSearchIndex.get(r.id());
+            if (u == null) continue;
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("id", u.id());
+            m.put("name", u.name());
+            m.put("picture", u.avatarUrl() != null ? u.avatarUrl() : "");
+            m.put("activityCount", r.count());
+            result.add(m);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<?> getSuggestions(@RequestParam(defaultValue = "10") int limit,
+            @CurrentUserId Long userId) {
+        List<UserSuggestion> suggestions = suggestionService.suggestionsFor(userId,
+                Math.max(1, Math.min(limit, 20)));
+        Map<Long, User> users = new java.util.HashMap<>();
+        userRepository.findAllById(suggestions.stream().map(UserSuggestion::getCandidateId).toList())
+                .forEach(u -> users.put(u.getId(), u));
+
+        List<Map<String, Object>> result = new java.util.ArrayList<>();
+        for (UserSuggestion s : suggestions) {
+            User u = users.get(s.getCandidateId());
+            if (u == null) continue;
+            Map<String, Object> m = new java.util.HashMap<>();
+            m.put("id", u.getId());
+            m.put("name", u.getName());
+            m.put("picture", u.getAvatarUrl() != null ? u.getAvatarUrl() : "");
+            m.put("mutualCount", s.getMutualCount());
+            m.put("sharedLikes", s.getSharedLikes());
+            m.put("followersCount", followGraph.followerCount(u.getId()));
+            result.add(m);
+        }
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{id}")
     @Transactional(readOnly = true)
-    public ResponseEntity<?> getUserProfile(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id,
+            @CurrentUserId(required = false) Long currentUserId) {
         User targetUser = userRepository.findById(id).orElse(null);
         if (targetUser == null) {
             return ResponseEntity.notFound().build();
         }
 
-        User currentUser = null;
-        boolean isFollowing = false;
-        if (authentication != null) {
-            String email = authentication.getName();
-            currentUser = userRepository.findByEmail(email).orElse(null);
-            if (currentUser != null) {
-                isFollowing = targetUser.getFollowers().contains(currentUser);
-            }
-        }
+        boolean isFollowing = currentUserId != null && followGraph.isFollowing(currentUserId, targetUser.getId());
 
-        long filmsCount = reviewRepository.countByUserId(targetUser.getId());
-        long listsCount = movieListRepository.countByUserId(targetUser.getId());
-        LocalDateTime startOfYear = LocalDateTime.of(LocalDateTime.now().getYear(), 1, 1, 0, 0);
-        long thisYearCount = reviewRepository.countByUserIdAndCreatedAtAfter(targetUser.getId(), startOfYear);
+        UserStats stats = userStatsService.get(targetUser.getId());
 
         Map<String, Object> result = new java.util.HashMap<>();
         result.put("id", targetUser.getId());
         result.put("name", targetUser.getName());
         result.put("bio", targetUser.getBio() != null ? targetUser.getBio() : "");
         result.put("picture", targetUser.getAvatarUrl() != null ? targetUser.getAvatarUrl() : "");
-        result.put("followersCount", targetUser.getFollowers().size());
-        result.put("followingCount", targetUser.getFollowing().size());
-        result.put("filmsCount", filmsCount);
-        result.put("listsCount", listsCount);
-        result.put("thisYearCount", thisYearCount);
+        result.put("followersCount", stats.getFollowersCount());
+        result.put("followingCount", stats.getFollowingCount());
+        result.put("filmsCount", stats.getFilmsCount());
+        result.put("listsCount", stats.getListsCount());
+        result.put("thisYearCount", stats.getFilmsThisYear());
+        result.put("likesCount", stats.getLikesCount());
+        result.put("watchedCount", stats.getWatchedCount());
+        result.put("watchlistCount", stats.getWatchlistCount());
         result.put("isFollowing", isFollowing);
         result.put("favoriteMovieIds", targetUser.getFavoriteMovieIds() != null ? targetUser.getFavoriteMovieIds() : "");
+        if (currentUserId != null && !currentUserId.equals(targetUser.getId())) {
+            TasteCompatibility.Result taste = tasteCompatibility.between(currentUserId, targetUser.getId());
+            Map<String, Object> compatibility = new java.util.HashMap<>();
+            compatibility.put("overlap", taste.overlap());
+            compatibility.put("score", taste.score());
+            compatibility.put("pearson", taste.pearson());
+            compatibility.put("cosine", taste.cosine());
+            compatibility.put("sharedFavorites", taste.sharedFavorites());
+            result.put("tasteCompatibility", compatibility);
+        }
         return ResponseEntity.ok(result);
     }
 
+    /** Year-in-review page: one precomputed row per user and year. */
+    @GetMapping("/{id}/stats/{year}")
+    public ResponseEntity<Map<String, Object>> getYearStats(@PathVariable Long id, @PathVariable int year) {
+        if (year < 1900 || year > java.time.LocalDate.now().getYear() + 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown year: " + year);
+        }
+        YearInReview stats = yearInReviewService.get(id, year);
+        if (stats == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(yearInReviewService.toResponse(stats));
+    }
+
     @GetMapping("/{id}/following-ids")
-    @Transactional(readOnly = true)
     public ResponseEntity<List<Long>> getFollowingIds(@PathVariable Long id) {
-        User user = userRepository.findById(id).orElse(null);
-        if (user == null) return ResponseEntity.notFound().build();
-        List<Long> ids = user.getFollowing().stream().map(User::getId).collect(Collectors.toList());
+        List<Long> ids = java.util.Arrays.stream(followGraph.followingIds(id)).boxed().collect(Collectors.toList());
         return ResponseEntity.ok(ids);
     }
 
@@ -133,9 +237,8 @@ public class UserController {
 
     @PostMapping("/favorites")
     @Transactional
-    public ResponseEntity<?> updateFavorites(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+    public ResponseEntity<?> updateFavorites(@RequestBody Map<String, Object> payload, @CurrentUserId Long userId) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         @SuppressWarnings("unchecked")
         List<String> ids = (List<String>) payload.get("movieIds");
@@ -147,20 +250,26 @@ public class UserController {
 
     @PostMapping("/{id}/follow")
     @Transactional
-    public ResponseEntity<?> followUser(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email)
+    public ResponseEntity<?> followUser(@PathVariable Long id, @CurrentUserId Long userId) {
+        User currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         User targetUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Target user not found"));
 
-        if (currentUser.getId().equals(targetUser.getId())) {
+        if (userId.equals(targetUser.getId())) {
             return ResponseEntity.badRequest().body("Cannot follow yourself");
         }
 
-        if (!targetUser.getFollowers().contains(currentUser)) {
-            targetUser.getFollowers().add(currentUser);
-            userRepository.save(targetUser);
+        // Only the request whose insert lands counts the follow and notifies
+        if (!followGraph.isFollowing(userId, targetUser.getId())
+                && JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT_FOLLOWER, targetUser.getId(), userId) == 1) {
+            userStatsService.onFollow(userId, targetUser.getId(), 1);
+            Long followerId = userId;
+            Long followedId = targetUser.getId();
+            AfterCommit.run(() -> {
+                followGraph.follow(followerId, followedId);
+                suggestionService.onFollowChanged(followerId);
+            });
 
             // Create Notification
             Notification notification = new Notification(
@@ -176,7 +285,7 @@ public class UserController {
                     "message", notification.getMessage(),
                     "type", notification.getType(),
                     "createdAt", notification.getCreatedAt().toString(),
-                    "senderId", currentUser.getId(),
+                    "senderId", userId,
                     "senderName", currentUser.getName());
             messagingTemplate.convertAndSendToUser(
                     targetUser.getEmail(), // Using email as username for STOMP
@@ -189,16 +298,18 @@ public class UserController {
 
     @PostMapping("/{id}/unfollow")
     @Transactional
-    public ResponseEntity<?> unfollowUser(@PathVariable Long id, Authentication authentication) {
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> unfollowUser(@PathVariable Long id, @CurrentUserId Long userId) {
         User targetUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Target user not found"));
 
-        if (targetUser.getFollowers().contains(currentUser)) {
-            targetUser.getFollowers().remove(currentUser);
-            userRepository.save(targetUser);
+        if (userRepository.removeFollower(targetUser.getId(), userId) > 0) {
+            userStatsService.onFollow(userId, targetUser.getId(), -1);
+            Long followerId = userId;
+            Long followedId = targetUser.getId();
+            AfterCommit.run(() -> {
+                followGraph.unfollow(followerId, followedId);
+                suggestionService.onFollowChanged(followerId);
+            });
         }
 
         return ResponseEntity.ok(Map.of("message", "Unfollowed successfully"));
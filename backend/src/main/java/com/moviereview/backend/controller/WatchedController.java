@@ -1,12 +1,16 @@
 package com.moviereview.backend.controller;
 
-import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Watched;
-import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.ActivityWriteBuffer;
+import com.moviereview.backend.service.CommunityTrending;
+import com.moviereview.backend.service.IdempotentRequests;
+import com.moviereview.backend.service.UserActivitySets;
+import com.moviereview.backend.service.UserStatsService;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,50 +21,65 @@ import java.util.Map;
 public class WatchedController {
 
     private final WatchedRepository watchedRepository;
-    private final UserRepository userRepository;
-    private final com.moviereview.backend.repository.WatchlistRepository watchlistRepository;
-
-    public WatchedController(WatchedRepository watchedRepository, UserRepository userRepository,
-            com.moviereview.backend.repository.WatchlistRepository watchlistRepository) {
+    private final ActivityLeaderboard leaderboard;
+    private final UserActivitySets activitySets;
+    private final UserStatsService userStatsService;
+    private final IdempotentRequests idempotentRequests;
+    private final ActivityWriteBuffer writeBuffer;
+    private final CommunityTrending trending;
+
+    public WatchedController(WatchedRepository watchedRepository, ActivityLeaderboard leaderboard,
+            UserActivitySets activitySets, UserStatsService userStatsService,
+            IdempotentRequests idempotentRequests, ActivityWriteBuffer writeBuffer,
+            CommunityTrending trending) {
         this.watchedRepository = watchedRepository;
-        this.userRepository = userRepository;
-        this.watchlistRepository = watchlistRepository;
+        this.leaderboard = leaderboard;
+        this.activitySets = activitySets;
+        this.userStatsService = userStatsService;
+        this.idempotentRequests = idempotentRequests;
+        this.writeBuffer = writeBuffer;
+        this.trending = trending;
     }
 
     @GetMapping
-    public ResponseEntity<List<Watched>> getWatched(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return ResponseEntity.ok(watchedRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    public ResponseEntity<List<Watched>> getWatched(@CurrentUserId Long userId) {
+        writeBuffer.flushUser(userId);
+        return ResponseEntity.ok(watchedRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
+    /**
+     * One keyset page, newest first, as {@code {items, nextCursor, total}};
+     * without {@code limit} the page holds {@link ActivityPage#DEFAULT_LIMIT} rows.
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Watched>> getUserWatched(@PathVariable Long userId) {
-        return ResponseEntity.ok(watchedRepository.findByUserIdOrderByCreatedAtDesc(userId));
+    public ResponseEntity<?> getUserWatched(@PathVariable Long userId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+        writeBuffer.flushUser(userId);
+        ActivityPage.Cursor after = ActivityPage.Cursor.parse(cursor);
+        Pageable probe = ActivityPage.probe(limit != null ? limit : ActivityPage.DEFAULT_LIMIT);
+        List<Watched> rows = after.isFirst()
+                ? watchedRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, probe)
+                : watchedRepository.findPageBefore(userId, after.createdAt(), after.id(), probe);
+        Long total = after.isFirst() ? userStatsService.get(userId).getWatchedCount() : null;
+        return ResponseEntity.ok(ActivityPage.of(rows, probe, total, Watched::getCreatedAt, Watched::getId));
     }
 
     @GetMapping("/{movieId}/check")
     public ResponseEntity<Map<String, Boolean>> checkWatchedStatus(@PathVariable String movieId,
-            Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        boolean exists = watchedRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+            @CurrentUserId Long userId) {
+        boolean exists = activitySets.contains(UserActivitySets.Kind.WATCHED, userId, movieId);
         return ResponseEntity.ok(Map.of("isWatched", exists));
     }
 
     @PostMapping
-    @Transactional
-    public ResponseEntity<?> addToWatched(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> addToWatched(@RequestBody Map<String, Object> payload, @CurrentUserId Long userId,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return idempotentRequests.execute(userId, idempotencyKey, () -> addWatched(payload, userId));
+    }
 
+    private ResponseEntity<?> addWatched(Map<String, Object> payload, Long userId) {
         String movieId = String.valueOf(payload.get("movieId"));
-        if (watchedRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
+        if (activitySets.contains(UserActivitySets.Kind.WATCHED, userId, movieId)) {
             return ResponseEntity.badRequest().body("Movie already in watched list");
         }
 
@@ -70,24 +89,25 @@ public class WatchedController {
                 : 0.0;
         String releaseDate = (String) payload.get("releaseDate");
 
-        Watched watched = new Watched(user, movieId, title, posterPath, voteAverage, releaseDate);
-        watchedRepository.save(watched);
+        writeBuffer.add(UserActivitySets.Kind.WATCHED, userId, movieId,
+                new ActivityWriteBuffer.Movie(title, posterPath, voteAverage, releaseDate));
+        activitySets.added(UserActivitySets.Kind.WATCHED, userId, movieId);
+        leaderboard.onActivity(userId);
+        trending.record(CommunityTrending.Signal.WATCHED, movieId, title, posterPath);
 
         // Automatically remove from watchlist if present
-        watchlistRepository.findByUserIdAndMovieId(user.getId(), movieId)
-                .ifPresent(watchlist -> watchlistRepository.delete(watchlist));
+        if (activitySets.contains(UserActivitySets.Kind.WATCHLIST, userId, movieId)) {
+            writeBuffer.remove(UserActivitySets.Kind.WATCHLIST, userId, movieId);
+            activitySets.removed(UserActivitySets.Kind.WATCHLIST, userId, movieId);
+        }
 
         return ResponseEntity.ok(Map.of("message", "Added to watched list"));
     }
 
     @DeleteMapping("/{movieId}")
-    @Transactional
-    public ResponseEntity<?> removeFromWatched(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        watchedRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<?> removeFromWatched(@PathVariable String movieId, @CurrentUserId Long userId) {
+        writeBuffer.remove(UserActivitySets.Kind.WATCHED, userId, movieId);
+        activitySets.removed(UserActivitySets.Kind.WATCHED, userId, movieId);
         return ResponseEntity.ok(Map.of("message", "Removed from watched list"));
     }
 }
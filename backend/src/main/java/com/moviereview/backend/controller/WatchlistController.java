@@ -1,12 +1,14 @@
 package com.moviereview.backend.controller;
 
-import com.moviereview.backend.model.User;
 import com.moviereview.backend.model.Watchlist;
-import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.repository.WatchlistRepository;
+import com.moviereview.backend.security.CurrentUserId;
+import com.moviereview.backend.service.ActivityWriteBuffer;
+import com.moviereview.backend.service.IdempotentRequests;
+import com.moviereview.backend.service.UserActivitySets;
+import com.moviereview.backend.service.UserStatsService;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,45 +19,59 @@ import java.util.Map;
 public class WatchlistController {
 
     private final WatchlistRepository watchlistRepository;
-    private final UserRepository userRepository;
-
-    public WatchlistController(WatchlistRepository watchlistRepository, UserRepository userRepository) {
+    private final UserActivitySets activitySets;
+    private final UserStatsService userStatsService;
+    private final IdempotentRequests idempotentRequests;
+    private final ActivityWriteBuffer writeBuffer;
+
+    public WatchlistController(WatchlistRepository watchlistRepository, UserActivitySets activitySets,
+            UserStatsService userStatsService, IdempotentRequests idempotentRequests,
+            ActivityWriteBuffer writeBuffer) {
         this.watchlistRepository = watchlistRepository;
-        this.userRepository = userRepository;
+        this.activitySets = activitySets;
+        this.userStatsService = userStatsService;
+        this.idempotentRequests = idempotentRequests;
+        this.writeBuffer = writeBuffer;
     }
 
     @GetMapping
-    public ResponseEntity<List<Watchlist>> getWatchlist(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return ResponseEntity.ok(watchlistRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
+    public ResponseEntity<List<Watchlist>> getWatchlist(@CurrentUserId Long userId) {
+        writeBuffer.flushUser(userId);
+        return ResponseEntity.ok(watchlistRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
+    /**
+     * One keyset page, newest first, as {@code {items, nextCursor, total}};
+     * without {@code limit} the page holds {@link ActivityPage#DEFAULT_LIMIT} rows.
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Watchlist>> getUserWatchlist(@PathVariable Long userId) {
-        return ResponseEntity.ok(watchlistRepository.findByUserIdOrderByCreatedAtDesc(userId));
+    public ResponseEntity<?> getUserWatchlist(@PathVariable Long userId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+        writeBuffer.flushUser(userId);
+        ActivityPage.Cursor after = ActivityPage.Cursor.parse(cursor);
+        Pageable probe = ActivityPage.probe(limit != null ? limit : ActivityPage.DEFAULT_LIMIT);
+        List<Watchlist> rows = after.isFirst()
+                ? watchlistRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, probe)
+                : watchlistRepository.findPageBefore(userId, after.createdAt(), after.id(), probe);
+        Long total = after.isFirst() ? userStatsService.get(userId).getWatchlistCount() : null;
+        return ResponseEntity.ok(ActivityPage.of(rows, probe, total, Watchlist::getCreatedAt, Watchlist::getId));
     }
 
     @GetMapping("/{movieId}/check")
-    public ResponseEntity<Map<String, Boolean>> checkWatchlistStatus(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        boolean exists = watchlistRepository.existsByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<Map<String, Boolean>> checkWatchlistStatus(@PathVariable String movieId, @CurrentUserId Long userId) {
+        boolean exists = activitySets.contains(UserActivitySets.Kind.WATCHLIST, userId, movieId);
         return ResponseEntity.ok(Map.of("inWatchlist", exists));
     }
 
     @PostMapping
-    public ResponseEntity<?> addToWatchlist(@RequestBody Map<String, Object> payload, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> addToWatchlist(@RequestBody Map<String, Object> payload, @CurrentUserId Long userId,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        return idempotentRequests.execute(userId, idempotencyKey, () -> addWatchlist(payload, userId));
+    }
 
+    private ResponseEntity<?> addWatchlist(Map<String, Object> payload, Long userId) {
         String movieId = String.valueOf(payload.get("movieId"));
-        if (watchlistRepository.existsByUserIdAndMovieId(user.getId(), movieId)) {
+        if (activitySets.contains(UserActivitySets.Kind.WATCHLIST, userId, movieId)) {
             return ResponseEntity.badRequest().body("Movie already in watchlist");
         }
 
@@ -64,20 +80,17 @@ public class WatchlistController {
         Double voteAverage = payload.get("voteAverage") != null ? Double.valueOf(payload.get("voteAverage").toString()) : 0.0;
         String releaseDate = (String) payload.get("releaseDate");
 
-        Watchlist watchlist = new Watchlist(user, movieId, title, posterPath, voteAverage, releaseDate);
-        watchlistRepository.save(watchlist);
+        writeBuffer.add(UserActivitySets.Kind.WATCHLIST, userId, movieId,
+                new ActivityWriteBuffer.Movie(title, posterPath, voteAverage, releaseDate));
+        activitySets.added(UserActivitySets.Kind.WATCHLIST, userId, movieId);
 
         return ResponseEntity.ok(Map.of("message", "Added to watchlist"));
     }
 
     @DeleteMapping("/{movieId}")
-    @Transactional
-    public ResponseEntity<?> removeFromWatchlist(@PathVariable String movieId, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        watchlistRepository.deleteByUserIdAndMovieId(user.getId(), movieId);
+    public ResponseEntity<?> removeFromWatchlist(@PathVariable String movieId, @CurrentUserId Long userId) {
+        writeBuffer.remove(UserActivitySets.Kind.WATCHLIST, userId, movieId);
+        activitySets.removed(UserActivitySets.Kind.WATCHLIST, userId, movieId);
         return ResponseEntity.ok(Map.of("message", "Removed from watchlist"));
     }
 }
@@ -0,0 +1,28 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * How far a one-off backfill has got: the id of the last row it processed,
+ * so a restart resumes after it instead of starting over or skipping rows.
+ */
+@Entity
+@Table(name = "backfill_marks")
+public class BackfillMark {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "last_id")
+    private long lastId;
+
+    public BackfillMark() {}
+
+    public BackfillMark(String name, long lastId) {
+        this.name = name;
+        this.lastId = lastId;
+    }
+
+    public String getName() { return name; }
+    public long getLastId() { return lastId; }
+}
@@ -0,0 +1,37 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A normalized list tag (trimmed, lower case) with how many public lists
+ * carry it, kept up to date as lists are tagged, retagged and deleted.
+ */
+@Entity
+@Table(name = "list_tags", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_list_tags_name", columnNames = "name")
+}, indexes = {
+        @Index(name = "idx_list_tags_count", columnList = "list_count, name")
+})
+public class ListTag {
+    public static final int MAX_LENGTH = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = MAX_LENGTH)
+    private String name;
+
+    @Column(name = "list_count")
+    private long listCount;
+
+    public ListTag() {}
+
+    public ListTag(String name) {
+        this.name = name;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public long getListCount() { return listCount; }
+}
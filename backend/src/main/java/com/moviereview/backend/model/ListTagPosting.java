@@ -0,0 +1,42 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One list carrying one tag. The list's visibility and creation time are
+ * copied onto the row so a tag's public lists, newest first, are read
+ * straight off (tag_id, is_public, list_created_at, list_id).
+ */
+@Entity
+@Table(name = "list_tag_postings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_list_tag_postings_tag_list", columnNames = { "tag_id", "list_id" })
+}, indexes = {
+        @Index(name = "idx_list_tag_postings_browse", columnList = "tag_id, is_public, list_created_at, list_id"),
+        @Index(name = "idx_list_tag_postings_list", columnList = "list_id")
+})
+public class ListTagPosting {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tag_id", nullable = false)
+    private Long tagId;
+
+    @Column(name = "list_id", nullable = false)
+    private Long listId;
+
+    @Column(name = "is_public")
+    private boolean isPublic;
+
+    @Column(name = "list_created_at")
+    private LocalDateTime listCreatedAt;
+
+    public ListTagPosting() {}
+
+    public Long getId() { return id; }
+    public Long getTagId() { return tagId; }
+    public Long getListId() { return listId; }
+    public boolean isPublic() { return isPublic; }
+    public LocalDateTime getListCreatedAt() { return listCreatedAt; }
+}
@@ -4,8 +4,15 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movie_lists")
+@Table(name = "movie_lists", indexes = {
+        @Index(name = "idx_movie_lists_public_created", columnList = "is_public, created_at, id"),
+        @Index(name = "idx_movie_lists_public_views", columnList = "is_public, view_count, id")
+})
+@NamedEntityGraph(name = "MovieList.user", attributeNodes = @NamedAttributeNode("user"))
 public class MovieList {
+    /** Films shown on a list's card in the browse page. */
+    public static final int PREVIEW_FILMS = 4;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -16,14 +23,19 @@ public class MovieList {
     private String tags;
     private boolean ranked = false;
 
-    @ElementCollection
-    @CollectionTable(name = "movie_list_films", joinColumns = @JoinColumn(name = "list_id"))
-    @Column(name = "movie_id")
-    private java.util.List<String> movieIds = new java.util.ArrayList<>();
-    
+    /** Kept with the row so the browse page never loads the list's items. */
+    private int filmCount;
+
+    /** Comma-separated first {@link #PREVIEW_FILMS} movie ids; null until backfilled. */
+    @Column(length = 200)
+    private String previewMovieIds;
+
+    /** Detail page views, for the popularity sort. */
+    private long viewCount;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -41,8 +53,11 @@ public class MovieList {
     public void setTags(String tags) { this.tags = tags; }
     public boolean isRanked() { return ranked; }
     public void setRanked(boolean ranked) { this.ranked = ranked; }
-    public java.util.List<String> getMovieIds() { return movieIds; }
-    public void setMovieIds(java.util.List<String> movieIds) { this.movieIds = movieIds; }
+    public int getFilmCount() { return filmCount; }
+    public void setFilmCount(int filmCount) { this.filmCount = filmCount; }
+    public String getPreviewMovieIds() { return previewMovieIds; }
+    public void setPreviewMovieIds(String previewMovieIds) { this.previewMovieIds = previewMovieIds; }
+    public long getViewCount() { return viewCount; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public User getUser() { return user; }
@@ -0,0 +1,27 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * How many public lists a film appears in, for "appears in N lists" on the
+ * movie page. Moved in the same transaction as the list items it counts.
+ */
+@Entity
+@Table(name = "movie_list_counts")
+public class MovieListCount {
+    @Id
+    @Column(name = "movie_id", length = 32)
+    private String movieId;
+
+    private long listCount;
+
+    public MovieListCount() {}
+
+    public MovieListCount(String movieId, long listCount) {
+        this.movieId = movieId;
+        this.listCount = listCount;
+    }
+
+    public String getMovieId() { return movieId; }
+    public long getListCount() { return listCount; }
+}
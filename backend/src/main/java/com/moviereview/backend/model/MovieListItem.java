@@ -0,0 +1,44 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One film in a list, ordered by a sparse rank. Ranks leave gaps, so
+ * adding or moving a film writes only that film's row; a list is renumbered
+ * only when two neighbours have no room left between them.
+ */
+@Entity
+@Table(name = "movie_list_items", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_movie_list_items_list_movie", columnNames = { "list_id", "movie_id" })
+}, indexes = {
+        @Index(name = "idx_movie_list_items_list_rank", columnList = "list_id, item_rank"),
+        @Index(name = "idx_movie_list_items_movie", columnList = "movie_id, list_id")
+})
+public class MovieListItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "list_id", nullable = false)
+    private Long listId;
+
+    @Column(name = "movie_id", nullable = false, length = 32)
+    private String movieId;
+
+    @Column(name = "item_rank", nullable = false)
+    private long rank;
+
+    public MovieListItem() {}
+
+    public MovieListItem(Long listId, String movieId, long rank) {
+        this.listId = listId;
+        this.movieId = movieId;
+        this.rank = rank;
+    }
+
+    public Long getId() { return id; }
+    public Long getListId() { return listId; }
+    public String getMovieId() { return movieId; }
+    public long getRank() { return rank; }
+    public void setRank(long rank) { this.rank = rank; }
+}
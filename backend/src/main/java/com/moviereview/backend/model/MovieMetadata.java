@@ -0,0 +1,43 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The few TMDB facts the stats pages need, cached per movie so each film is
+ * fetched from TMDB once rather than once per user who logged it.
+ */
+@Entity
+@Table(name = "movie_metadata")
+public class MovieMetadata {
+    @Id
+    @Column(name = "movie_id", length = 32)
+    private String movieId;
+
+    private int runtime;
+
+    /** Pipe-separated genre names. */
+    @Column(length = 500)
+    private String genres;
+
+    /** Pipe-separated director names. */
+    @Column(length = 1000)
+    private String directors;
+
+    private LocalDateTime fetchedAt = LocalDateTime.now();
+
+    public MovieMetadata() {}
+
+    public MovieMetadata(String movieId, int runtime, String genres, String directors) {
+        this.movieId = movieId;
+        this.runtime = runtime;
+        this.genres = genres;
+        this.directors = directors;
+    }
+
+    public String getMovieId() { return movieId; }
+    public int getRuntime() { return runtime; }
+    public String getGenres() { return genres; }
+    public String getDirectors() { return directors; }
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+}
@@ -0,0 +1,45 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One precomputed item-to-item neighbour: a film whose audience overlaps
+ * with {@code movieId}'s, scored by cosine similarity over likes, watched
+ * marks and ratings. Written by the recommendation job and read back by
+ * movie id.
+ */
+@Entity
+@Table(name = "movie_neighbours", indexes = {
+        @Index(name = "idx_movie_neighbours_movie_score", columnList = "movie_id, score")
+})
+public class MovieNeighbour {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "movie_id", nullable = false, length = 32)
+    private String movieId;
+
+    @Column(name = "neighbour_id", nullable = false, length = 32)
+    private String neighbourId;
+
+    private double score;
+
+    /** Members who interacted with both films. */
+    private int shared;
+
+    /** Title and poster of the neighbour, so recommendations need no TMDB call. */
+    private String title;
+
+    private String posterPath;
+
+    public MovieNeighbour() {}
+
+    public Long getId() { return id; }
+    public String getMovieId() { return movieId; }
+    public String getNeighbourId() { return neighbourId; }
+    public double getScore() { return score; }
+    public int getShared() { return shared; }
+    public String getTitle() { return title; }
+    public String getPosterPath() { return posterPath; }
+}
@@ -0,0 +1,52 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The few TMDB facts a poster grid needs, cached per movie so a list page
+ * is drawn from one local read instead of one TMDB call per film.
+ */
+@Entity
+@Table(name = "movie_summaries")
+public class MovieSummary {
+    @Id
+    @Column(name = "movie_id", length = 32)
+    private String movieId;
+
+    @Column(length = 500)
+    private String title;
+
+    private String posterPath;
+
+    /** TMDB's yyyy-MM-dd, or empty when unknown. */
+    @Column(length = 10)
+    private String releaseDate;
+
+    private double voteAverage;
+
+    private LocalDateTime fetchedAt = LocalDateTime.now();
+
+    public MovieSummary() {}
+
+    public MovieSummary(String movieId, String title, String posterPath, String releaseDate, double voteAverage) {
+        this.movieId = movieId;
+        this.title = title;
+        this.posterPath = posterPath;
+        this.releaseDate = releaseDate;
+        this.voteAverage = voteAverage;
+    }
+
+    public String getMovieId() { return movieId; }
+    public String getTitle() { return title; }
+    public String getPosterPath() { return posterPath; }
+    public String getReleaseDate() { return releaseDate; }
+    public double getVoteAverage() { return voteAverage; }
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+
+    /** The release year, or null when TMDB has no date. */
+    public Integer getYear() {
+        return releaseDate != null && releaseDate.length() >= 4 && Character.isDigit(releaseDate.charAt(0))
+                ? Integer.valueOf(releaseDate.substring(0, 4)) : null;
+    }
+}
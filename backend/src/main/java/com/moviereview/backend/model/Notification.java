@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications")
+@NamedEntityGraph(name = "Notification.sender", attributeNodes = @NamedAttributeNode("sender"))
 public class Notification {
 
     @Id
@@ -16,11 +17,11 @@ public class Notification {
     private boolean isRead = false;
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recipient_id")
     private User recipient;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id")
     private User sender;
 
@@ -5,7 +5,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_created", columnList = "created_at")
+})
+@NamedEntityGraph(name = "Review.user", attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = "Review.detail", attributeNodes = { @NamedAttributeNode("user"), @NamedAttributeNode("tags") })
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Review {
     @Id
@@ -27,13 +31,14 @@ public class Review {
     private java.time.LocalDate watchedDate;
 
     @ElementCollection
+    @org.hibernate.annotations.BatchSize(size = 50)
     private java.util.List<String> tags;
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
     private boolean ratingOnly = false;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
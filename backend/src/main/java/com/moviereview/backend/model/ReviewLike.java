@@ -4,17 +4,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "review_likes")
+@Table(name = "review_likes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_review_likes_user_review", columnNames = { "user_id", "review_id" })
+})
+@NamedEntityGraph(name = "ReviewLike.user", attributeNodes = @NamedAttributeNode("user"))
 public class ReviewLike {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "review_id", nullable = false)
     private Review review;
 
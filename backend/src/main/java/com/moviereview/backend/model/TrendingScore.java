@@ -0,0 +1,40 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one movie's decayed community trending score, so the
+ * in-memory scores survive a restart. The score is as of {@code scoredAt}.
+ */
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+    @Id
+    @Column(name = "movie_id", length = 32)
+    private String movieId;
+
+    private double score;
+
+    private LocalDateTime scoredAt;
+
+    private String title;
+
+    private String posterPath;
+
+    public TrendingScore() {}
+
+    public TrendingScore(String movieId, double score, LocalDateTime scoredAt, String title, String posterPath) {
+        this.movieId = movieId;
+        this.score = score;
+        this.scoredAt = scoredAt;
+        this.title = title;
+        this.posterPath = posterPath;
+    }
+
+    public String getMovieId() { return movieId; }
+    public double getScore() { return score; }
+    public LocalDateTime getScoredAt() { return scoredAt; }
+    public String getTitle() { return title; }
+    public String getPosterPath() { return posterPath; }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@com.fasterxml.jackson.annotation.JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class User {
 
     @Id
@@ -34,12 +35,19 @@ public class User {
     @jakarta.persistence.Column(length = 500)
     private String favoriteMovieIds; // comma-separated ordered list of up to 4 movie IDs
 
+    // Signed into every JWT; bumping it revokes all tokens issued before
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @jakarta.persistence.Column(nullable = false)
+    private int tokenVersion;
+
     @jakarta.persistence.ManyToMany
+    @org.hibernate.annotations.BatchSize(size = 50)
     @jakarta.persistence.JoinTable(name = "user_followers", joinColumns = @jakarta.persistence.JoinColumn(name = "user_id"), inverseJoinColumns = @jakarta.persistence.JoinColumn(name = "follower_id"))
     @com.fasterxml.jackson.annotation.JsonIgnore
     private java.util.Set<User> followers = new java.util.HashSet<>();
 
     @jakarta.persistence.ManyToMany(mappedBy = "followers")
+    @org.hibernate.annotations.BatchSize(size = 50)
     @com.fasterxml.jackson.annotation.JsonIgnore
     private java.util.Set<User> following = new java.util.HashSet<>();
 
@@ -142,6 +150,14 @@ public class User {
         this.favoriteMovieIds = favoriteMovieIds;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public java.util.Set<User> getFollowers() {
         return followers;
     }
@@ -0,0 +1,102 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized profile counters, one row per user. Written in the same
+ * transaction as the follow/review/list change that moves them and
+ * periodically reconciled against the source tables.
+ */
+@Entity
+@Table(name = "user_stats", indexes = {
+        @Index(name = "idx_user_stats_followers", columnList = "followers_count, user_id, films_count, reviews_count"),
+        @Index(name = "idx_user_stats_films", columnList = "films_count, user_id, followers_count, reviews_count"),
+        @Index(name = "idx_user_stats_activity", columnList = "last_activity_at, user_id, followers_count, films_count, reviews_count")
+})
+public class UserStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private long followersCount;
+    private long followingCount;
+    private long filmsCount;
+    private long reviewsCount;
+    private long listsCount;
+    private long filmsThisYear;
+    private long likesCount;
+    private long watchedCount;
+    private long watchlistCount;
+
+    /** The calendar year {@link #filmsThisYear} refers to. */
+    private int statsYear;
+
+    /** Latest diary entry or list, used to sort the members directory by recent activity. */
+    private LocalDateTime lastActivityAt;
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public UserStats() {}
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public long getFollowersCount() { return followersCount; }
+    public void setFollowersCount(long followersCount) { this.followersCount = followersCount; }
+    public long getFollowingCount() { return followingCount; }
+    public void setFollowingCount(long followingCount) { this.followingCount = followingCount; }
+    public long getFilmsCount() { return filmsCount; }
+    public void setFilmsCount(long filmsCount) { this.filmsCount = filmsCount; }
+    public long getReviewsCount() { return reviewsCount; }
+    public void setReviewsCount(long reviewsCount) { this.reviewsCount = reviewsCount; }
+    public long getListsCount() { return listsCount; }
+    public void setListsCount(long listsCount) { this.listsCount = listsCount; }
+    public long getFilmsThisYear() { return filmsThisYear; }
+    public void setFilmsThisYear(long filmsThisYear) { this.filmsThisYear = filmsThisYear; }
+    public long getLikesCount() { return likesCount; }
+    public void setLikesCount(long likesCount) { this.likesCount = likesCount; }
+    public long getWatchedCount() { return watchedCount; }
+    public void setWatchedCount(long watchedCount) { this.watchedCount = watchedCount; }
+    public long getWatchlistCount() { return watchlistCount; }
+    public void setWatchlistCount(long watchlistCount) { this.watchlistCount = watchlistCount; }
+    public int getStatsYear() { return statsYear; }
+    public void setStatsYear(int statsYear) { this.statsYear = statsYear; }
+    public LocalDateTime getLastActivityAt() { return lastActivityAt; }
+    public void setLastActivityAt(LocalDateTime lastActivityAt) { this.lastActivityAt = lastActivityAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    /** True when every counter matches {@code other}. */
+    public boolean sameCounts(UserStats other) {
+        return followersCount == other.followersCount
+                && followingCount == other.followingCount
+                && filmsCount == other.filmsCount
+                && reviewsCount == other.reviewsCount
+                && listsCount == other.listsCount
+                && filmsThisYear == other.filmsThisYear
+                && likesCount == other.likesCount
+                && watchedCount == other.watchedCount
+                && watchlistCount == other.watchlistCount
+                && statsYear == other.statsYear;
+    }
+
+    /** Overwrites every counter (and the last-activity time) with those of {@code other}. */
+    public void copyCounts(UserStats other) {
+        followersCount = other.followersCount;
+        followingCount = other.followingCount;
+        filmsCount = other.filmsCount;
+        reviewsCount = other.reviewsCount;
+        listsCount = other.listsCount;
+        filmsThisYear = other.filmsThisYear;
+        likesCount = other.likesCount;
+        watchedCount = other.watchedCount;
+        watchlistCount = other.watchlistCount;
+        statsYear = other.statsYear;
+        lastActivityAt = other.lastActivityAt;
+        updatedAt = LocalDateTime.now();
+    }
+}
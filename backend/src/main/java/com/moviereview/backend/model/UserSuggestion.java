@@ -0,0 +1,60 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One precomputed "people you may know" candidate for a user, written by
+ * the suggestion job and read back ordered by score. A row whose candidate
+ * is the user themselves marks a computed but empty result.
+ */
+@Entity
+@Table(name = "user_suggestions", indexes = {
+        @Index(name = "idx_user_suggestions_user_score", columnList = "user_id, score")
+})
+public class UserSuggestion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long candidateId;
+
+    /** Users the owner follows who also follow the candidate. */
+    private int mutualCount;
+
+    /** Movies both users have liked. */
+    private int sharedLikes;
+
+    private double score;
+
+    private LocalDateTime computedAt = LocalDateTime.now();
+
+    public UserSuggestion() {}
+
+    public UserSuggestion(Long userId, Long candidateId, int mutualCount, int sharedLikes, double score) {
+        this.userId = userId;
+        this.candidateId = candidateId;
+        this.mutualCount = mutualCount;
+        this.sharedLikes = sharedLikes;
+        this.score = score;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getCandidateId() { return candidateId; }
+    public void setCandidateId(Long candidateId) { this.candidateId = candidateId; }
+    public int getMutualCount() { return mutualCount; }
+    public void setMutualCount(int mutualCount) { this.mutualCount = mutualCount; }
+    public int getSharedLikes() { return sharedLikes; }
+    public void setSharedLikes(int sharedLikes) { this.sharedLikes = sharedLikes; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
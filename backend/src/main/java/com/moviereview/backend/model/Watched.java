@@ -4,13 +4,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "watched")
+@Table(name = "watched", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_watched_user_movie", columnNames = { "user_id", "movie_id" })
+}, indexes = {
+        @Index(name = "idx_watched_movie_user", columnList = "movie_id, user_id"),
+        @Index(name = "idx_watched_created", columnList = "created_at"),
+        @Index(name = "idx_watched_user_created", columnList = "user_id, created_at, id")
+})
+@NamedEntityGraph(name = "Watched.user", attributeNodes = @NamedAttributeNode("user"))
 public class Watched {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -4,13 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "watchlist")
+@Table(name = "watchlist", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_watchlist_user_movie", columnNames = { "user_id", "movie_id" })
+}, indexes = {
+        @Index(name = "idx_watchlist_movie_user", columnList = "movie_id, user_id"),
+        @Index(name = "idx_watchlist_user_created", columnList = "user_id, created_at, id")
+})
+@NamedEntityGraph(name = "Watchlist.user", attributeNodes = @NamedAttributeNode("user"))
 public class Watchlist {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -0,0 +1,135 @@
+package com.moviereview.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * One user's diary rolled up for one calendar year. Diary counters move in
+ * the same transaction as the entry; the TMDB-derived totals (runtime,
+ * genres, directors) are filled in by a background pass whenever
+ * {@link #isMetadataDirty()} is set.
+ */
+@Entity
+@Table(name = "user_year_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_year_stats_user_year", columnNames = { "user_id", "stats_year" })
+}, indexes = {
+        @Index(name = "idx_user_year_stats_dirty", columnList = "metadata_dirty, updated_at")
+})
+public class YearInReview {
+    /** Half-star rating buckets, 0.5 through 5.0. */
+    public static final int RATING_BUCKETS = 10;
+    public static final int DAYS = 366;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "stats_year", nullable = false)
+    private int statsYear;
+
+    private long filmsCount;
+    private long reviewsCount;
+    private long rewatchCount;
+    private long ratedCount;
+    private double ratingSum;
+
+    /** Comma-separated counts per half-star bucket. */
+    @Column(length = 100)
+    private String ratingCounts;
+
+    /** Entries per day of the year (index 0 is 1 January), saturating at 255. */
+    @Column(length = DAYS)
+    private byte[] dayCounts = new byte[DAYS];
+
+    private long minutesWatched;
+
+    /** JSON object of genre name to entry count, highest first. */
+    @Column(length = 4000)
+    private String topGenres;
+
+    /** JSON object of director name to entry count, highest first. */
+    @Column(length = 4000)
+    private String topDirectors;
+
+    @Column(name = "metadata_dirty")
+    private boolean metadataDirty = true;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public YearInReview() {}
+
+    public YearInReview(Long userId, int statsYear) {
+        this.userId = userId;
+        this.statsYear = statsYear;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public int getStatsYear() { return statsYear; }
+    public long getFilmsCount() { return filmsCount; }
+    public void setFilmsCount(long filmsCount) { this.filmsCount = filmsCount; }
+    public long getReviewsCount() { return reviewsCount; }
+    public void setReviewsCount(long reviewsCount) { this.reviewsCount = reviewsCount; }
+    public long getRewatchCount() { return rewatchCount; }
+    public void setRewatchCount(long rewatchCount) { this.rewatchCount = rewatchCount; }
+    public long getRatedCount() { return ratedCount; }
+    public void setRatedCount(long ratedCount) { this.ratedCount = ratedCount; }
+    public double getRatingSum() { return ratingSum; }
+    public void setRatingSum(double ratingSum) { this.ratingSum = ratingSum; }
+    public long getMinutesWatched() { return minutesWatched; }
+    public void setMinutesWatched(long minutesWatched) { this.minutesWatched = minutesWatched; }
+    public String getTopGenres() { return topGenres; }
+    public void setTopGenres(String topGenres) { this.topGenres = topGenres; }
+    public String getTopDirectors() { return topDirectors; }
+    public void setTopDirectors(String topDirectors) { this.topDirectors = topDirectors; }
+    public boolean isMetadataDirty() { return metadataDirty; }
+    public void setMetadataDirty(boolean metadataDirty) { this.metadataDirty = metadataDirty; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public int[] getRatingCounts() {
+        int[] counts = new int[RATING_BUCKETS];
+        if (ratingCounts != null && !ratingCounts.isEmpty()) {
+            String[] parts = ratingCounts.split(",");
+            for (int i = 0; i < Math.min(parts.length, RATING_BUCKETS); i++) {
+                counts[i] = Integer.parseInt(parts[i]);
+            }
+        }
+        return counts;
+    }
+
+    public void setRatingCounts(int[] counts) {
+        this.ratingCounts = Arrays.stream(counts).mapToObj(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /** The bucket counts as stored, for writers that bypass the entity. */
+    public String getRatingCountsColumn() { return ratingCounts; }
+
+    /** The packed day counts as stored, for writers that bypass the entity. */
+    public byte[] getDayCountsColumn() { return dayCounts; }
+
+    /** Entries logged on each day of the year; the caller owns the returned array. */
+    public int[] getDayCounts() {
+        int[] counts = new int[DAYS];
+        if (dayCounts != null) {
+            for (int i = 0; i < Math.min(dayCounts.length, DAYS); i++) {
+                counts[i] = dayCounts[i] & 0xFF;
+            }
+        }
+        return counts;
+    }
+
+    public void setDayCounts(int[] counts) {
+        byte[] packed = new byte[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            packed[i] = (byte) Math.max(0, Math.min(255, counts[i]));
+        }
+        this.dayCounts = packed;
+    }
+}
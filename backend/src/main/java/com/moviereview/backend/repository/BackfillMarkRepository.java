@@ -0,0 +1,7 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.BackfillMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BackfillMarkRepository extends JpaRepository<BackfillMark, String> {
+}
@@ -1,14 +1,69 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Like;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LikeRepository extends JpaRepository<Like, Long> {
+    @EntityGraph("Like.user")
     List<Like> findByUserIdOrderByCreatedAtDesc(Long userId);
     boolean existsByUserIdAndMovieId(Long userId, String movieId);
     Optional<Like> findByUserIdAndMovieId(Long userId, String movieId);
-    void deleteByUserIdAndMovieId(Long userId, String movieId);
+    /** Number of rows removed, 0 or 1. */
+    long deleteByUserIdAndMovieId(Long userId, String movieId);
+
+    /** First page of a user's likes, newest first. */
+    @EntityGraph("Like.user")
+    List<Like> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /** The page after the keyset cursor (createdAt, id), newest first. */
+    @EntityGraph("Like.user")
+    @Query("SELECT x FROM Like x WHERE x.user.id = :userId AND (x.createdAt < :createdAt "
+            + "OR (x.createdAt = :createdAt AND x.id < :id)) ORDER BY x.createdAt DESC, x.id DESC")
+    List<Like> findPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    /** Per user: [userId, likes]. */
+    @Query("SELECT x.user.id, COUNT(x) FROM Like x WHERE x.user.id IN :userIds GROUP BY x.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") List<Long> userIds);
+
+    /** Every movie id in the user's likes, for the in-memory activity sets. */
+    @Query("SELECT x.movieId FROM Like x WHERE x.user.id = :userId")
+    List<String> findMovieIdsByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Like> streamByUserIdOrderByCreatedAtAscIdAsc(Long userId);
+
+    /** [userId, movieId] for every like of the given users. */
+    @Query("SELECT l.user.id, l.movieId FROM Like l WHERE l.user.id IN :userIds")
+    List<Object[]> findMovieIdsByUserIds(@Param("userIds") List<Long> userIds);
+
+    /** [userId, createdAt] for every like since {@code since}. */
+    @Query("SELECT l.user.id, l.createdAt FROM Like l WHERE l.createdAt >= :since")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamActivitySince(@Param("since") LocalDateTime since);
+
+    /** [userId, movieId, title, poster] for every like, for the recommendation job. */
+    @Query("SELECT l.user.id, l.movieId, l.movieTitle, l.posterPath FROM Like l")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamInteractions();
+
+    /** [movieId, title, createdAt] for the user's latest likes, newest first. */
+    @Query("SELECT l.movieId, l.movieTitle, l.createdAt FROM Like l WHERE l.user.id = :userId "
+            + "ORDER BY l.createdAt DESC, l.id DESC")
+    List<Object[]> findRecentMovies(@Param("userId") Long userId, Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.ListTagPosting;
+import com.moviereview.backend.model.MovieList;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ListTagPostingRepository extends JpaRepository<ListTagPosting, Long> {
+
+    /** [tagId, tag name] for every tag on a list. */
+    @Query("SELECT p.tagId, t.name FROM ListTagPosting p JOIN ListTag t ON t.id = p.tagId WHERE p.listId = :listId")
+    List<Object[]> findTags(@Param("listId") Long listId);
+
+    /** A tag's public lists, newest first, with their authors. */
+    @Query("SELECT l FROM ListTagPosting p JOIN MovieList l ON l.id = p.listId JOIN FETCH l.user "
+            + "WHERE p.tagId = :tagId AND p.isPublic = true ORDER BY p.listCreatedAt DESC, p.listId DESC")
+    Slice<MovieList> findPublicLists(@Param("tagId") Long tagId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ListTagPosting p SET p.isPublic = :isPublic WHERE p.listId = :listId")
+    int setPublic(@Param("listId") Long listId, @Param("isPublic") boolean isPublic);
+
+    @Modifying
+    @Query("DELETE FROM ListTagPosting p WHERE p.listId = :listId AND p.tagId IN :tagIds")
+    int deleteByListIdAndTagIdIn(@Param("listId") Long listId, @Param("tagIds") Collection<Long> tagIds);
+}
@@ -0,0 +1,27 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.ListTag;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ListTagRepository extends JpaRepository<ListTag, Long> {
+    Optional<ListTag> findByName(String name);
+
+    List<ListTag> findByNameIn(Collection<String> names);
+
+    /** A locking read, so tags another transaction committed after this one's snapshot are seen. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ListTag t WHERE t.name IN :names")
+    List<ListTag> findForUpdate(@Param("names") Collection<String> names);
+
+    /** The tag facet: most used first; served from (list_count, name). */
+    List<ListTag> findByListCountGreaterThanOrderByListCountDescNameAsc(long listCount, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.MovieListCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MovieListCountRepository extends JpaRepository<MovieListCount, String> {
+
+    /** The films among {@code movieIds} that already have a counter row. */
+    @Query("SELECT c.movieId FROM MovieListCount c WHERE c.movieId IN :movieIds")
+    List<String> findExistingIds(@Param("movieIds") Collection<String> movieIds);
+}
@@ -0,0 +1,68 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.model.MovieListItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MovieListItemRepository extends JpaRepository<MovieListItem, Long> {
+
+    /** Where a film sits in a list, if it is there. */
+    @Query("SELECT i.rank FROM MovieListItem i WHERE i.listId = :listId AND i.movieId = :movieId")
+    Optional<Long> findRank(@Param("listId") Long listId, @Param("movieId") String movieId);
+
+    /** A list's films in order; all of them when unpaged. */
+    @Query("SELECT i.movieId FROM MovieListItem i WHERE i.listId = :listId ORDER BY i.rank")
+    List<String> findMovieIds(@Param("listId") Long listId, Pageable pageable);
+
+    /** [listId, movieId] for every film of the given lists, each list in order. */
+    @Query("SELECT i.listId, i.movieId FROM MovieListItem i WHERE i.listId IN :listIds ORDER BY i.listId, i.rank")
+    List<Object[]> findMovieIdsByListIds(@Param("listIds") Collection<Long> listIds);
+
+    /** [movieId, rank] for every film of a list, in order. */
+    @Query("SELECT i.movieId, i.rank FROM MovieListItem i WHERE i.listId = :listId ORDER BY i.rank")
+    List<Object[]> findRanks(@Param("listId") Long listId);
+
+    /** First page of a list, in order; ties on rank go by id. */
+    List<MovieListItem> findByListIdOrderByRankAscIdAsc(Long listId, Pageable pageable);
+
+    /** The page after the keyset cursor (rank, id), in order. */
+    @Query("SELECT i FROM MovieListItem i WHERE i.listId = :listId AND (i.rank > :rank "
+            + "OR (i.rank = :rank AND i.id > :id)) ORDER BY i.rank, i.id")
+    List<MovieListItem> findPageAfter(@Param("listId") Long listId, @Param("rank") long rank, @Param("id") long id,
+            Pageable pageable);
+
+    /** The largest rank, leaving out one film (the one being moved). */
+    @Query("SELECT MAX(i.rank) FROM MovieListItem i WHERE i.listId = :listId AND i.movieId <> :except")
+    Long findLastRank(@Param("listId") Long listId, @Param("except") String except);
+
+    /** The smallest rank after {@code rank}, leaving out one film. */
+    @Query("SELECT MIN(i.rank) FROM MovieListItem i WHERE i.listId = :listId AND i.rank > :rank AND i.movieId <> :except")
+    Long findNextRank(@Param("listId") Long listId, @Param("rank") long rank, @Param("except") String except);
+
+    /** [movieId, public lists containing it]; films in no public list are left out. */
+    @Query("SELECT i.movieId, COUNT(i) FROM MovieListItem i JOIN MovieList l ON l.id = i.listId "
+            + "WHERE l.isPublic = true AND i.movieId IN :movieIds GROUP BY i.movieId")
+    List<Object[]> countPublicListsByMovieIds(@Param("movieIds") Collection<String> movieIds);
+
+    /** Public lists containing a film, most viewed first; walks (movie_id, list_id). */
+    @Query("SELECT l FROM MovieListItem i JOIN MovieList l ON l.id = i.listId JOIN FETCH l.user "
+            + "WHERE i.movieId = :movieId AND l.isPublic = true ORDER BY l.viewCount DESC, l.id DESC")
+    Slice<MovieList> findPublicListsContaining(@Param("movieId") String movieId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM MovieListItem i WHERE i.listId = :listId AND i.movieId IN :movieIds")
+    int deleteByListIdAndMovieIdIn(@Param("listId") Long listId, @Param("movieIds") Collection<String> movieIds);
+
+    @Modifying
+    @Query("DELETE FROM MovieListItem i WHERE i.listId = :listId")
+    int deleteByListId(@Param("listId") Long listId);
+}
@@ -1,10 +1,44 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.MovieList;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface MovieListRepository extends JpaRepository<MovieList, Long> {
+    @EntityGraph("MovieList.user")
     List<MovieList> findByUserId(Long userId);
+
     long countByUserId(Long userId);
+
+    @EntityGraph("MovieList.user")
+    Optional<MovieList> findDetailById(Long id);
+
+    /** The list row locked, so concurrent edits of its films and counts apply one after another. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM MovieList l WHERE l.id = :id")
+    Optional<MovieList> findForUpdate(@Param("id") Long id);
+
+    /** A page of public lists, newest first; served from (is_public, created_at, id). */
+    @EntityGraph("MovieList.user")
+    Slice<MovieList> findByIsPublicTrueOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    /** A page of public lists, most viewed first; served from (is_public, view_count, id). */
+    @EntityGraph("MovieList.user")
+    Slice<MovieList> findByIsPublicTrueOrderByViewCountDescIdDesc(Pageable pageable);
+
+    /** Ids of lists with any tags, in id order after {@code afterId}. */
+    @Query("SELECT l.id FROM MovieList l WHERE l.id > :afterId AND l.tags IS NOT NULL AND l.tags <> '' ORDER BY l.id")
+    List<Long> findTaggedIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /** Per user: [userId, lists, latest list creation time]. */
+    @Query("SELECT l.user.id, COUNT(l), MAX(l.createdAt) FROM MovieList l WHERE l.user.id IN :userIds GROUP BY l.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") List<Long> userIds);
 }
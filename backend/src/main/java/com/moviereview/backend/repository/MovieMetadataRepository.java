@@ -0,0 +1,7 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.MovieMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MovieMetadataRepository extends JpaRepository<MovieMetadata, String> {
+}
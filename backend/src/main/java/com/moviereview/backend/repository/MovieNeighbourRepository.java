@@ -0,0 +1,11 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.MovieNeighbour;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MovieNeighbourRepository extends JpaRepository<MovieNeighbour, Long> {
+    List<MovieNeighbour> findByMovieIdIn(Collection<String> movieIds);
+}
@@ -0,0 +1,7 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.MovieSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MovieSummaryRepository extends JpaRepository<MovieSummary, String> {
+}
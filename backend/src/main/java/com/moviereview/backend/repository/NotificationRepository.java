@@ -1,10 +1,12 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Notification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    @EntityGraph("Notification.sender")
     List<Notification> findByRecipientIdOrderByCreatedAtDesc(Long recipientId);
     List<Notification> findByRecipientIdAndIsReadFalse(Long recipientId);
 }
@@ -1,14 +1,44 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.ReviewLike;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReviewLikeRepository extends JpaRepository<ReviewLike, Long> {
     boolean existsByUserIdAndReviewId(Long userId, Long reviewId);
+
+    /**
+     * Likes the review in one statement, in its own transaction so a
+     * concurrent duplicate fails here rather than poisoning the caller's.
+     * Returns 0 when the review does not exist, is the user's own, or is
+     * already liked by them.
+     */
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO ReviewLike (user, review, createdAt) SELECT u, r, :createdAt FROM User u, Review r "
+            + "WHERE u.id = :userId AND r.id = :reviewId AND r.user.id <> :userId AND NOT EXISTS "
+            + "(SELECT 1 FROM ReviewLike x WHERE x.user.id = :userId AND x.review.id = :reviewId)")
+    int insertIfAbsent(@Param("userId") Long userId, @Param("reviewId") Long reviewId,
+            @Param("createdAt") LocalDateTime createdAt);
+
     Optional<ReviewLike> findByUserIdAndReviewId(Long userId, Long reviewId);
     void deleteByUserIdAndReviewId(Long userId, Long reviewId);
     long countByReviewId(Long reviewId);
+
+    /** The subset of the given reviews the user has liked. */
+    @Query("SELECT rl.review.id FROM ReviewLike rl WHERE rl.user.id = :userId AND rl.review.id IN :reviewIds")
+    List<Long> findLikedReviewIds(@Param("userId") Long userId, @Param("reviewIds") List<Long> reviewIds);
+
+    /** [reviewId, likes] for each of the given reviews that has at least one like. */
+    @Query("SELECT rl.review.id, COUNT(rl) FROM ReviewLike rl WHERE rl.review.id IN :reviewIds GROUP BY rl.review.id")
+    List<Object[]> countByReviewIds(@Param("reviewIds") List<Long> reviewIds);
+    @EntityGraph("ReviewLike.user")
     List<ReviewLike> findByReviewId(Long reviewId);
 }
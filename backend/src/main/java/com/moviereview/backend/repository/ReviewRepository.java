@@ -1,26 +1,98 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    @EntityGraph("Review.user")
     List<Review> findByUserId(Long userId);
 
     Optional<Review> findByUserIdAndMovieId(Long userId, String movieId);
 
+    /** With author and tags, so the entry can be serialized as it is. */
+    @EntityGraph("Review.detail")
     List<Review> findAllByUserIdAndMovieId(Long userId, String movieId);
 
+    /** The author of a review, without loading it. */
+    @Query("SELECT r.user.id FROM Review r WHERE r.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    /** [movieId, rating, has text (0/1)] for the user's entries on any of {@code movieIds}. */
+    @Query("SELECT r.movieId, r.rating, CASE WHEN r.content IS NOT NULL AND r.content <> '' THEN 1 ELSE 0 END "
+            + "FROM Review r WHERE r.user.id = :userId AND r.movieId IN :movieIds")
+    List<Object[]> findEntriesIn(@Param("userId") Long userId, @Param("movieIds") Collection<String> movieIds);
+
     long countByUserId(Long userId);
 
+    /** [movieId, rating] for each of the user's rated entries, oldest first. */
+    @Query("SELECT r.movieId, r.rating FROM Review r WHERE r.user.id = :userId AND r.rating > 0 "
+            + "ORDER BY r.createdAt, r.id")
+    List<Object[]> findRatings(@Param("userId") Long userId);
+
     long countByUserIdAndContentIsNotNull(Long userId);
 
     long countByUserIdAndCreatedAtAfter(Long userId, LocalDateTime date);
 
+    @EntityGraph("Review.user")
     List<Review> findByUserIdInOrderByCreatedAtDesc(List<Long> userIds);
 
+    @EntityGraph("Review.detail")
     List<Review> findByTagsContaining(String tag);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Review> streamByUserIdOrderByCreatedAtAscIdAsc(Long userId);
+
+    /** Per user: [userId, films, reviews with text, films logged since {@code since}, latest entry time]. */
+    @Query("SELECT r.user.id, COUNT(r), "
+            + "SUM(CASE WHEN r.content IS NOT NULL THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.createdAt >= :since THEN 1 ELSE 0 END), "
+            + "MAX(r.createdAt) "
+            + "FROM Review r WHERE r.user.id IN :userIds GROUP BY r.user.id")
+    List<Object[]> countStatsByUserIds(@Param("userIds") List<Long> userIds, @Param("since") LocalDateTime since);
+
+    /** [userId, movieId, title, poster, createdAt] for every entry logged since {@code since}. */
+    @Query("SELECT r.user.id, r.movieId, r.movieTitle, r.moviePosterUrl, r.createdAt FROM Review r "
+            + "WHERE r.createdAt >= :since")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamEntriesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * [watchedDate, createdAt, rating, rewatch, has text (0/1), movieId] for one
+     * user's entries dated in [from, to): by watched date, or by log time when
+     * no watched date was given.
+     */
+    @Query("SELECT r.watchedDate, r.createdAt, r.rating, r.isRewatch, "
+            + "CASE WHEN r.content IS NOT NULL THEN 1 ELSE 0 END, r.movieId FROM Review r "
+            + "WHERE r.user.id = :userId AND ((r.watchedDate >= :from AND r.watchedDate < :to) "
+            + "OR (r.watchedDate IS NULL AND r.createdAt >= :fromTime AND r.createdAt < :toTime))")
+    List<Object[]> findYearEntries(@Param("userId") Long userId,
+            @Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime);
+
+    /** [userId, movieId, rating, title, poster] for every entry, for the recommendation job. */
+    @Query("SELECT r.user.id, r.movieId, r.rating, r.movieTitle, r.moviePosterUrl FROM Review r")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamInteractions();
+
+    /** [movieId, title, createdAt, rating] for the user's latest entries, newest first. */
+    @Query("SELECT r.movieId, r.movieTitle, r.createdAt, r.rating FROM Review r WHERE r.user.id = :userId "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Object[]> findRecentMovies(@Param("userId") Long userId, Pageable pageable);
 }
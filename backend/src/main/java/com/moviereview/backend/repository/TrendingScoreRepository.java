@@ -0,0 +1,7 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, String> {
+}
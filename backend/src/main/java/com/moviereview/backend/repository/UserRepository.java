@@ -1,16 +1,66 @@
 package com.moviereview.backend.repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.moviereview.backend.model.User;
+
+import jakarta.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
-    List<User> findByNameContainingIgnoreCase(String name);
+    /**
+     * Followees of {@code viewerId} with any activity on {@code movieId}:
+     * [userId, name, avatarUrl, status] where status 1 = liked, 2 = watched,
+     * 3 = watchlist, keeping the strongest per user.
+     */
+    @Query(value = "SELECT u.id, u.name, u.avatar_url, MIN(a.status) FROM ("
+            + "SELECT user_id, 1 AS status FROM likes WHERE movie_id = :movieId "
+            + "UNION ALL SELECT user_id, 2 AS status FROM watched WHERE movie_id = :movieId "
+            + "UNION ALL SELECT user_id, 3 AS status FROM watchlist WHERE movie_id = :movieId"
+            + ") a "
+            + "JOIN user_followers f ON f.user_id = a.user_id AND f.follower_id = :viewerId "
+            + "JOIN users u ON u.id = a.user_id "
+            + "GROUP BY u.id, u.name, u.avatar_url ORDER BY MIN(a.status), u.id", nativeQuery = true)
+    List<Object[]> findFriendActivity(@Param("viewerId") Long viewerId, @Param("movieId") String movieId);
+
+    @Query("SELECT u.id, u.name, u.email, u.avatarUrl FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamSearchEntries();
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    @Query(value = "SELECT user_id, follower_id FROM user_followers", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamFollowEdges();
+
+    @Modifying
+    @Query(value = "DELETE FROM user_followers WHERE user_id = :userId AND follower_id = :followerId", nativeQuery = true)
+    int removeFollower(@Param("userId") Long userId, @Param("followerId") Long followerId);
+
+    @Query(value = "SELECT user_id, COUNT(*) FROM user_followers WHERE user_id IN (:userIds) GROUP BY user_id", nativeQuery = true)
+    List<Object[]> countFollowersByUserIds(@Param("userIds") List<Long> userIds);
+
+    @Query(value = "SELECT follower_id, COUNT(*) FROM user_followers WHERE follower_id IN (:userIds) GROUP BY follower_id", nativeQuery = true)
+    List<Object[]> countFollowingByUserIds(@Param("userIds") List<Long> userIds);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
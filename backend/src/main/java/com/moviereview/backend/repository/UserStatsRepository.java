@@ -0,0 +1,80 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.UserStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    /** The row locked so a recount can be written without losing concurrent deltas. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStats s WHERE s.userId = :userId")
+    Optional<UserStats> findForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Applies all counter deltas in one statement. {@code filmsThisYear} only
+     * moves while the row still refers to {@code year}; a stale row is
+     * recounted on its next read. {@code activityAt} moves the last-activity
+     * time when non-null. Returns 0 when the user has no row yet.
+     */
+    @Modifying
+    @Query("UPDATE UserStats s SET "
+            + "s.followersCount = s.followersCount + :followers, "
+            + "s.followingCount = s.followingCount + :following, "
+            + "s.filmsCount = s.filmsCount + :films, "
+            + "s.reviewsCount = s.reviewsCount + :reviews, "
+            + "s.listsCount = s.listsCount + :lists, "
+            + "s.filmsThisYear = CASE WHEN s.statsYear = :year THEN s.filmsThisYear + :thisYear ELSE s.filmsThisYear END, "
+            + "s.lastActivityAt = COALESCE(:activityAt, s.lastActivityAt), "
+            + "s.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE s.userId = :userId")
+    int applyDeltas(@Param("userId") Long userId,
+            @Param("followers") long followers,
+            @Param("following") long following,
+            @Param("films") long films,
+            @Param("reviews") long reviews,
+            @Param("lists") long lists,
+            @Param("thisYear") long thisYear,
+            @Param("year") int year,
+            @Param("activityAt") LocalDateTime activityAt);
+
+    /** Moves the like / watched / watchlist counters. Returns 0 when the user has no row yet. */
+    @Modifying
+    @Query("UPDATE UserStats s SET "
+            + "s.likesCount = s.likesCount + :likes, "
+            + "s.watchedCount = s.watchedCount + :watched, "
+            + "s.watchlistCount = s.watchlistCount + :watchlist, "
+            + "s.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE s.userId = :userId")
+    int applyActivityDeltas(@Param("userId") Long userId,
+            @Param("likes") long likes,
+            @Param("watched") long watched,
+            @Param("watchlist") long watchlist);
+
+    /**
+     * One page of the members directory. The caller sorts by a single
+     * counter (plus user id as tie-breaker) so each sort walks its own index.
+     */
+    @Query("SELECT s.userId AS id, u.name AS name, u.avatarUrl AS avatarUrl, s.filmsCount AS filmsCount, "
+            + "s.reviewsCount AS reviewsCount, s.followersCount AS followersCount "
+            + "FROM UserStats s JOIN User u ON u.id = s.userId")
+    Slice<MemberSummary> findMembers(Pageable pageable);
+
+    interface MemberSummary {
+        Long getId();
+        String getName();
+        String getAvatarUrl();
+        long getFilmsCount();
+        long getReviewsCount();
+        long getFollowersCount();
+    }
+}
@@ -0,0 +1,18 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.UserSuggestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserSuggestionRepository extends JpaRepository<UserSuggestion, Long> {
+    List<UserSuggestion> findByUserIdOrderByScoreDesc(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserSuggestion s WHERE s.userId IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,11 +1,66 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Watched;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface WatchedRepository extends JpaRepository<Watched, Long> {
+    @EntityGraph("Watched.user")
     List<Watched> findByUserIdOrderByCreatedAtDesc(Long userId);
     boolean existsByUserIdAndMovieId(Long userId, String movieId);
-    void deleteByUserIdAndMovieId(Long userId, String movieId);
+    /** Number of rows removed, 0 or 1. */
+    long deleteByUserIdAndMovieId(Long userId, String movieId);
+
+    /** First page of a user's watched films, newest first. */
+    @EntityGraph("Watched.user")
+    List<Watched> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /** The page after the keyset cursor (createdAt, id), newest first. */
+    @EntityGraph("Watched.user")
+    @Query("SELECT x FROM Watched x WHERE x.user.id = :userId AND (x.createdAt < :createdAt "
+            + "OR (x.createdAt = :createdAt AND x.id < :id)) ORDER BY x.createdAt DESC, x.id DESC")
+    List<Watched> findPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    /** Per user: [userId, watched films]. */
+    @Query("SELECT x.user.id, COUNT(x) FROM Watched x WHERE x.user.id IN :userIds GROUP BY x.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") List<Long> userIds);
+
+    /** Every movie id in the user's watched list, for the in-memory activity sets. */
+    @Query("SELECT x.movieId FROM Watched x WHERE x.user.id = :userId")
+    List<String> findMovieIdsByUserId(@Param("userId") Long userId);
+
+    /** [userId, movieId] for every watched entry of the given users. */
+    @Query("SELECT x.user.id, x.movieId FROM Watched x WHERE x.user.id IN :userIds")
+    List<Object[]> findMovieIdsByUserIds(@Param("userIds") List<Long> userIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Watched> streamByUserIdOrderByCreatedAtAscIdAsc(Long userId);
+
+    /** [userId, createdAt] for every watched mark since {@code since}. */
+    @Query("SELECT w.user.id, w.createdAt FROM Watched w WHERE w.createdAt >= :since")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamActivitySince(@Param("since") LocalDateTime since);
+
+    /** [userId, movieId, title, poster] for every watched mark, for the recommendation job. */
+    @Query("SELECT w.user.id, w.movieId, w.movieTitle, w.posterPath FROM Watched w")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamInteractions();
+
+    /** [movieId, title, createdAt] for the user's latest watched marks, newest first. */
+    @Query("SELECT w.movieId, w.movieTitle, w.createdAt FROM Watched w WHERE w.user.id = :userId "
+            + "ORDER BY w.createdAt DESC, w.id DESC")
+    List<Object[]> findRecentMovies(@Param("userId") Long userId, Pageable pageable);
 }
@@ -1,16 +1,56 @@
 package com.moviereview.backend.repository;
 
 import com.moviereview.backend.model.Watchlist;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WatchlistRepository extends JpaRepository<Watchlist, Long> {
+    @EntityGraph("Watchlist.user")
     List<Watchlist> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     Optional<Watchlist> findByUserIdAndMovieId(Long userId, String movieId);
 
     boolean existsByUserIdAndMovieId(Long userId, String movieId);
 
-    void deleteByUserIdAndMovieId(Long userId, String movieId);
+    /** Number of rows removed, 0 or 1. */
+    long deleteByUserIdAndMovieId(Long userId, String movieId);
+
+    /** First page of a user's watchlist entries, newest first. */
+    @EntityGraph("Watchlist.user")
+    List<Watchlist> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /** The page after the keyset cursor (createdAt, id), newest first. */
+    @EntityGraph("Watchlist.user")
+    @Query("SELECT x FROM Watchlist x WHERE x.user.id = :userId AND (x.createdAt < :createdAt "
+            + "OR (x.createdAt = :createdAt AND x.id < :id)) ORDER BY x.createdAt DESC, x.id DESC")
+    List<Watchlist> findPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    /** Per user: [userId, watchlist entries]. */
+    @Query("SELECT x.user.id, COUNT(x) FROM Watchlist x WHERE x.user.id IN :userIds GROUP BY x.user.id")
+    List<Object[]> countByUserIds(@Param("userIds") List<Long> userIds);
+
+    /** Every movie id in the user's watchlist, for the in-memory activity sets. */
+    @Query("SELECT x.movieId FROM Watchlist x WHERE x.user.id = :userId")
+    List<String> findMovieIdsByUserId(@Param("userId") Long userId);
+
+    /** [userId, movieId] for every watchlist entry of the given users. */
+    @Query("SELECT x.user.id, x.movieId FROM Watchlist x WHERE x.user.id IN :userIds")
+    List<Object[]> findMovieIdsByUserIds(@Param("userIds") List<Long> userIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Watchlist> streamByUserIdOrderByCreatedAtAscIdAsc(Long userId);
 }
@@ -0,0 +1,24 @@
+package com.moviereview.backend.repository;
+
+import com.moviereview.backend.model.YearInReview;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface YearInReviewRepository extends JpaRepository<YearInReview, Long> {
+
+    Optional<YearInReview> findByUserIdAndStatsYear(Long userId, int statsYear);
+
+    /** The row locked for a read-modify-write of its counters. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM YearInReview s WHERE s.userId = :userId AND s.statsYear = :year")
+    Optional<YearInReview> findForUpdate(@Param("userId") Long userId, @Param("year") int year);
+
+    /** Oldest rows still waiting for TMDB enrichment. */
+    List<YearInReview> findTop50ByMetadataDirtyTrueOrderByUpdatedAtAsc();
+}
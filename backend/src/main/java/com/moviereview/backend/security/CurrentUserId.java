@@ -0,0 +1,17 @@
+package com.moviereview.backend.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@code Long} controller parameter to the id of the authenticated
+ * user. When {@link #required()} is false an anonymous request gets
+ * {@code null}; otherwise it is rejected with 401.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUserId {
+    boolean required() default true;
+}
@@ -0,0 +1,57 @@
+package com.moviereview.backend.security;
+
+import java.security.Principal;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+
+/**
+ * Resolves {@link CurrentUserId} parameters. A JWT-authenticated request
+ * already carries the id in its {@link JwtPrincipal}; any other kind of
+ * authentication falls back to looking the user up by name.
+ */
+public class CurrentUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserRepository userRepository;
+
+    public CurrentUserIdArgumentResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUserId.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Long userId = currentUserId(webRequest.getUserPrincipal());
+        if (userId == null && parameter.getParameterAnnotation(CurrentUserId.class).required()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        return userId;
+    }
+
+    private Long currentUserId(Principal principal) {
+        if (principal == null || principal instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal.getId();
+        }
+        return userRepository.findByEmail(principal.getName()).map(User::getId).orElse(null);
+    }
+}
@@ -2,14 +2,18 @@ package com.moviereview.backend.security;
 
 import java.io.IOException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,12 +22,17 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersions;
+    private final UserRepository userRepository;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, TokenVersionCache tokenVersions,
+            UserRepository userRepository) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.tokenVersions = tokenVersions;
+        this.userRepository = userRepository;
     }
 
     @Override
@@ -31,41 +40,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String userEmail;
-        final String jwtToken;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwtToken = authHeader.substring(7);
+        final String jwtToken = authHeader.substring(7);
+        final Claims claims;
         try {
-            userEmail = jwtUtils.extractUsername(jwtToken);
+            // Signature and expiry are both checked here
+            claims = jwtUtils.parseClaims(jwtToken);
         } catch (Exception e) {
-            System.out.println("JwtAuthenticationFilter: Failed to extract username from token: " + e.getMessage());
+            logger.debug("Invalid token: {}", e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtUtils.isTokenValid(jwtToken, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (Exception e) {
-                // Log and ignore (user not found or other error), so authentication fails (401)
-                // instead of crashing the filter (500)
-                System.out.println(
-                        "JwtAuthenticationFilter: Authentication failed for user " + userEmail + ": " + e.getMessage());
-            }
+        JwtPrincipal principal = principalFor(claims);
+        if (principal != null) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    principal.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
+
+    private JwtPrincipal principalFor(Claims claims) {
+        String email = claims.getSubject();
+        Number userId = claims.get(JwtUtils.USER_ID_CLAIM, Number.class);
+        Number version = claims.get(JwtUtils.VERSION_CLAIM, Number.class);
+        if (userId != null) {
+            int tokenVersion = version != null ? version.intValue() : 0;
+            if (!tokenVersions.isCurrent(userId.longValue(), tokenVersion)) {
+                logger.debug("Revoked token for user {}", userId);
+                return null;
+            }
+            return new JwtPrincipal(userId.longValue(), email, tokenVersion);
+        }
+        // Tokens issued before ids were signed in: resolve once by email, valid until they expire
+        // unless the user has since revoked their sessions
+        User user = email != null ? userRepository.findByEmail(email).orElse(null) : null;
+        if (user == null || user.getTokenVersion() != 0) {
+            logger.debug("Authentication failed for user {}", email);
+            return null;
+        }
+        return new JwtPrincipal(user.getId(), user.getEmail(), 0);
+    }
 }
@@ -0,0 +1,69 @@
+package com.moviereview.backend.security;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * The authenticated user as described by a verified JWT. Built from the
+ * token's claims alone, so authenticating a request needs no user lookup.
+ * {@link #getUsername()} is the email, which keeps
+ * {@code authentication.getName()} working for existing callers.
+ */
+public class JwtPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final int tokenVersion;
+
+    public JwtPrincipal(Long id, String email, int tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -10,12 +10,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.service.TtlCache;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
+/**
+ * Issues and verifies tokens. The signing key and parser are built once;
+ * verified claims are kept in a small bounded cache keyed by the full
+ * token, so a client sending the same token on every request pays for one
+ * signature check per TTL instead of one per request.
+ */
 @Component
 public class JwtUtils {
 
@@ -25,12 +35,27 @@ public class JwtUtils {
 
     private long jwtExpiration = 86400000; // 1 day
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String VERSION_CLAIM = "ver";
+
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final TtlCache<String, Claims> verified;
+
+    public JwtUtils(@Value("${jwt.claims-cache-ttl-ms:60000}") long cacheTtlMillis) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verified = new TtlCache<>(MAX_CACHED_TOKENS, cacheTtlMillis);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
@@ -38,45 +63,54 @@ public class JwtUtils {
         return generateToken(new HashMap<>(), username);
     }
 
+    /** A token whose claims identify the user without a database lookup. */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(VERSION_CLAIM, user.getTokenVersion());
+        return generateToken(claims, user.getEmail());
+    }
+
+    /**
+     * Verifies signature and expiry and returns the claims; throws if either
+     * check fails. The returned claims may be shared and must not be modified.
+     */
+    public Claims parseClaims(String token) {
+        Claims cached = verified.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = extractAllClaims(token);
+        verified.putUntil(token, claims,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+        return claims;
+    }
+
     public String generateToken(Map<String, Object> extraClaims, String username) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(token, userDetails.getUsername());
     }
     
     // Overloaded method for simple validation without UserDetails (if needed)
     public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username)) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        try {
+            // Expiry is enforced by the parser, so one parse answers both checks
+            return parseClaims(token).getSubject().equals(username);
+        } catch (Exception e) {
+            return false;
+        }
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 }
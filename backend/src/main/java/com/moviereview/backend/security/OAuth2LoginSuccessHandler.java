@@ -8,6 +8,8 @@ import org.springframework.security.web.authentication.SimpleUrlAuthenticationSu
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.moviereview.backend.repository.UserRepository;
+
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,9 +18,11 @@ import jakarta.servlet.http.HttpServletResponse;
 public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     private final JwtUtils jwtUtils;
+    private final UserRepository userRepository;
 
-    public OAuth2LoginSuccessHandler(JwtUtils jwtUtils) {
+    public OAuth2LoginSuccessHandler(JwtUtils jwtUtils, UserRepository userRepository) {
         this.jwtUtils = jwtUtils;
+        this.userRepository = userRepository;
     }
 
     @Override
@@ -30,7 +34,9 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
         System.out.println("OAuth2LoginSuccessHandler: email=" + email);
 
         // Generate JWT
-        String token = jwtUtils.generateToken(email);
+        String token = userRepository.findByEmail(email)
+                .map(jwtUtils::generateToken)
+                .orElseGet(() -> jwtUtils.generateToken(email));
 
         // Redirect to frontend with token
         String targetUrl = UriComponentsBuilder.fromUriString("http://localhost:5173/oauth/callback")
@@ -0,0 +1,52 @@
+package com.moviereview.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.service.TtlCache;
+
+/**
+ * Current token version per user, checked against the version signed into
+ * each JWT. Versions are cached for a short TTL, so a user is looked up at
+ * most once per TTL rather than on every request; a revocation made on
+ * another instance takes effect within that window.
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final UserRepository userRepository;
+    private final TtlCache<Long, Integer> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+            @Value("${jwt.version-cache-ttl-ms:60000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.versions = new TtlCache<>(MAX_ENTRIES, ttlMillis);
+    }
+
+    /** False when the user no longer exists or has revoked tokens of this version. */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer version = versions.get(userId);
+        if (version == null) {
+            version = userRepository.findTokenVersionById(userId).orElse(null);
+            if (version == null) {
+                versions.remove(userId);
+                return false;
+            }
+            versions.put(userId, version);
+        }
+        return version == tokenVersion;
+    }
+
+    /** Invalidates every token issued to the user so far and returns the new version. */
+    @Transactional
+    public int revokeAll(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        int version = userRepository.findTokenVersionById(userId).orElse(0);
+        versions.put(userId, version);
+        return version;
+    }
+}
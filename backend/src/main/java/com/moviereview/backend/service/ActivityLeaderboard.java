@@ -0,0 +1,224 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * "Most active members" and "most logged films" over the last seven days,
+ * without grouping over {@code reviews}, {@code likes} and {@code watched}.
+ * <p>
+ * Each member and film has a ring of 7 x 24 hourly buckets. Buckets that
+ * fall out of the window are cleared lazily when the ring is next written
+ * and skipped when it is read. The write paths add events after commit,
+ * the rings are rebuilt from the last seven days of rows at startup, and a
+ * top-K snapshot is republished every few seconds so reads never scan.
+ */
+@Service
+public class ActivityLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLeaderboard.class);
+    static final int HOURS = 7 * 24;
+    public static final int TOP_K = 50;
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ReviewRepository reviewRepository;
+    private final LikeRepository likeRepository;
+    private final WatchedRepository watchedRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    /** userId -> diary entries, likes and watched marks per hour */
+    private final Map<Long, Ring> members = new ConcurrentHashMap<>();
+    /** TMDB id -> diary entries per hour */
+    private final Map<Long, Ring> films = new ConcurrentHashMap<>();
+    /** Title and poster from the latest entry, so the panel needs no TMDB call */
+    private final Map<Long, Film> filmDetails = new ConcurrentHashMap<>();
+
+    private volatile List<Ranked> topMembers = List.of();
+    private volatile List<Ranked> topFilms = List.of();
+
+    public record Ranked(long id, int count) {
+    }
+
+    public record Film(String title, String posterUrl) {
+    }
+
+    public ActivityLeaderboard(ReviewRepository reviewRepository, LikeRepository likeRepository,
+            WatchedRepository watchedRepository, PlatformTransactionManager transactionManager) {
+        this.reviewRepository = reviewRepository;
+        this.likeRepository = likeRepository;
+        this.watchedRepository = watchedRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime since = LocalDateTime.now().minusHours(HOURS);
+        members.clear();
+        films.clear();
+        filmDetails.clear();
+        long events = readOnlyTx.execute(status -> {
+            long count = 0;
+            try (Stream<Object[]> rows = reviewRepository.streamEntriesSince(since)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    long hour = hourOf((LocalDateTime) row[4]);
+                    add(members, ((Number) row[0]).longValue(), hour);
+                    addFilm((String) row[1], (String) row[2], (String) row[3], hour);
+                    count++;
+                }
+            }
+            try (Stream<Object[]> rows = likeRepository.streamActivitySince(since)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    add(members, ((Number) row[0]).longValue(), hourOf((LocalDateTime) row[1]));
+                    count++;
+                }
+            }
+            try (Stream<Object[]> rows = watchedRepository.streamActivitySince(since)) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    add(members, ((Number) row[0]).longValue(), hourOf((LocalDateTime) row[1]));
+                    count++;
+                }
+            }
+            return count;
+        });
+        publish();
+        logger.info("Activity leaderboard loaded: {} events, {} members, {} films", events, members.size(),
+                films.size());
+    }
+
+    /** A diary entry was logged; counts for both the member and the film. */
+    public void onEntry(long userId, String movieId, String title, String posterUrl) {
+        long hour = currentHour();
+        add(members, userId, hour);
+        addFilm(movieId, title, posterUrl, hour);
+    }
+
+    /** A like or watched mark; counts for the member only. */
+    public void onActivity(long userId) {
+        add(members, userId, currentHour());
+    }
+
+    public List<Ranked> topMembers(int limit) {
+        List<Ranked> top = topMembers;
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    public List<Ranked> topFilms(int limit) {
+        List<Ranked> top = topFilms;
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    public Film film(long movieId) {
+        return filmDetails.get(movieId);
+    }
+
+    /** Rebuilds both top-K snapshots and drops rings that have emptied. */
+    @Scheduled(initialDelayString = "${leaderboard.publish-interval-ms:5000}",
+            fixedDelayString = "${leaderboard.publish-interval-ms:5000}")
+    public void publish() {
+        long hour = currentHour();
+        topMembers = top(members, hour);
+        topFilms = top(films, hour);
+        filmDetails.keySet().removeIf(id -> !films.containsKey(id));
+    }
+
+    private static List<Ranked> top(Map<Long, Ring> rings, long hour) {
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(TOP_K + 1,
+                Comparator.comparingInt(Ranked::count).thenComparing(Ranked::id, Comparator.reverseOrder()));
+        int[] total = new int[1];
+        for (Long id : rings.keySet()) {
+            total[0] = 0;
+            rings.computeIfPresent(id, (k, r) -> (total[0] = r.total(hour)) == 0 ? null : r);
+            if (total[0] == 0) continue;
+            heap.add(new Ranked(id, total[0]));
+            if (heap.size() > TOP_K) heap.poll();
+        }
+        List<Ranked> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) result.add(heap.poll());
+        Collections.reverse(result);
+        return List.copyOf(result);
+    }
+
+    private void addFilm(String movieId, String title, String posterUrl, long hour) {
+        long id;
+        try {
+            id = Long.parseLong(movieId);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (add(films, id, hour) && title != null) {
+            filmDetails.put(id, new Film(title, posterUrl));
+        }
+    }
+
+    /** Counts one event; false when it is already outside the window. */
+    private static boolean add(Map<Long, Ring> rings, long id, long hour) {
+        boolean[] counted = new boolean[1];
+        // compute() serializes with the pruning in top(), so an event is never added to a dropped ring
+        rings.compute(id, (k, ring) -> {
+            Ring r = ring != null ? ring : new Ring();
+            counted[0] = r.add(hour);
+            return counted[0] || ring != null ? r : null;
+        });
+        return counted[0];
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / HOUR_MILLIS;
+    }
+
+    /** Hourly counts for the {@link #HOURS} hours ending at {@code lastHour}. */
+    private static final class Ring {
+        private final int[] counts = new int[HOURS];
+        private long lastHour = Long.MIN_VALUE;
+
+        synchronized boolean add(long hour) {
+            if (lastHour == Long.MIN_VALUE || hour > lastHour) {
+                if (lastHour != Long.MIN_VALUE) {
+                    long stale = Math.min(hour - lastHour, HOURS);
+                    for (long h = lastHour + 1; h < lastHour + 1 + stale; h++) {
+                        counts[(int) Math.floorMod(h, (long) HOURS)] = 0;
+                    }
+                }
+                lastHour = hour;
+            } else if (hour <= lastHour - HOURS) {
+                return false;
+            }
+            counts[(int) Math.floorMod(hour, (long) HOURS)]++;
+            return true;
+        }
+
+        /** Events in the window ending at {@code nowHour}. */
+        synchronized int total(long nowHour) {
+            int sum = 0;
+            for (long h = Math.max(lastHour, nowHour) - HOURS + 1; h <= lastHour; h++) {
+                sum += counts[(int) Math.floorMod(h, (long) HOURS)];
+            }
+            return sum;
+        }
+    }
+}
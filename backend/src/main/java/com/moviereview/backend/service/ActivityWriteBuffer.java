@@ -0,0 +1,262 @@
+package com.moviereview.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind buffer for like / watched / watchlist toggles. A toggle
+ * records the state its (kind, user, movie) should end up in; a later toggle
+ * of the same key replaces it, so like-unlike-like within one flush window
+ * costs a single write. {@link #flush()} runs every few hundred milliseconds
+ * and applies every pending state in one transaction with JDBC batches,
+ * moving the user_stats counters by what actually changed.
+ * <p>
+ * Entries stay visible to {@link #pendingFor} until their flush commits, so
+ * {@link UserActivitySets} can overlay them on a fresh load. Listings that
+ * read the tables directly call {@link #flushUser} first. Whatever is left
+ * is flushed on shutdown.
+ * <p>
+ * One bad row must not hold back everyone else's writes: a batch that fails
+ * is retried row by row, and a row the database rejects outright is logged
+ * and dropped. Rows that fail for any other reason (the database being
+ * unreachable, say) stay pending for the next flush.
+ */
+@Service
+public class ActivityWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityWriteBuffer.class);
+
+    private static final Map<UserActivitySets.Kind, String> TABLES = Map.of(
+            UserActivitySets.Kind.LIKED, "likes",
+            UserActivitySets.Kind.WATCHED, "watched",
+            UserActivitySets.Kind.WATCHLIST, "watchlist");
+
+    /** Length of the denormalized VARCHAR columns. */
+    private static final int COLUMN_LENGTH = 255;
+
+    /** Denormalized movie fields stored with the row, cut to fit their columns. */
+    public record Movie(String title, String posterPath, Double voteAverage, String releaseDate) {
+        public Movie {
+            title = fit(title);
+            posterPath = fit(posterPath);
+            releaseDate = fit(releaseDate);
+        }
+
+        private static String fit(String value) {
+            return value != null && value.length() > COLUMN_LENGTH ? value.substring(0, COLUMN_LENGTH) : value;
+        }
+    }
+
+    private record Key(UserActivitySets.Kind kind, long userId, String movieId) {
+    }
+
+    /** Compared by identity, so a flush only retires the exact entry it wrote. */
+    private static final class Pending {
+        final boolean present;
+        final Movie movie;
+        final LocalDateTime at;
+        volatile boolean flushing;
+
+        Pending(boolean present, Movie movie, LocalDateTime at) {
+            this.present = present;
+            this.movie = movie;
+            this.at = at;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserStatsService userStatsService;
+    private final TransactionTemplate newTx;
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong absorbed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ActivityWriteBuffer(JdbcTemplate jdbcTemplate, UserStatsService userStatsService,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userStatsService = userStatsService;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void add(UserActivitySets.Kind kind, long userId, String movieId, Movie movie) {
+        enqueue(new Key(kind, userId, movieId), new Pending(true, movie, LocalDateTime.now()));
+    }
+
+    public void remove(UserActivitySets.Kind kind, long userId, String movieId) {
+        enqueue(new Key(kind, userId, movieId), new Pending(false, null, LocalDateTime.now()));
+    }
+
+    private void enqueue(Key key, Pending next) {
+        Pending previous = pending.put(key, next);
+        if (previous != null && !previous.flushing) {
+            absorbed.incrementAndGet();
+        }
+    }
+
+    /** Not-yet-committed states for one user and kind: movie id to whether it should be present. */
+    public Map<String, Boolean> pendingFor(UserActivitySets.Kind kind, long userId) {
+        Map<String, Boolean> result = new HashMap<>();
+        pending.forEach((key, p) -> {
+            if (key.kind == kind && key.userId == userId) result.put(key.movieId, p.present);
+        });
+        return result;
+    }
+
+    /** Toggles replaced by a later toggle of the same key before reaching the database. */
+    public long absorbedWrites() {
+        return absorbed.get();
+    }
+
+    /** Row states written to the database. */
+    public long flushedWrites() {
+        return written.get();
+    }
+
+    /** Row states the database rejected and that were given up on. */
+    public long droppedWrites() {
+        return dropped.get();
+    }
+
+    @Scheduled(initialDelayString = "${activity-buffer.flush-interval-ms:500}",
+            fixedDelayString = "${activity-buffer.flush-interval-ms:500}")
+    public void flush() {
+        flush(key -> true);
+    }
+
+    /** Writes this user's pending toggles now, so a direct read of their rows is up to date. */
+    public void flushUser(long userId) {
+        for (Key key : pending.keySet()) {
+            if (key.userId == userId) {
+                flush(k -> k.userId == userId);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        logger.info("Activity write buffer stopped: {} writes flushed, {} absorbed, {} dropped",
+                written.get(), absorbed.get(), dropped.get());
+    }
+
+    private synchronized void flush(Predicate<Key> which) {
+        List<Map.Entry<Key, Pending>> batch = new ArrayList<>();
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            if (which.test(entry.getKey())) {
+                entry.getValue().flushing = true;
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            newTx.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            logger.warn("Flushing {} buffered activity writes failed, retrying one at a time", batch.size(), e);
+            batch.forEach(this::flushOne);
+            return;
+        }
+        batch.forEach(this::retire);
+        written.addAndGet(batch.size());
+        logger.debug("Flushed {} activity writes ({} absorbed so far)", batch.size(), absorbed.get());
+    }
+
+    private void flushOne(Map.Entry<Key, Pending> entry) {
+        Key key = entry.getKey();
+        try {
+            newTx.executeWithoutResult(status -> write(List.of(entry)));
+            written.incrementAndGet();
+        } catch (RuntimeException e) {
+            if (!rejected(e)) {
+                // Leave it pending; the next flush retries
+                entry.getValue().flushing = false;
+                return;
+            }
+            dropped.incrementAndGet();
+            logger.error("Dropping buffered {} write for user {} and movie {}: {}", key.kind, key.userId,
+                    key.movieId, e.getMessage());
+        }
+        retire(entry);
+    }
+
+    /** The database refused this row's data; retrying it can only fail again. */
+    private static boolean rejected(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    /** Removes the entry unless a newer toggle of the same key has replaced it meanwhile. */
+    private void retire(Map.Entry<Key, Pending> entry) {
+        pending.remove(entry.getKey(), entry.getValue());
+    }
+
+    private void write(List<Map.Entry<Key, Pending>> batch) {
+        Map<Long, Map<UserActivitySets.Kind, Integer>> deltas = new HashMap<>();
+        for (UserActivitySets.Kind kind : UserActivitySets.Kind.values()) {
+            String table = TABLES.get(kind);
+            List<Key> insertKeys = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Key> deleteKeys = new ArrayList<>();
+            List<Object[]> deletes = new ArrayList<>();
+            for (Map.Entry<Key, Pending> entry : batch) {
+                Key key = entry.getKey();
+                if (key.kind != kind) continue;
+                Pending p = entry.getValue();
+                if (p.present) {
+                    Movie m = p.movie;
+                    insertKeys.add(key);
+                    inserts.add(new Object[] { key.movieId, m.title(), m.posterPath(), m.voteAverage(),
+                            m.releaseDate(), p.at, key.userId, key.userId, key.movieId });
+                } else {
+                    deleteKeys.add(key);
+                    deletes.add(new Object[] { key.userId, key.movieId });
+                }
+            }
+            if (!inserts.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate("INSERT INTO " + table
+                        + " (user_id, movie_id, movie_title, poster_path, vote_average, release_date, created_at) "
+                        + "SELECT id, ?, ?, ?, ?, ?, ? FROM users WHERE id = ? AND NOT EXISTS "
+                        + "(SELECT 1 FROM " + table + " WHERE user_id = ? AND movie_id = ?)", inserts);
+                tally(deltas, insertKeys, counts, 1);
+            }
+            if (!deletes.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate("DELETE FROM " + table
+                        + " WHERE user_id = ? AND movie_id = ?", deletes);
+                tally(deltas, deleteKeys, counts, -1);
+            }
+        }
+        deltas.forEach((userId, byKind) -> byKind.forEach((kind, delta) ->
+                userStatsService.onActivityChanged(userId, kind, delta)));
+    }
+
+    private static void tally(Map<Long, Map<UserActivitySets.Kind, Integer>> deltas, List<Key> keys, int[] counts,
+            int sign) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            Key key = keys.get(i);
+            deltas.computeIfAbsent(key.userId, id -> new EnumMap<>(UserActivitySets.Kind.class))
+                    .merge(key.kind, sign, Integer::sum);
+        }
+    }
+}
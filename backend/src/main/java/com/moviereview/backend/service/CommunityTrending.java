@@ -0,0 +1,191 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.TrendingScore;
+import com.moviereview.backend.repository.TrendingScoreRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Trending on MoviePulse": films ranked by recent likes, watched marks,
+ * diary entries and list adds, each event weighted and then decaying
+ * exponentially with a configurable half-life.
+ * <p>
+ * Every film keeps a single score and the time it was last brought up to
+ * date, so recording an event is O(1) and nothing is ever scanned per
+ * request. A top-{@value #TOP_K} snapshot is republished every few seconds
+ * and served as is. Scores are checkpointed to {@code trending_scores}
+ * periodically and on shutdown, and restored at startup.
+ */
+@Service
+public class CommunityTrending {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommunityTrending.class);
+    public static final int TOP_K = 50;
+    /** Films whose score has decayed below this are forgotten. */
+    private static final double FLOOR = 0.05;
+
+    public enum Signal {
+        LIKE(1.0), WATCHED(1.0), LIST_ADD(1.5), REVIEW(2.0);
+
+        final double weight;
+
+        Signal(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    public record Trending(String movieId, double score, String title, String posterPath) {
+    }
+
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+    /** ln 2 / half-life, per millisecond */
+    private final double decayPerMilli;
+
+    private final Map<String, Score> scores = new ConcurrentHashMap<>();
+    private volatile List<Trending> top = List.of();
+
+    public CommunityTrending(TrendingScoreRepository trendingScoreRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${trending.half-life-hours:48}") double halfLifeHours) {
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.decayPerMilli = Math.log(2) / (halfLifeHours * TimeUnit.HOURS.toMillis(1));
+    }
+
+    @PostConstruct
+    public void load() {
+        scores.clear();
+        for (TrendingScore row : trendingScoreRepository.findAll()) {
+            long at = row.getScoredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            scores.put(row.getMovieId(), new Score(row.getScore(), at, row.getTitle(), row.getPosterPath()));
+        }
+        publish();
+        logger.info("Community trending restored: {} films", scores.size());
+    }
+
+    /** Counts one event for a film; title and poster are kept when given. */
+    public void record(Signal signal, String movieId, String title, String posterPath) {
+        if (movieId == null || movieId.isEmpty() || "null".equals(movieId)) return;
+        long now = System.currentTimeMillis();
+        // compute() serializes with the pruning in publish(), so an event is never added to a dropped score
+        scores.compute(movieId, (id, s) -> {
+            Score score = s != null ? s : new Score(0, now, null, null);
+            score.add(signal.weight, now, title, posterPath);
+            return score;
+        });
+    }
+
+    /** The current top films, best first. */
+    public List<Trending> top(int limit) {
+        List<Trending> snapshot = top;
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    /** Rebuilds the top-K snapshot and forgets films that have decayed away. */
+    @Scheduled(initialDelayString = "${trending.publish-interval-ms:5000}",
+            fixedDelayString = "${trending.publish-interval-ms:5000}")
+    public void publish() {
+        long now = System.currentTimeMillis();
+        PriorityQueue<Trending> heap = new PriorityQueue<>(TOP_K + 1,
+                Comparator.comparingDouble(Trending::score).thenComparing(Trending::movieId, Comparator.reverseOrder()));
+        for (String movieId : scores.keySet()) {
+            Trending[] current = new Trending[1];
+            scores.computeIfPresent(movieId, (id, s) -> {
+                current[0] = s.at(id, now);
+                return current[0].score() < FLOOR ? null : s;
+            });
+            if (current[0] == null || current[0].score() < FLOOR) continue;
+            heap.add(current[0]);
+            if (heap.size() > TOP_K) heap.poll();
+        }
+        List<Trending> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) result.add(heap.poll());
+        Collections.reverse(result);
+        top = List.copyOf(result);
+    }
+
+    /** Replaces the stored scores with the current ones, as one batched insert. */
+    @Scheduled(initialDelayString = "${trending.checkpoint-interval-ms:300000}",
+            fixedDelayString = "${trending.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        long now = System.currentTimeMillis();
+        Timestamp scoredAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        scores.forEach((movieId, s) -> {
+            Trending t = s.at(movieId, now);
+            if (t.score() >= FLOOR) {
+                rows.add(new Object[] { movieId, t.score(), scoredAt, t.title(), t.posterPath() });
+            }
+        });
+        try {
+            newTx.executeWithoutResult(status -> {
+                trendingScoreRepository.deleteAllInBatch();
+                jdbcTemplate.batchUpdate("INSERT INTO trending_scores (movie_id, score, scored_at, title, poster_path) "
+                        + "VALUES (?, ?, ?, ?, ?)", rows);
+            });
+            logger.debug("Community trending checkpointed: {} films", rows.size());
+        } catch (RuntimeException e) {
+            logger.error("Checkpointing community trending failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    /** One film's score as of {@code at} (epoch millis). */
+    private final class Score {
+        private double value;
+        private long at;
+        private String title;
+        private String posterPath;
+
+        Score(double value, long at, String title, String posterPath) {
+            this.value = value;
+            this.at = at;
+            this.title = title;
+            this.posterPath = posterPath;
+        }
+
+        synchronized void add(double weight, long now, String title, String posterPath) {
+            value = decayed(now) + weight;
+            at = Math.max(at, now);
+            if (title != null) this.title = title;
+            if (posterPath != null) this.posterPath = posterPath;
+        }
+
+        synchronized Trending at(String movieId, long now) {
+            return new Trending(movieId, decayed(now), title, posterPath);
+        }
+
+        private double decayed(long now) {
+            return now <= at ? value : value * Math.exp(-decayPerMilli * (now - at));
+        }
+    }
+}
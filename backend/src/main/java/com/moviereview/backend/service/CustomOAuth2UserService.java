@@ -19,9 +19,14 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomOAuth2UserService.class);
     private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final UserSearchIndex userSearchIndex;
 
-    public CustomOAuth2UserService(UserRepository userRepository) {
+    public CustomOAuth2UserService(UserRepository userRepository, UserStatsService userStatsService,
+            UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
+        this.userStatsService = userStatsService;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @Override
@@ -66,6 +71,8 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             newUser.setAvatarUrl(picture);
             try {
                 User savedUser = userRepository.save(newUser);
+                userStatsService.onRegistered(savedUser.getId());
+                userSearchIndex.put(savedUser);
                 System.out.println("DEBUG: User saved successfully. ID: " + savedUser.getId());
             } catch (Exception e) {
                 System.out.println("DEBUG: Failed to save user: " + e.getMessage());
@@ -80,6 +87,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             user.setProvider(provider);
             user.setProviderId(providerId);
             userRepository.save(user);
+            userSearchIndex.put(user);
         }
     }
 }
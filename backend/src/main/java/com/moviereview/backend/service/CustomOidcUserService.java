@@ -16,9 +16,14 @@ import com.moviereview.backend.repository.UserRepository;
 public class CustomOidcUserService extends OidcUserService {
 
     private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final UserSearchIndex userSearchIndex;
 
-    public CustomOidcUserService(UserRepository userRepository) {
+    public CustomOidcUserService(UserRepository userRepository, UserStatsService userStatsService,
+            UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
+        this.userStatsService = userStatsService;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @Override
@@ -58,6 +63,8 @@ public class CustomOidcUserService extends OidcUserService {
             newUser.setAvatarUrl(picture);
             try {
                 User savedUser = userRepository.save(newUser);
+                userStatsService.onRegistered(savedUser.getId());
+                userSearchIndex.put(savedUser);
                 System.out.println("DEBUG: User saved successfully. ID: " + savedUser.getId());
             } catch (Exception e) {
                 System.out.println("DEBUG: Failed to save user: " + e.getMessage());
@@ -72,6 +79,7 @@ public class CustomOidcUserService extends OidcUserService {
             user.setProvider(provider);
             user.setProviderId(providerId);
             userRepository.save(user);
+            userSearchIndex.put(user);
         }
         
         return oidcUser;
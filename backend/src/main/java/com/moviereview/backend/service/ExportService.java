@@ -0,0 +1,193 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.Like;
+import com.moviereview.backend.model.Review;
+import com.moviereview.backend.model.Watched;
+import com.moviereview.backend.model.Watchlist;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.repository.WatchlistRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's diary data row by row as it is read from a JDBC cursor.
+ * Every row is detached once written, so memory stays flat regardless of
+ * how many entries the user has.
+ */
+@Service
+public class ExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    public static final List<String> KINDS = List.of("reviews", "likes", "watched", "watchlist");
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String[] REVIEW_COLUMNS = { "id", "movieId", "movieTitle", "movieYear", "rating",
+            "watchedDate", "rewatch", "containsSpoiler", "ratingOnly", "content", "createdAt" };
+
+    private static final String[] ENTRY_COLUMNS = { "id", "movieId", "movieTitle", "releaseDate", "voteAverage",
+            "posterPath", "createdAt" };
+
+    private final ReviewRepository reviewRepository;
+    private final LikeRepository likeRepository;
+    private final WatchedRepository watchedRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ActivityWriteBuffer writeBuffer;
+
+    public ExportService(ReviewRepository reviewRepository, LikeRepository likeRepository,
+            WatchedRepository watchedRepository, WatchlistRepository watchlistRepository,
+            EntityManager entityManager, ObjectMapper objectMapper, ActivityWriteBuffer writeBuffer) {
+        this.reviewRepository = reviewRepository;
+        this.likeRepository = likeRepository;
+        this.watchedRepository = watchedRepository;
+        this.watchlistRepository = watchlistRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.writeBuffer = writeBuffer;
+    }
+
+    /**
+     * Streams one kind of entry ("reviews", "likes", "watched", "watchlist"),
+     * or every kind when {@code kind} is "all" (NDJSON only, each line tagged
+     * with its type).
+     */
+    @Transactional(readOnly = true)
+    public void export(Long userId, String kind, Format format, Writer out) throws IOException {
+        writeBuffer.flushUser(userId);
+        if ("all".equals(kind)) {
+            for (String k : KINDS) {
+                writeKind(userId, k, format, out, true);
+            }
+        } else {
+            writeKind(userId, kind, format, out, false);
+        }
+        out.flush();
+    }
+
+    private void writeKind(Long userId, String kind, Format format, Writer out, boolean tagged) throws IOException {
+        switch (kind) {
+            case "reviews" -> {
+                try (Stream<Review> rows = reviewRepository.streamByUserIdOrderByCreatedAtAscIdAsc(userId)) {
+                    writeRows(rows, kind, REVIEW_COLUMNS, this::reviewValues, format, out, tagged);
+                }
+            }
+            case "likes" -> {
+                try (Stream<Like> rows = likeRepository.streamByUserIdOrderByCreatedAtAscIdAsc(userId)) {
+                    writeRows(rows, kind, ENTRY_COLUMNS, l -> entryValues(l.getId(), l.getMovieId(), l.getMovieTitle(),
+                            l.getReleaseDate(), l.getVoteAverage(), l.getPosterPath(), l.getCreatedAt()),
+                            format, out, tagged);
+                }
+            }
+            case "watched" -> {
+                try (Stream<Watched> rows = watchedRepository.streamByUserIdOrderByCreatedAtAscIdAsc(userId)) {
+                    writeRows(rows, kind, ENTRY_COLUMNS, w -> entryValues(w.getId(), w.getMovieId(), w.getMovieTitle(),
+                            w.getReleaseDate(), w.getVoteAverage(), w.getPosterPath(), w.getCreatedAt()),
+                            format, out, tagged);
+                }
+            }
+            case "watchlist" -> {
+                try (Stream<Watchlist> rows = watchlistRepository.streamByUserIdOrderByCreatedAtAscIdAsc(userId)) {
+                    writeRows(rows, kind, ENTRY_COLUMNS, w -> entryValues(w.getId(), w.getMovieId(), w.getMovieTitle(),
+                            w.getReleaseDate(), w.getVoteAverage(), w.getPosterPath(), w.getCreatedAt()),
+                            format, out, tagged);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown export kind: " + kind);
+        }
+    }
+
+    private <T> void writeRows(Stream<T> rows, String type, String[] columns, Function<T, Object[]> values,
+            Format format, Writer out, boolean tagged) throws IOException {
+        if (format == Format.CSV) {
+            writeCsvLine(out, columns);
+        }
+        int written = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            T row = it.next();
+            Object[] v = values.apply(row);
+            entityManager.detach(row);
+            if (format == Format.CSV) {
+                writeCsvLine(out, v);
+            } else {
+                Map<String, Object> line = new LinkedHashMap<>();
+                if (tagged) line.put("type", type);
+                for (int i = 0; i < columns.length; i++) {
+                    line.put(columns[i], v[i]);
+                }
+                out.write(objectMapper.writeValueAsString(line));
+                out.write('\n');
+            }
+            if (++written % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+    }
+
+    private Object[] reviewValues(Review r) {
+        return new Object[] { r.getId(), r.getMovieId(), r.getMovieTitle(), r.getMovieYear(), r.getRating(),
+                str(r.getWatchedDate()), r.isRewatch(), r.isContainsSpoiler(), r.isRatingOnly(), r.getContent(),
+                str(r.getCreatedAt()) };
+    }
+
+    private Object[] entryValues(Long id, String movieId, String title, String releaseDate, Double voteAverage,
+            String posterPath, Object createdAt) {
+        return new Object[] { id, movieId, title, releaseDate, voteAverage, posterPath, str(createdAt) };
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static void writeCsvLine(Writer out, Object[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                if (values[i] != null) out.write(csvCell(values[i]));
+            }
+            out.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Text that a spreadsheet would read as a formula (leading =, +, -, @,
+     * tab or carriage return) is prefixed with an apostrophe so opening the
+     * export never runs anything. Numbers and booleans are written as is.
+     */
+    static String csvCell(Object value) {
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        return csvEscape(text);
+    }
+
+    static String csvEscape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
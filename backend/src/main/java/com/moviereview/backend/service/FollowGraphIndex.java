@@ -0,0 +1,127 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory adjacency index of the follow graph, loaded once from
+ * {@code user_followers} and kept current by the follow/unfollow endpoints.
+ * <p>
+ * Each user maps to a sorted {@code long[]} of neighbour ids in both
+ * directions. Counts are array lengths, membership is a binary search, and
+ * arrays are replaced copy-on-write so readers never see a partial update.
+ */
+@Service
+public class FollowGraphIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowGraphIndex.class);
+    private static final long[] EMPTY = new long[0];
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    /** userId -> sorted ids of users who follow them */
+    private final Map<Long, long[]> followers = new ConcurrentHashMap<>();
+    /** userId -> sorted ids of users they follow */
+    private final Map<Long, long[]> following = new ConcurrentHashMap<>();
+
+    public FollowGraphIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<Long, SortedLongs.Builder> followersBuild = new HashMap<>();
+        Map<Long, SortedLongs.Builder> followingBuild = new HashMap<>();
+        long edges = readOnlyTx.execute(status -> {
+            long count = 0;
+            try (Stream<Object[]> rows = userRepository.streamFollowEdges()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    long userId = ((Number) row[0]).longValue();
+                    long followerId = ((Number) row[1]).longValue();
+                    followersBuild.computeIfAbsent(userId, k -> new SortedLongs.Builder()).add(followerId);
+                    followingBuild.computeIfAbsent(followerId, k -> new SortedLongs.Builder()).add(userId);
+                    count++;
+                }
+            }
+            return count;
+        });
+        followers.clear();
+        following.clear();
+        followersBuild.forEach((id, adj) -> followers.put(id, adj.toSortedArray()));
+        followingBuild.forEach((id, adj) -> following.put(id, adj.toSortedArray()));
+        logger.info("Follow graph loaded: {} edges, {} users with followers", edges, followers.size());
+    }
+
+    public int followerCount(long userId) {
+        return followers.getOrDefault(userId, EMPTY).length;
+    }
+
+    public int followingCount(long userId) {
+        return following.getOrDefault(userId, EMPTY).length;
+    }
+
+    public boolean isFollowing(long followerId, long userId) {
+        return Arrays.binarySearch(following.getOrDefault(followerId, EMPTY), userId) >= 0;
+    }
+
+    /** Ids of the users {@code userId} follows, ascending. The caller owns the returned array. */
+    public long[] followingIds(long userId) {
+        return following.getOrDefault(userId, EMPTY).clone();
+    }
+
+    /** Ids of the users following {@code userId}, ascending. The caller owns the returned array. */
+    public long[] followerIds(long userId) {
+        return followers.getOrDefault(userId, EMPTY).clone();
+    }
+
+    /** Users who follow at least one other user, ascending. */
+    public long[] usersFollowingSomeone() {
+        return following.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /** Users with at least one follower, ascending. */
+    public long[] usersWithFollowers() {
+        return followers.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    /** The live adjacency array; replaced rather than mutated, so safe to read but never to modify. */
+    long[] followingView(long userId) {
+        return following.getOrDefault(userId, EMPTY);
+    }
+
+    /** How many of {@code sortedIds} follow {@code userId}; a merge over both sorted arrays. */
+    public int countFollowersAmong(long userId, long[] sortedIds) {
+        long[] ids = followers.getOrDefault(userId, EMPTY);
+        int i = 0, j = 0, common = 0;
+        while (i < ids.length && j < sortedIds.length) {
+            if (ids[i] < sortedIds[j]) i++;
+            else if (ids[i] > sortedIds[j]) j++;
+            else { common++; i++; j++; }
+        }
+        return common;
+    }
+
+    public void follow(long followerId, long userId) {
+        followers.compute(userId, (k, ids) -> SortedLongs.insert(ids, followerId));
+        following.compute(followerId, (k, ids) -> SortedLongs.insert(ids, userId));
+    }
+
+    public void unfollow(long followerId, long userId) {
+        followers.computeIfPresent(userId, (k, ids) -> SortedLongs.remove(ids, followerId));
+        following.computeIfPresent(followerId, (k, ids) -> SortedLongs.remove(ids, userId));
+    }
+}
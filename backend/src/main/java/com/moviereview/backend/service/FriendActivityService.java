@@ -0,0 +1,52 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the people a user follows have done with one movie, for the movie
+ * page. Answered by a single query over the three activity tables and
+ * cached for a few seconds per (viewer, movie) so refreshes and
+ * back-navigation do not hit the database again.
+ */
+@Service
+public class FriendActivityService {
+
+    private static final String[] STATUSES = { "LIKED", "WATCHED", "WATCHLIST" };
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    private final TtlCache<String, List<Map<String, Object>>> cache;
+
+    public FriendActivityService(UserRepository userRepository,
+            @Value("${friend-activity.cache-ttl-ms:30000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.cache = new TtlCache<>(MAX_ENTRIES, ttlMillis);
+    }
+
+    /** One entry per followed user with activity, strongest status first (like > watched > watchlist). */
+    public List<Map<String, Object>> activity(Long viewerId, String movieId) {
+        String key = viewerId + ":" + movieId;
+        List<Map<String, Object>> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : userRepository.findFriendActivity(viewerId, movieId)) {
+            result.add(Map.of(
+                    "userId", ((Number) row[0]).longValue(),
+                    "name", row[1] != null ? row[1] : "",
+                    "avatarUrl", row[2] != null ? row[2] : "",
+                    "status", STATUSES[((Number) row[3]).intValue() - 1]));
+        }
+        List<Map<String, Object>> value = List.copyOf(result);
+        cache.put(key, value);
+        return value;
+    }
+}
@@ -0,0 +1,103 @@
+package com.moviereview.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the response of a POST that a client retries with the same
+ * {@code Idempotency-Key} header, so a retried toggle is not applied (or
+ * rejected as a duplicate) a second time. Keys are scoped to the user and
+ * remembered for a while after the request's transaction commits; a request
+ * that rolls back or ends in a 5xx forgets its key so the retry runs again.
+ */
+@Service
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final int MAX_ENTRIES = 50_000;
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotentRequests(@Value("${idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Runs {@code action} once per (user, key). Without a key it simply runs.
+     * A second request with a key still in flight gets 409.
+     */
+    public ResponseEntity<?> execute(Long userId, String key, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = userId + ":" + key;
+        long now = System.currentTimeMillis();
+        Entry pending = new Entry(null, Long.MAX_VALUE);
+        Entry existing = entries.putIfAbsent(id, pending);
+        if (existing != null && existing.expiresAt <= now && entries.replace(id, existing, pending)) {
+            existing = null;
+        }
+        if (existing != null) {
+            if (existing.response == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this " + HEADER
+                        + " is still in progress");
+            }
+            return existing.response;
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(id, pending);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.remove(id, pending);
+            return response;
+        }
+        Entry done = new Entry(response, now + ttlMillis);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        record(id, pending, done);
+                    } else {
+                        entries.remove(id, pending);
+                    }
+                }
+            });
+        } else {
+            record(id, pending, done);
+        }
+        return response;
+    }
+
+    private void record(String id, Entry pending, Entry done) {
+        if (entries.size() >= MAX_ENTRIES) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> e.expiresAt <= now);
+        }
+        entries.replace(id, pending, done);
+    }
+
+    private record Entry(ResponseEntity<?> response, long expiresAt) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.moviereview.backend.service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Single-row writes that stay correct when two requests race on the same
+ * unique key. They go through JDBC rather than a repository so a duplicate
+ * key can be caught without marking the surrounding JPA transaction
+ * rollback-only.
+ */
+public final class JdbcWrites {
+
+    private JdbcWrites() {
+    }
+
+    /** Runs the INSERT and returns its row count, or 0 when the key already exists. */
+    public static int insertIfAbsent(JdbcTemplate jdbcTemplate, String insertSql, Object... args) {
+        try {
+            return jdbcTemplate.update(insertSql, args);
+        } catch (DuplicateKeyException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Runs the UPDATE, and the INSERT when no row matched. If a concurrent
+     * request inserts the row first, the UPDATE is applied to its row.
+     */
+    public static void upsert(JdbcTemplate jdbcTemplate, String updateSql, Object[] updateArgs,
+            String insertSql, Object[] insertArgs) {
+        if (jdbcTemplate.update(updateSql, updateArgs) > 0) {
+            return;
+        }
+        if (insertIfAbsent(jdbcTemplate, insertSql, insertArgs) == 0) {
+            jdbcTemplate.update(updateSql, updateArgs);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.repository.MovieListRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The public lists browse page: one page of list rows at a time, newest or
+ * most viewed first, each straight off its index. Detail page views are
+ * counted in memory and added to {@code view_count} in one batch every
+ * so often, so viewing a list never writes on the request path.
+ */
+@Service
+public class ListBrowseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListBrowseService.class);
+
+    private final MovieListRepository movieListRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+    /** listId -> views not yet written; merge and remove are atomic per key, so none is lost */
+    private final Map<Long, Long> pendingViews = new ConcurrentHashMap<>();
+
+    public ListBrowseService(MovieListRepository movieListRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.movieListRepository = movieListRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** One page of public lists, or null for an unknown sort. */
+    public Slice<MovieList> browse(String sort, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return switch (sort) {
+            case "recent" -> movieListRepository.findByIsPublicTrueOrderByCreatedAtDescIdDesc(pageable);
+            case "popular" -> movieListRepository.findByIsPublicTrueOrderByViewCountDescIdDesc(pageable);
+            default -> null;
+        };
+    }
+
+    public void recordView(long listId) {
+        pendingViews.merge(listId, 1L, Long::sum);
+    }
+
+    @Scheduled(initialDelayString = "${lists.view-flush-interval-ms:30000}",
+            fixedDelayString = "${lists.view-flush-interval-ms:30000}")
+    public void flushViews() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : pendingViews.keySet()) {
+            Long views = pendingViews.remove(id);
+            if (views != null) batch.add(new Object[] { views, id });
+        }
+        if (batch.isEmpty()) return;
+        try {
+            newTx.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("UPDATE movie_lists SET view_count = view_count + ? WHERE id = ?", batch));
+        } catch (RuntimeException e) {
+            // Put them back for the next flush
+            batch.forEach(row -> pendingViews.merge((Long) row[1], (Long) row[0], Long::sum));
+            logger.error("Flushing {} list view counts failed", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushViews();
+    }
+}
@@ -0,0 +1,418 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.model.MovieListItem;
+import com.moviereview.backend.repository.MovieListItemRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The films of a list as {@code movie_list_items} rows ordered by a sparse
+ * rank. New ranks go halfway between the neighbours, so inserting, moving
+ * or removing a film writes that one row; a list is renumbered only when
+ * two neighbours have run out of room. A full replacement (the editor's
+ * save) is diffed against the stored order and writes only the rows that
+ * were added, removed or actually moved.
+ */
+@Service
+public class ListItemService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListItemService.class);
+    /** Spacing between neighbours after a renumber or at the ends of a list. */
+    static final long GAP = 1L << 20;
+    private static final int DELETE_CHUNK = 500;
+    private static final int MIGRATE_BATCH = 200;
+
+    private static final String INSERT = "INSERT INTO movie_list_items (list_id, movie_id, item_rank) VALUES (?, ?, ?)";
+    private static final String MOVE = "UPDATE movie_list_items SET item_rank = ? WHERE list_id = ? AND movie_id = ?";
+
+    public enum OpType { INSERT, MOVE, REMOVE }
+
+    /** A {@code rank,id} keyset cursor: the id orders films that share a rank. */
+    public record Cursor(long rank, long id) {
+
+        /** The cursor of a {@code nextCursor} string, or null for the first page. */
+        public static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) return null;
+            int comma = cursor.lastIndexOf(',');
+            try {
+                return new Cursor(Long.parseLong(cursor.substring(0, comma)),
+                        Long.parseLong(cursor.substring(comma + 1)));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        public static String of(MovieListItem item) {
+            return item.getRank() + "," + item.getId();
+        }
+    }
+
+    /**
+     * One positional edit. The film goes right after {@code after}, or at the
+     * 0-based position {@code index} of the result; with neither it goes last.
+     */
+    public record Op(OpType type, String movieId, String after, Integer index) {
+    }
+
+    private final MovieListItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final MovieListIndex movieListIndex;
+    private final TransactionTemplate newTx;
+
+    public ListItemService(MovieListItemRepository itemRepository, JdbcTemplate jdbcTemplate,
+            EntityManager entityManager, MovieListIndex movieListIndex,
+            PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.movieListIndex = movieListIndex;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<String> movieIds(long listId) {
+        return itemRepository.findMovieIds(listId, Pageable.unpaged());
+    }
+
+    /** Every film of each given list, in order, with one query. */
+    public Map<Long, List<String>> movieIds(Collection<Long> listIds) {
+        Map<Long, List<String>> byList = new HashMap<>();
+        if (listIds.isEmpty()) return byList;
+        for (Object[] row : itemRepository.findMovieIdsByListIds(listIds)) {
+            byList.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return byList;
+    }
+
+    /** Up to {@code limit} films after the cursor, or from the top without one. */
+    public List<MovieListItem> page(long listId, Cursor after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        return after == null
+                ? itemRepository.findByListIdOrderByRankAscIdAsc(listId, pageable)
+                : itemRepository.findPageAfter(listId, after.rank(), after.id(), pageable);
+    }
+
+    /**
+     * Makes the list hold exactly {@code movieIds} in that order and returns
+     * the films that were not in it before. The films whose stored ranks are
+     * already in the wanted order (the longest such run) stay where they are;
+     * everything else is placed in the gaps between them.
+     */
+    @Transactional
+    public List<String> replaceAll(MovieList list, List<String> movieIds) {
+        long listId = list.getId();
+        List<String> wanted = new ArrayList<>(new LinkedHashSet<>(movieIds));
+        wanted.removeIf(Objects::isNull);
+        Map<String, Long> current = new HashMap<>();
+        for (Object[] row : itemRepository.findRanks(listId)) {
+            current.put((String) row[0], (Long) row[1]);
+        }
+
+        Set<String> keep = new HashSet<>(wanted);
+        List<String> removed = current.keySet().stream().filter(id -> !keep.contains(id)).toList();
+        for (int from = 0; from < removed.size(); from += DELETE_CHUNK) {
+            itemRepository.deleteByListIdAndMovieIdIn(listId,
+                    removed.subList(from, Math.min(from + DELETE_CHUNK, removed.size())));
+        }
+
+        long[] ranks = place(wanted, current);
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> moves = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < wanted.size(); i++) {
+            String movieId = wanted.get(i);
+            Long old = current.get(movieId);
+            if (old == null) {
+                inserts.add(new Object[] { listId, movieId, ranks[i] });
+                added.add(movieId);
+            } else if (old != ranks[i]) {
+                moves.add(new Object[] { ranks[i], listId, movieId });
+            }
+        }
+        if (!moves.isEmpty()) jdbcTemplate.batchUpdate(MOVE, moves);
+        if (!inserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT, inserts);
+
+        list.setFilmCount(wanted.size());
+        list.setPreviewMovieIds(preview(wanted));
+        if (list.isPublic()) {
+            movieListIndex.onMembershipChanged(added, 1);
+            movieListIndex.onMembershipChanged(removed, -1);
+        }
+        return added;
+    }
+
+    /** Applies positional edits in order and returns the films inserted. */
+    @Transactional
+    public List<String> apply(MovieList list, List<Op> ops) {
+        long listId = list.getId();
+        List<String> added = new ArrayList<>();
+        Set<String> removed = new LinkedHashSet<>();
+        int delta = 0;
+        for (Op op : ops) {
+            if (op == null || op.type() == null || op.movieId() == null || op.movieId().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each op needs a type and a movieId");
+            }
+            if (op.index() != null && op.index() < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "index must not be negative");
+            }
+            String movieId = op.movieId();
+            boolean present = itemRepository.findRank(listId, movieId).isPresent();
+            switch (op.type()) {
+                case INSERT -> {
+                    if (present) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT, "Already in the list: " + movieId);
+                    }
+                    jdbcTemplate.update(INSERT, listId, movieId, slot(listId, op.after(), op.index(), ""));
+                    if (!removed.remove(movieId)) added.add(movieId);
+                    delta++;
+                }
+                case MOVE -> {
+                    if (!present) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not in the list: " + movieId);
+                    }
+                    jdbcTemplate.update(MOVE, slot(listId, op.after(), op.index(), movieId), listId, movieId);
+                }
+                case REMOVE -> {
+                    if (!present) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not in the list: " + movieId);
+                    }
+                    itemRepository.deleteByListIdAndMovieIdIn(listId, List.of(movieId));
+                    if (!added.remove(movieId)) removed.add(movieId);
+                    delta--;
+                }
+            }
+        }
+        list.setFilmCount(list.getFilmCount() + delta);
+        list.setPreviewMovieIds(preview(itemRepository.findMovieIds(listId, PageRequest.of(0, MovieList.PREVIEW_FILMS))));
+        if (list.isPublic()) {
+            movieListIndex.onMembershipChanged(added, 1);
+            movieListIndex.onMembershipChanged(removed, -1);
+        }
+        return added;
+    }
+
+    /** The list was made public or private; every film's list count moves with it. */
+    @Transactional
+    public void visibilityChanged(MovieList list) {
+        movieListIndex.onMembershipChanged(movieIds(list.getId()), list.isPublic() ? 1 : -1);
+    }
+
+    @Transactional
+    public void deleteAll(MovieList list) {
+        List<String> movieIds = list.isPublic() ? movieIds(list.getId()) : List.of();
+        itemRepository.deleteByListId(list.getId());
+        movieListIndex.onMembershipChanged(movieIds, -1);
+    }
+
+    /** A free rank for a film placed as the op asks, not counting {@code except}'s own row. */
+    private long slot(long listId, String after, Integer index, String except) {
+        for (int attempt = 0; ; attempt++) {
+            Long lo;
+            Long hi;
+            if (after != null) {
+                if (after.equals(except)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A film cannot follow itself");
+                }
+                lo = itemRepository.findRank(listId, after).orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not in the list: " + after));
+                hi = itemRepository.findNextRank(listId, lo, except);
+            } else if (index != null && index == 0) {
+                lo = null;
+                List<Long> first = ranksFrom(listId, 0, 1, except);
+                hi = first.isEmpty() ? null : first.get(0);
+            } else if (index != null) {
+                // The films that will sit at index - 1 and index once this one is in place
+                List<Long> around = ranksFrom(listId, index - 1, 2, except);
+                lo = around.isEmpty() ? itemRepository.findLastRank(listId, except) : around.get(0);
+                hi = around.size() > 1 ? around.get(1) : null;
+            } else {
+                lo = itemRepository.findLastRank(listId, except);
+                hi = null;
+            }
+            Long rank = between(lo, hi);
+            if (rank != null) return rank;
+            if (attempt > 0) {
+                throw new IllegalStateException("No room between ranks of list " + listId + " after renumbering");
+            }
+            renumber(listId);
+        }
+    }
+
+    private List<Long> ranksFrom(long listId, int offset, int count, String except) {
+        return entityManager.createQuery("SELECT i.rank FROM MovieListItem i"
+                        + " WHERE i.listId = :listId AND i.movieId <> :except ORDER BY i.rank", Long.class)
+                .setParameter("listId", listId)
+                .setParameter("except", except)
+                .setFirstResult(offset)
+                .setMaxResults(count)
+                .getResultList();
+    }
+
+    /** A rank strictly between the two (either end open), or null when they are adjacent. */
+    static Long between(Long lo, Long hi) {
+        if (lo == null && hi == null) return GAP;
+        if (lo == null) return hi - GAP;
+        if (hi == null) return lo + GAP;
+        return hi - lo >= 2 ? lo + (hi - lo) / 2 : null;
+    }
+
+    /** Spreads a list back out to {@link #GAP} spacing, keeping its order. */
+    private void renumber(long listId) {
+        List<Object[]> rows = itemRepository.findRanks(listId);
+        List<Object[]> moves = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            moves.add(new Object[] { (i + 1) * GAP, listId, rows.get(i)[0] });
+        }
+        jdbcTemplate.batchUpdate(MOVE, moves);
+        logger.debug("Renumbered {} films of list {}", rows.size(), listId);
+    }
+
+    /**
+     * Ranks for {@code wanted} in order. Films already in the list whose ranks
+     * form the longest increasing run keep them; the rest are spaced evenly
+     * in the gaps. If some gap is too small, the whole list is renumbered.
+     */
+    static long[] place(List<String> wanted, Map<String, Long> current) {
+        int n = wanted.size();
+        long[] old = new long[n];
+        boolean[] known = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Long rank = current.get(wanted.get(i));
+            if (rank != null) {
+                old[i] = rank;
+                known[i] = true;
+            }
+        }
+        boolean[] anchor = longestIncreasing(old, known);
+        long[] ranks = new long[n];
+        Long prev = null;
+        int i = 0;
+        while (i < n) {
+            if (anchor[i]) {
+                ranks[i] = old[i];
+                prev = old[i];
+                i++;
+                continue;
+            }
+            int j = i;
+            while (j < n && !anchor[j]) j++;
+            Long next = j < n ? old[j] : null;
+            int count = j - i;
+            if (prev != null && next != null) {
+                if (next - prev - 1 < count) {
+                    for (int k = 0; k < n; k++) ranks[k] = (k + 1) * GAP;
+                    return ranks;
+                }
+                long step = (next - prev) / (count + 1);
+                for (int k = 0; k < count; k++) ranks[i + k] = prev + step * (k + 1);
+            } else if (next != null) {
+                for (int k = 0; k < count; k++) ranks[i + k] = next - (count - k) * GAP;
+            } else {
+                long base = prev != null ? prev : 0;
+                for (int k = 0; k < count; k++) ranks[i + k] = base + (k + 1) * GAP;
+            }
+            i = j;
+        }
+        return ranks;
+    }
+
+    /** Marks one longest strictly increasing subsequence of the known values (patience sorting). */
+    private static boolean[] longestIncreasing(long[] values, boolean[] known) {
+        int n = values.length;
+        int[] tails = new int[n];
+        int[] parent = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            if (!known[i]) continue;
+            int lo = 0, hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[tails[mid]] < values[i]) lo = mid + 1;
+                else hi = mid;
+            }
+            parent[i] = lo > 0 ? tails[lo - 1] : -1;
+            tails[lo] = i;
+            if (lo == length) length++;
+        }
+        boolean[] marked = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = parent[i]) marked[i] = true;
+        return marked;
+    }
+
+    private static String preview(List<String> movieIds) {
+        return String.join(",", movieIds.subList(0, Math.min(MovieList.PREVIEW_FILMS, movieIds.size())));
+    }
+
+    /**
+     * Moves lists saved as the old unordered {@code movie_list_films}
+     * collection into ranked items, keeping their order, and fills the
+     * browse summary of every list that has none yet.
+     */
+    @PostConstruct
+    public void migrateLegacyFilms() {
+        List<Long> listIds;
+        try {
+            listIds = jdbcTemplate.queryForList("SELECT DISTINCT list_id FROM movie_list_films", Long.class);
+        } catch (DataAccessException e) {
+            // Installs that started with ranked items never had the old table
+            listIds = List.of();
+        }
+        for (int from = 0; from < listIds.size(); from += MIGRATE_BATCH) {
+            List<Long> batch = listIds.subList(from, Math.min(from + MIGRATE_BATCH, listIds.size()));
+            String marks = String.join(",", Collections.nCopies(batch.size(), "?"));
+            newTx.executeWithoutResult(status -> {
+                Map<Long, List<String>> films = new LinkedHashMap<>();
+                jdbcTemplate.query("SELECT list_id, movie_id FROM movie_list_films WHERE list_id IN (" + marks + ")",
+                        rs -> {
+                            films.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+                        }, batch.toArray());
+                List<Object[]> inserts = new ArrayList<>();
+                List<Object[]> summaries = new ArrayList<>();
+                films.forEach((listId, ids) -> {
+                    List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+                    distinct.removeIf(Objects::isNull);
+                    for (int i = 0; i < distinct.size(); i++) {
+                        inserts.add(new Object[] { listId, distinct.get(i), (i + 1) * GAP });
+                    }
+                    summaries.add(new Object[] { distinct.size(), preview(distinct), listId });
+                });
+                jdbcTemplate.batchUpdate(INSERT, inserts);
+                jdbcTemplate.batchUpdate("UPDATE movie_lists SET film_count = ?, preview_movie_ids = ? WHERE id = ?",
+                        summaries);
+                jdbcTemplate.update("DELETE FROM movie_list_films WHERE list_id IN (" + marks + ")", batch.toArray());
+            });
+        }
+        int empty = jdbcTemplate.update(
+                "UPDATE movie_lists SET film_count = 0, preview_movie_ids = '' WHERE preview_movie_ids IS NULL");
+        if (!listIds.isEmpty() || empty > 0) {
+            logger.info("Moved {} lists to ranked items; {} empty lists given a summary", listIds.size(), empty);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.BackfillMark;
+import com.moviereview.backend.model.ListTag;
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.repository.BackfillMarkRepository;
+import com.moviereview.backend.repository.ListTagPostingRepository;
+import com.moviereview.backend.repository.ListTagRepository;
+import com.moviereview.backend.repository.MovieListRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * List tags as a normalized index. The free-form {@code tags} string of a
+ * list is parsed into {@code list_tags} rows, with one posting per list and
+ * tag in {@code list_tag_postings}. Each tag's count of public lists moves
+ * incrementally as lists are tagged, retagged, made public or private and
+ * deleted, so browsing by tag and the tag facet never split a string.
+ */
+@Service
+public class ListTagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListTagService.class);
+    /** Tags beyond this many on one list are ignored by the index. */
+    static final int MAX_TAGS = 20;
+    private static final int BACKFILL_BATCH = 200;
+    private static final String BACKFILL = "list-tags";
+
+    private static final String ADD = "UPDATE list_tags SET list_count = list_count + ? WHERE id = ?";
+    private static final String POST = "INSERT INTO list_tag_postings (tag_id, list_id, is_public, list_created_at) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TAG = "INSERT INTO list_tags (name, list_count) VALUES (?, 0)";
+    private static final String MARK = "UPDATE backfill_marks SET last_id = ? WHERE name = ?";
+    private static final String INSERT_MARK = "INSERT INTO backfill_marks (name, last_id) VALUES (?, ?)";
+
+    private final ListTagRepository tagRepository;
+    private final ListTagPostingRepository postingRepository;
+    private final MovieListRepository movieListRepository;
+    private final BackfillMarkRepository markRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+
+    public ListTagService(ListTagRepository tagRepository, ListTagPostingRepository postingRepository,
+            MovieListRepository movieListRepository, BackfillMarkRepository markRepository,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.postingRepository = postingRepository;
+        this.movieListRepository = movieListRepository;
+        this.markRepository = markRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Trimmed, lower-cased, de-duplicated tags of a comma-separated string, in order. */
+    public static List<String> parse(String tags) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tags == null) return List.of();
+        for (String raw : tags.split(",")) {
+            String name = raw.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            names.add(name.length() > ListTag.MAX_LENGTH ? name.substring(0, ListTag.MAX_LENGTH).trim() : name);
+            if (names.size() == MAX_TAGS) break;
+        }
+        return new ArrayList<>(names);
+    }
+
+    /** A page of the tag's public lists, newest first; empty for a tag no list carries. */
+    public Slice<MovieList> browse(String tag, int page, int size) {
+        List<String> names = parse(tag);
+        PageRequest pageable = PageRequest.of(page, size);
+        ListTag found = names.isEmpty() ? null : tagRepository.findByName(names.get(0)).orElse(null);
+        if (found == null) return new SliceImpl<>(List.of(), pageable, false);
+        return postingRepository.findPublicLists(found.getId(), pageable);
+    }
+
+    /** The most used tags across public lists. */
+    public List<ListTag> facets(int limit) {
+        return tagRepository.findByListCountGreaterThanOrderByListCountDescNameAsc(0, PageRequest.of(0, limit));
+    }
+
+    /** Brings the list's postings in line with its {@code tags} string, writing only the differences. */
+    @Transactional
+    public void sync(MovieList list) {
+        Map<String, Long> current = new HashMap<>();
+        for (Object[] row : postingRepository.findTags(list.getId())) {
+            current.put((String) row[1], (Long) row[0]);
+        }
+        List<String> wanted = parse(list.getTags());
+        List<Long> removed = new ArrayList<>();
+        current.forEach((name, tagId) -> {
+            if (!wanted.contains(name)) removed.add(tagId);
+        });
+        List<String> added = wanted.stream().filter(name -> !current.containsKey(name)).toList();
+
+        if (!removed.isEmpty()) {
+            postingRepository.deleteByListIdAndTagIdIn(list.getId(), removed);
+            if (list.isPublic()) moveCounts(removed, -1);
+        }
+        if (!added.isEmpty()) {
+            List<Long> tagIds = tagIds(added);
+            jdbcTemplate.batchUpdate(POST, tagIds.stream()
+                    .map(tagId -> new Object[] { tagId, list.getId(), list.isPublic(), list.getCreatedAt() })
+                    .toList());
+            if (list.isPublic()) moveCounts(tagIds, 1);
+        }
+    }
+
+    /** The list was made public or private. */
+    @Transactional
+    public void visibilityChanged(MovieList list) {
+        List<Long> tagIds = postingRepository.findTags(list.getId()).stream().map(row -> (Long) row[0]).toList();
+        postingRepository.setPublic(list.getId(), list.isPublic());
+        moveCounts(tagIds, list.isPublic() ? 1 : -1);
+    }
+
+    @Transactional
+    public void deleteAll(MovieList list) {
+        List<Long> tagIds = postingRepository.findTags(list.getId()).stream().map(row -> (Long) row[0]).toList();
+        if (tagIds.isEmpty()) return;
+        postingRepository.deleteByListIdAndTagIdIn(list.getId(), tagIds);
+        if (list.isPublic()) moveCounts(tagIds, -1);
+    }
+
+    /**
+     * Ids for the names, creating the tags that do not exist yet. A tag
+     * another list creates at the same moment is inserted once and read back.
+     */
+    private List<Long> tagIds(List<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (ListTag tag : tagRepository.findByNameIn(names)) ids.put(tag.getName(), tag.getId());
+        List<String> missing = names.stream().filter(name -> !ids.containsKey(name)).toList();
+        if (!missing.isEmpty()) {
+            for (String name : missing) JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT_TAG, name);
+            for (ListTag tag : tagRepository.findForUpdate(missing)) ids.put(tag.getName(), tag.getId());
+        }
+        return names.stream().map(ids::get).toList();
+    }
+
+    private void moveCounts(Collection<Long> tagIds, int delta) {
+        if (tagIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate(ADD, tagIds.stream().map(id -> new Object[] { delta, id }).toList());
+    }
+
+    /**
+     * Indexes the tags of lists saved before the tag index existed, resuming
+     * after the last list a previous run got to. Lists synced since then by
+     * their own writes are diffed to no changes.
+     */
+    @PostConstruct
+    public void backfill() {
+        long afterId = markRepository.findById(BACKFILL).map(BackfillMark::getLastId).orElse(0L);
+        int indexed = 0;
+        while (true) {
+            List<Long> ids = movieListRepository.findTaggedIdsAfter(afterId, PageRequest.of(0, BACKFILL_BATCH));
+            if (ids.isEmpty()) break;
+            long lastId = ids.get(ids.size() - 1);
+            newTx.executeWithoutResult(status -> {
+                movieListRepository.findAllById(ids).forEach(this::sync);
+                JdbcWrites.upsert(jdbcTemplate, MARK, new Object[] { lastId, BACKFILL },
+                        INSERT_MARK, new Object[] { BACKFILL, lastId });
+            });
+            indexed += ids.size();
+            afterId = lastId;
+        }
+        if (indexed > 0) {
+            logger.info("Indexed tags of {} lists", indexed);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.model.MovieListCount;
+import com.moviereview.backend.repository.MovieListCountRepository;
+import com.moviereview.backend.repository.MovieListItemRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The lists a film appears in, for the movie page. Lists containing a film
+ * are read off the (movie_id, list_id) index on {@code movie_list_items};
+ * how many public lists that is comes from {@code movie_list_counts}, moved
+ * by {@link ListItemService} in the same transaction as the items. A film
+ * without a counter row is recounted on first touch.
+ */
+@Service
+public class MovieListIndex {
+
+    private static final String ADD = "UPDATE movie_list_counts SET list_count = list_count + ? WHERE movie_id = ?";
+    private static final String INSERT = "INSERT INTO movie_list_counts (movie_id, list_count) VALUES (?, ?)";
+
+    private final MovieListCountRepository countRepository;
+    private final MovieListItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+
+    public MovieListIndex(MovieListCountRepository countRepository, MovieListItemRepository itemRepository,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.countRepository = countRepository;
+        this.itemRepository = itemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Public lists containing the film, most viewed first. */
+    public Slice<MovieList> listsContaining(String movieId, int page, int size) {
+        return itemRepository.findPublicListsContaining(movieId, PageRequest.of(page, size));
+    }
+
+    /** How many public lists the film appears in. */
+    public long count(String movieId) {
+        MovieListCount stored = countRepository.findById(movieId).orElse(null);
+        if (stored != null) return stored.getListCount();
+        long count = recount(List.of(movieId)).getOrDefault(movieId, 0L);
+        // If a list write created the row meanwhile, it is the one to keep
+        newTx.executeWithoutResult(status -> JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT, movieId, count));
+        return count;
+    }
+
+    /**
+     * The films were added to ({@code +1}) or removed from ({@code -1}) a
+     * public list. Called after the items themselves were written, so a
+     * recount of a film without a row already sees the change. If another
+     * transaction creates the row first, the change is added to that row.
+     */
+    public void onMembershipChanged(Collection<String> movieIds, int delta) {
+        if (movieIds.isEmpty() || delta == 0) return;
+        Set<String> ids = new LinkedHashSet<>(movieIds);
+        Set<String> existing = new HashSet<>(countRepository.findExistingIds(ids));
+        List<Object[]> updates = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (existing.contains(id)) updates.add(new Object[] { delta, id });
+            else missing.add(id);
+        }
+        if (!updates.isEmpty()) jdbcTemplate.batchUpdate(ADD, updates);
+        if (!missing.isEmpty()) {
+            Map<String, Long> counts = recount(missing);
+            for (String id : missing) {
+                // A reader recounting in its own transaction may have stored the row first, without this change
+                if (JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT, id, counts.getOrDefault(id, 0L)) == 0) {
+                    jdbcTemplate.update(ADD, delta, id);
+                }
+            }
+        }
+    }
+
+    private Map<String, Long> recount(Collection<String> movieIds) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : itemRepository.countPublicListsByMovieIds(movieIds)) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
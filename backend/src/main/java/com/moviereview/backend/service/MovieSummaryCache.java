@@ -0,0 +1,168 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieSummary;
+import com.moviereview.backend.repository.MovieSummaryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Titles, posters and release dates for poster grids, read from
+ * {@code movie_summaries} in one query. Films not cached yet are fetched
+ * from TMDB in parallel on a small fixed pool, each film at most once at a
+ * time however many pages ask for it, and stored for every later reader.
+ * A caller waits a bounded time; films still missing are left out and
+ * picked up by the next read.
+ */
+@Service
+public class MovieSummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MovieSummaryCache.class);
+    private static final String INSERT = "INSERT INTO movie_summaries (movie_id, title, poster_path, release_date, "
+            + "vote_average, fetched_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final MovieSummaryRepository summaryRepository;
+    private final TmdbService tmdbService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService fetchPool;
+    private final long fetchTimeoutMs;
+    private final Map<String, CompletableFuture<MovieSummary>> inflight = new ConcurrentHashMap<>();
+
+    public MovieSummaryCache(MovieSummaryRepository summaryRepository, TmdbService tmdbService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${movie-summaries.fetch-threads:6}") int fetchThreads,
+            @Value("${movie-summaries.fetch-timeout-ms:8000}") long fetchTimeoutMs) {
+        this.summaryRepository = summaryRepository;
+        this.tmdbService = tmdbService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchTimeoutMs = fetchTimeoutMs;
+        AtomicInteger threads = new AtomicInteger();
+        this.fetchPool = Executors.newFixedThreadPool(fetchThreads, r -> {
+            Thread t = new Thread(r, "movie-summary-fetch-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Summaries keyed by movie id; films TMDB could not answer for in time are absent. */
+    public Map<String, MovieSummary> get(Collection<String> movieIds) {
+        Map<String, MovieSummary> result = stored(movieIds);
+        List<CompletableFuture<MovieSummary>> pending = fetchMissing(movieIds, result);
+        if (pending.isEmpty()) return result;
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                    .get(fetchTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Movie summaries: gave up waiting on TMDB for some of {} films", pending.size());
+        } catch (ExecutionException e) {
+            // Each fetch completes with null on failure; nothing to do here
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return collect(pending, result);
+    }
+
+    /**
+     * Like {@link #get} without blocking the caller: completes once every
+     * missing film has been fetched or the fetch timeout has passed.
+     */
+    public CompletableFuture<Map<String, MovieSummary>> getAsync(Collection<String> movieIds) {
+        Map<String, MovieSummary> result = stored(movieIds);
+        List<CompletableFuture<MovieSummary>> pending = fetchMissing(movieIds, result);
+        if (pending.isEmpty()) return CompletableFuture.completedFuture(result);
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                .completeOnTimeout(null, fetchTimeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(done -> collect(pending, result));
+    }
+
+    private Map<String, MovieSummary> stored(Collection<String> movieIds) {
+        Set<String> ids = new LinkedHashSet<>(movieIds);
+        Map<String, MovieSummary> result = new HashMap<>();
+        if (!ids.isEmpty()) summaryRepository.findAllById(ids).forEach(s -> result.put(s.getMovieId(), s));
+        return result;
+    }
+
+    private List<CompletableFuture<MovieSummary>> fetchMissing(Collection<String> movieIds,
+            Map<String, MovieSummary> stored) {
+        List<CompletableFuture<MovieSummary>> pending = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(movieIds)) {
+            if (!stored.containsKey(id) && isTmdbId(id)) pending.add(fetch(id));
+        }
+        return pending;
+    }
+
+    private static Map<String, MovieSummary> collect(List<CompletableFuture<MovieSummary>> pending,
+            Map<String, MovieSummary> result) {
+        for (CompletableFuture<MovieSummary> f : pending) {
+            MovieSummary s = f.getNow(null);
+            if (s != null) result.put(s.getMovieId(), s);
+        }
+        return result;
+    }
+
+    /** The running fetch for a film, or a new one. */
+    private CompletableFuture<MovieSummary> fetch(String movieId) {
+        CompletableFuture<MovieSummary> mine = new CompletableFuture<>();
+        CompletableFuture<MovieSummary> running = inflight.putIfAbsent(movieId, mine);
+        if (running != null) return running;
+        fetchPool.execute(() -> {
+            try {
+                mine.complete(load(movieId));
+            } catch (RuntimeException e) {
+                logger.warn("Movie summary for {} failed: {}", movieId, e.getMessage());
+                mine.complete(null);
+            } finally {
+                inflight.remove(movieId, mine);
+            }
+        });
+        return mine;
+    }
+
+    private MovieSummary load(String movieId) {
+        Map<String, Object> movie = tmdbService.getMovie(movieId);
+        if (movie == null || movie.get("title") == null) return null;
+        MovieSummary summary = new MovieSummary(movieId,
+                truncate(movie.get("title").toString(), 500),
+                movie.get("poster_path") != null ? truncate(movie.get("poster_path").toString(), 255) : null,
+                movie.get("release_date") != null ? truncate(movie.get("release_date").toString(), 10) : "",
+                movie.get("vote_average") instanceof Number n ? n.doubleValue() : 0);
+        // One plain insert; if another instance stored the film first, its row is kept
+        JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT, summary.getMovieId(), summary.getTitle(),
+                summary.getPosterPath(), summary.getReleaseDate(), summary.getVoteAverage(),
+                Timestamp.valueOf(summary.getFetchedAt()));
+        return summary;
+    }
+
+    private static boolean isTmdbId(String movieId) {
+        return movieId != null && !movieId.isEmpty() && movieId.chars().allMatch(Character::isDigit);
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() > max ? value.substring(0, max) : value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchPool.shutdownNow();
+    }
+}
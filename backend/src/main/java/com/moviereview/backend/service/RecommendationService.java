@@ -0,0 +1,435 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieNeighbour;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.MovieNeighbourRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * "Because you liked X" recommendations from item-to-item collaborative
+ * filtering over likes, watched marks and ratings.
+ * <p>
+ * A daily job streams every interaction into primitive arrays keyed by
+ * dense int ids, folds each member's interactions with a film into one
+ * weight, and lays them out as a CSR matrix by member plus its transpose
+ * by film. Each film's top-{@value #K} cosine neighbours are then found
+ * with a sparse accumulator, split across a fork-join pool by ranges of
+ * films, and written to {@code movie_neighbours} in one swap.
+ * <p>
+ * A member's recommendations merge the stored neighbours of their most
+ * recent likes, entries and watched marks, weighted by recency, leaving
+ * out anything they have already seen.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+    static final int K = 30;
+    public static final int MAX_LIMIT = 50;
+    private static final int MIN_SHARED = 2;
+    /** Pulls similarities backed by few shared members towards zero. */
+    private static final double SHRINK = 5.0;
+    /** Members with more films than this are left out: they add cost and little signal. */
+    private static final int MAX_MEMBER_FILMS = 3000;
+    private static final int LEAF = 512;
+    private static final int INSERT_BATCH = 1000;
+    private static final int SEEDS = 20;
+    private static final double RECENCY = 0.9;
+
+    private static final int SEEN = 1;
+    private static final int LIKED = 2;
+    private static final int RATED = 4;
+
+    private static final String INSERT = "INSERT INTO movie_neighbours "
+            + "(movie_id, neighbour_id, score, shared, title, poster_path) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final LikeRepository likeRepository;
+    private final WatchedRepository watchedRepository;
+    private final ReviewRepository reviewRepository;
+    private final MovieNeighbourRepository neighbourRepository;
+    private final UserActivitySets activitySets;
+    private final ActivityWriteBuffer writeBuffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate newTx;
+
+    public record Recommendation(String movieId, String title, String posterPath, double score,
+            String becauseMovieId, String becauseTitle) {
+    }
+
+    public RecommendationService(LikeRepository likeRepository, WatchedRepository watchedRepository,
+            ReviewRepository reviewRepository, MovieNeighbourRepository neighbourRepository,
+            UserActivitySets activitySets, ActivityWriteBuffer writeBuffer, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.likeRepository = likeRepository;
+        this.watchedRepository = watchedRepository;
+        this.reviewRepository = reviewRepository;
+        this.neighbourRepository = neighbourRepository;
+        this.activitySets = activitySets;
+        this.writeBuffer = writeBuffer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Films close to what {@code userId} liked, logged or watched lately, best first. */
+    public List<Recommendation> recommendationsFor(long userId, int limit) {
+        writeBuffer.flushUser(userId);
+        Pageable recent = PageRequest.of(0, SEEDS);
+        List<Seed> rows = new ArrayList<>();
+        for (Object[] row : likeRepository.findRecentMovies(userId, recent)) {
+            rows.add(new Seed((String) row[0], (String) row[1], (LocalDateTime) row[2], 1.5));
+        }
+        for (Object[] row : reviewRepository.findRecentMovies(userId, recent)) {
+            double rating = ((Number) row[3]).doubleValue();
+            if (rating > 0 && rating < 3) continue;
+            rows.add(new Seed((String) row[0], (String) row[1], (LocalDateTime) row[2], rating >= 4 ? 1.5 : 1.0));
+        }
+        for (Object[] row : watchedRepository.findRecentMovies(userId, recent)) {
+            rows.add(new Seed((String) row[0], (String) row[1], (LocalDateTime) row[2], 1.0));
+        }
+        rows.sort(Comparator.comparing(Seed::at, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        // Most recent first; a film seen through several signals keeps the strongest
+        Map<String, Seed> seeds = new LinkedHashMap<>();
+        for (Seed s : rows) {
+            seeds.merge(s.movieId(), s, (a, b) -> a.weight() >= b.weight() ? a : b);
+        }
+        if (seeds.isEmpty()) return List.of();
+        Map<String, Double> seedWeights = new HashMap<>();
+        int rank = 0;
+        for (Seed s : seeds.values()) {
+            if (rank == SEEDS) break;
+            seedWeights.put(s.movieId(), s.weight() * Math.pow(RECENCY, rank++));
+        }
+
+        Map<String, Candidate> candidates = new HashMap<>();
+        for (MovieNeighbour n : neighbourRepository.findByMovieIdIn(seedWeights.keySet())) {
+            String id = n.getNeighbourId();
+            if (seeds.containsKey(id)
+                    || activitySets.contains(UserActivitySets.Kind.LIKED, userId, id)
+                    || activitySets.contains(UserActivitySets.Kind.WATCHED, userId, id)) continue;
+            double contribution = seedWeights.get(n.getMovieId()) * n.getScore();
+            Candidate c = candidates.computeIfAbsent(id, k -> new Candidate(n.getTitle(), n.getPosterPath()));
+            c.score += contribution;
+            if (contribution > c.best) {
+                c.best = contribution;
+                c.because = n.getMovieId();
+            }
+        }
+        if (candidates.isEmpty()) return List.of();
+        for (Object[] entry : reviewRepository.findEntriesIn(userId, candidates.keySet())) {
+            candidates.remove((String) entry[0]);
+        }
+
+        return candidates.entrySet().stream()
+                .sorted((a, b) -> Double.compare(b.getValue().score, a.getValue().score))
+                .limit(Math.min(limit, MAX_LIMIT))
+                .map(e -> {
+                    Candidate c = e.getValue();
+                    return new Recommendation(e.getKey(), c.title, c.posterPath, c.score, c.because,
+                            seeds.get(c.because).title());
+                })
+                .toList();
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.full.initial-delay-ms:180000}",
+            fixedDelayString = "${recommendations.full.interval-ms:86400000}",
+            scheduler = "batchScheduler")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Interactions data = readOnlyTx.execute(status -> load());
+        int interactions = data.size;
+        Matrix matrix = data.toMatrix();
+        Neighbours[] neighbours = new Neighbours[matrix.films()];
+        ForkJoinPool.commonPool().invoke(new NeighbourTask(matrix, 0, matrix.films(), neighbours));
+        int stored = store(data, neighbours);
+        logger.info("Movie neighbours rebuilt from {} interactions ({} members, {} films): {} rows in {} ms",
+                interactions, matrix.members(), matrix.films(), stored, System.currentTimeMillis() - started);
+    }
+
+    private Interactions load() {
+        Interactions data = new Interactions();
+        try (Stream<Object[]> rows = likeRepository.streamInteractions()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                data.add(row[0], (String) row[1], SEEN | LIKED, 0, (String) row[2], (String) row[3]);
+            }
+        }
+        try (Stream<Object[]> rows = watchedRepository.streamInteractions()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                data.add(row[0], (String) row[1], SEEN, 0, (String) row[2], (String) row[3]);
+            }
+        }
+        try (Stream<Object[]> rows = reviewRepository.streamInteractions()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                double rating = ((Number) row[2]).doubleValue();
+                data.add(row[0], (String) row[1], rating > 0 ? SEEN | RATED : SEEN, rating,
+                        (String) row[3], (String) row[4]);
+            }
+        }
+        return data;
+    }
+
+    /** Replaces every stored neighbour list in one transaction, inserting in JDBC batches. */
+    private int store(Interactions data, Neighbours[] neighbours) {
+        int[] written = new int[1];
+        newTx.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM movie_neighbours");
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+            for (int i = 0; i < neighbours.length; i++) {
+                Neighbours n = neighbours[i];
+                if (n == null) continue;
+                String movieId = String.valueOf(data.movieIds[i]);
+                for (int k = 0; k < n.films().length; k++) {
+                    int j = n.films()[k];
+                    batch.add(new Object[] { movieId, String.valueOf(data.movieIds[j]), (double) n.scores()[k],
+                            n.shared()[k], data.titles[j], data.posters[j] });
+                    if (batch.size() == INSERT_BATCH) {
+                        jdbcTemplate.batchUpdate(INSERT, batch);
+                        written[0] += batch.size();
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                written[0] += batch.size();
+            }
+        });
+        return written[0];
+    }
+
+    /** Any interaction counts 1, a like adds 1, and a rating moves it by up to 1 either way. */
+    private static float weight(int flags, int ratingTenths) {
+        double w = 1;
+        if ((flags & LIKED) != 0) w += 1;
+        if ((flags & RATED) != 0) w += (ratingTenths - 25) / 25.0;
+        return (float) Math.max(0.1, w);
+    }
+
+    private record Seed(String movieId, String title, LocalDateTime at, double weight) {
+    }
+
+    private static final class Candidate {
+        final String title;
+        final String posterPath;
+        double score;
+        double best;
+        String because;
+
+        Candidate(String title, String posterPath) {
+            this.title = title;
+            this.posterPath = posterPath;
+        }
+    }
+
+    /**
+     * Raw interactions as they stream in: one (member, packed film/flags/rating)
+     * pair per row, with dense ids assigned on first sight.
+     */
+    private static final class Interactions {
+        final Map<Long, Integer> memberIndex = new HashMap<>();
+        final Map<Long, Integer> filmIndex = new HashMap<>();
+        long[] movieIds = new long[1024];
+        String[] titles = new String[1024];
+        String[] posters = new String[1024];
+        int[] members = new int[1 << 16];
+        /** film << 32 | flags << 16 | rating in tenths */
+        long[] packed = new long[1 << 16];
+        int size;
+
+        void add(Object userId, String movieId, int flags, double rating, String title, String poster) {
+            long movie;
+            try {
+                movie = Long.parseLong(movieId);
+            } catch (NumberFormatException e) {
+                return; // Not a TMDB id
+            }
+            int member = memberIndex.computeIfAbsent(((Number) userId).longValue(), k -> memberIndex.size());
+            Integer film = filmIndex.get(movie);
+            if (film == null) {
+                film = filmIndex.size();
+                filmIndex.put(movie, film);
+                if (film == movieIds.length) {
+                    movieIds = Arrays.copyOf(movieIds, film * 2);
+                    titles = Arrays.copyOf(titles, film * 2);
+                    posters = Arrays.copyOf(posters, film * 2);
+                }
+                movieIds[film] = movie;
+            }
+            if (titles[film] == null && title != null) {
+                titles[film] = title;
+                posters[film] = poster;
+            }
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            members[size] = member;
+            packed[size++] = ((long) film << 32) | ((long) flags << 16) | Math.round(rating * 10);
+        }
+
+        /** Folds duplicates into one weight per (member, film) and builds both CSR layouts. */
+        Matrix toMatrix() {
+            int memberCount = memberIndex.size();
+            int filmCount = filmIndex.size();
+
+            // Counting sort by member, then sort each row so a film's rows sit together
+            int[] start = new int[memberCount + 1];
+            for (int i = 0; i < size; i++) start[members[i] + 1]++;
+            for (int u = 0; u < memberCount; u++) start[u + 1] += start[u];
+            long[] byMember = new long[size];
+            int[] fill = Arrays.copyOf(start, memberCount);
+            for (int i = 0; i < size; i++) byMember[fill[members[i]]++] = packed[i];
+            members = null;
+            packed = null;
+
+            int[] rowPtr = new int[memberCount + 1];
+            int[] rowFilms = new int[byMember.length];
+            float[] rowWeights = new float[byMember.length];
+            int n = 0;
+            for (int u = 0; u < memberCount; u++) {
+                Arrays.sort(byMember, start[u], start[u + 1]);
+                int rowStart = n;
+                for (int i = start[u]; i < start[u + 1]; ) {
+                    int film = (int) (byMember[i] >>> 32);
+                    int flags = 0;
+                    int tenths = 0;
+                    for (; i < start[u + 1] && (int) (byMember[i] >>> 32) == film; i++) {
+                        flags |= (int) (byMember[i] >>> 16) & 0xFFFF;
+                        tenths = Math.max(tenths, (int) byMember[i] & 0xFFFF);
+                    }
+                    rowFilms[n] = film;
+                    rowWeights[n++] = weight(flags, tenths);
+                }
+                if (n - rowStart > MAX_MEMBER_FILMS) n = rowStart;
+                rowPtr[u + 1] = n;
+            }
+
+            int[] colPtr = new int[filmCount + 1];
+            for (int p = 0; p < n; p++) colPtr[rowFilms[p] + 1]++;
+            for (int f = 0; f < filmCount; f++) colPtr[f + 1] += colPtr[f];
+            int[] colMembers = new int[n];
+            float[] colWeights = new float[n];
+            double[] norms = new double[filmCount];
+            int[] next = Arrays.copyOf(colPtr, filmCount);
+            for (int u = 0; u < memberCount; u++) {
+                for (int p = rowPtr[u]; p < rowPtr[u + 1]; p++) {
+                    int film = rowFilms[p];
+                    int slot = next[film]++;
+                    colMembers[slot] = u;
+                    colWeights[slot] = rowWeights[p];
+                    norms[film] += (double) rowWeights[p] * rowWeights[p];
+                }
+            }
+            for (int f = 0; f < filmCount; f++) norms[f] = Math.sqrt(norms[f]);
+            return new Matrix(memberCount, filmCount, rowPtr, rowFilms, rowWeights, colPtr, colMembers, colWeights,
+                    norms);
+        }
+    }
+
+    /** Member-by-film weights in CSR form by member (rows) and by film (columns). */
+    private record Matrix(int members, int films, int[] rowPtr, int[] rowFilms, float[] rowWeights,
+            int[] colPtr, int[] colMembers, float[] colWeights, double[] norms) {
+    }
+
+    /** One film's neighbours, best first. */
+    private record Neighbours(int[] films, float[] scores, int[] shared) {
+    }
+
+    /** Finds neighbours for a range of films; splits until the range is small. */
+    private static final class NeighbourTask extends RecursiveAction {
+        private final Matrix m;
+        private final int from;
+        private final int to;
+        private final Neighbours[] out;
+
+        NeighbourTask(Matrix m, int from, int to, Neighbours[] out) {
+            this.m = m;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new NeighbourTask(m, from, mid, out), new NeighbourTask(m, mid, to, out));
+                return;
+            }
+            // Indexed by film; only touched slots are reset between films
+            float[] dot = new float[m.films()];
+            int[] shared = new int[m.films()];
+            int[] touched = new int[1024];
+            int[] bestFilms = new int[K];
+            float[] bestScores = new float[K];
+            int[] bestShared = new int[K];
+            for (int i = from; i < to; i++) {
+                int touchedCount = 0;
+                for (int p = m.colPtr()[i]; p < m.colPtr()[i + 1]; p++) {
+                    int u = m.colMembers()[p];
+                    float wi = m.colWeights()[p];
+                    for (int q = m.rowPtr()[u]; q < m.rowPtr()[u + 1]; q++) {
+                        int j = m.rowFilms()[q];
+                        if (j == i) continue;
+                        if (shared[j]++ == 0) {
+                            if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                            touched[touchedCount++] = j;
+                        }
+                        dot[j] += wi * m.rowWeights()[q];
+                    }
+                }
+                int kept = 0;
+                for (int t = 0; t < touchedCount; t++) {
+                    int j = touched[t];
+                    if (shared[j] >= MIN_SHARED) {
+                        float score = (float) (dot[j] / (m.norms()[i] * m.norms()[j])
+                                * shared[j] / (shared[j] + SHRINK));
+                        if (kept < K || score > bestScores[K - 1]) {
+                            int pos = kept < K ? kept++ : K - 1;
+                            while (pos > 0 && bestScores[pos - 1] < score) {
+                                bestFilms[pos] = bestFilms[pos - 1];
+                                bestScores[pos] = bestScores[pos - 1];
+                                bestShared[pos] = bestShared[pos - 1];
+                                pos--;
+                            }
+                            bestFilms[pos] = j;
+                            bestScores[pos] = score;
+                            bestShared[pos] = shared[j];
+                        }
+                    }
+                    dot[j] = 0;
+                    shared[j] = 0;
+                }
+                out[i] = kept == 0 ? null : new Neighbours(Arrays.copyOf(bestFilms, kept),
+                        Arrays.copyOf(bestScores, kept), Arrays.copyOf(bestShared, kept));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.moviereview.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write edits of sorted {@code long[]} id sets, shared by the
+ * in-memory indexes. Arrays are never modified in place, so a reader holding
+ * one always sees a consistent set; an empty result is {@code null} so the
+ * indexes can drop the map entry from inside {@code compute}.
+ */
+final class SortedLongs {
+
+    private SortedLongs() {
+    }
+
+    /** {@code ids} plus {@code id}; {@code ids} itself when already present. */
+    static long[] insert(long[] ids, long id) {
+        if (ids == null) return new long[] { id };
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) return ids;
+        int at = -pos - 1;
+        long[] next = new long[ids.length + 1];
+        System.arraycopy(ids, 0, next, 0, at);
+        next[at] = id;
+        System.arraycopy(ids, at, next, at + 1, ids.length - at);
+        return next;
+    }
+
+    /** {@code ids} without {@code id}, or {@code null} when that leaves it empty. */
+    static long[] remove(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) return ids;
+        if (ids.length == 1) return null;
+        long[] next = new long[ids.length - 1];
+        System.arraycopy(ids, 0, next, 0, pos);
+        System.arraycopy(ids, pos + 1, next, pos, ids.length - pos - 1);
+        return next;
+    }
+
+    /** Collects ids in any order during a bulk load, then sorts them once. */
+    static final class Builder {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        long[] toSortedArray() {
+            long[] out = Arrays.copyOf(ids, size);
+            Arrays.sort(out);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.UserSuggestion;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.UserSuggestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Precomputes "people you may know" for every user who follows someone.
+ * <p>
+ * Candidates are second-degree neighbours in {@link FollowGraphIndex}:
+ * each user's followees' followees, counted with a per-thread sparse
+ * accumulator so the count for a candidate is the size of the intersection
+ * of "who I follow" and "who follows them". The best candidates by mutual
+ * count are then re-ranked by how many liked movies they share with the
+ * user and written to {@code user_suggestions}.
+ * <p>
+ * A full pass runs daily, split across a fork-join pool by ranges of user
+ * ids. Follows and unfollows mark the users whose second-degree
+ * neighbourhood moved as dirty, and those are recomputed every few minutes.
+ * A user with no candidates gets a single row suggesting themselves, which
+ * readers skip, so an empty result is stored rather than recomputed.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+    private static final int CHUNK = 1000;
+    private static final int LEAF = 64;
+    private static final int PRESELECT = 50;
+    private static final int KEEP = 20;
+    private static final int IN_BATCH = 1000;
+    private static final double TASTE_WEIGHT = 3.0;
+
+    private final FollowGraphIndex followGraph;
+    private final LikeRepository likeRepository;
+    private final UserSuggestionRepository suggestionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public SuggestionService(FollowGraphIndex followGraph, LikeRepository likeRepository,
+            UserSuggestionRepository suggestionRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.followGraph = followGraph;
+        this.likeRepository = likeRepository;
+        this.suggestionRepository = suggestionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Stored suggestions for {@code userId}, dropping anyone followed since
+     * they were computed. A user never computed before is computed on the
+     * spot; one whose last pass found nobody has only the self marker.
+     */
+    public List<UserSuggestion> suggestionsFor(long userId, int limit) {
+        List<UserSuggestion> stored = suggestionRepository.findByUserIdOrderByScoreDesc(userId);
+        if (stored.isEmpty() && followGraph.followingCount(userId) > 0) {
+            refresh(new long[] { userId });
+            stored = suggestionRepository.findByUserIdOrderByScoreDesc(userId);
+        }
+        List<UserSuggestion> result = new ArrayList<>();
+        for (UserSuggestion s : stored) {
+            if (result.size() >= limit) break;
+            if (s.getCandidateId() != userId && !followGraph.isFollowing(userId, s.getCandidateId())) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@code followerId} followed or unfollowed someone: their own
+     * candidates change, and so do those of everyone following them.
+     */
+    public void onFollowChanged(long followerId) {
+        dirty.add(followerId);
+        for (long id : followGraph.followerIds(followerId)) {
+            dirty.add(id);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${suggestions.full.initial-delay-ms:120000}",
+            fixedDelayString = "${suggestions.full.interval-ms:86400000}",
+            scheduler = "batchScheduler")
+    public void refreshAll() {
+        long started = System.currentTimeMillis();
+        long[] users = followGraph.usersFollowingSomeone();
+        dirty.clear();
+        refresh(users);
+        logger.info("Suggestions recomputed for {} users in {} ms", users.length,
+                System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(initialDelayString = "${suggestions.dirty.interval-ms:300000}",
+            fixedDelayString = "${suggestions.dirty.interval-ms:300000}",
+            scheduler = "batchScheduler")
+    public void refreshDirty() {
+        if (dirty.isEmpty()) return;
+        List<Long> drained = new ArrayList<>(dirty);
+        dirty.removeAll(drained);
+        refresh(drained.stream().mapToLong(Long::longValue).sorted().toArray());
+    }
+
+    private void refresh(long[] users) {
+        long[] universe = followGraph.usersWithFollowers();
+        for (int from = 0; from < users.length; from += CHUNK) {
+            long[] chunk = Arrays.copyOfRange(users, from, Math.min(users.length, from + CHUNK));
+            Candidate[][] mutuals = new Candidate[chunk.length][];
+            ForkJoinPool.commonPool().invoke(new MutualTask(chunk, 0, chunk.length, universe, mutuals));
+            store(chunk, rankByTaste(chunk, mutuals));
+        }
+    }
+
+    private Map<Long, List<UserSuggestion>> rankByTaste(long[] chunk, Candidate[][] mutuals) {
+        Set<Long> involved = new LinkedHashSet<>();
+        for (int i = 0; i < chunk.length; i++) {
+            if (mutuals[i].length == 0) continue;
+            involved.add(chunk[i]);
+            for (Candidate c : mutuals[i]) involved.add(c.id);
+        }
+        Map<Long, long[]> likes = likedMovies(new ArrayList<>(involved));
+
+        Map<Long, List<UserSuggestion>> result = new HashMap<>();
+        for (int i = 0; i < chunk.length; i++) {
+            long[] mine = likes.getOrDefault(chunk[i], new long[0]);
+            List<UserSuggestion> ranked = new ArrayList<>(mutuals[i].length);
+            for (Candidate c : mutuals[i]) {
+                long[] theirs = likes.getOrDefault(c.id, new long[0]);
+                int shared = intersectionSize(mine, theirs);
+                double cosine = shared == 0 ? 0 : shared / Math.sqrt((double) mine.length * theirs.length);
+                ranked.add(new UserSuggestion(chunk[i], c.id, c.mutual, shared, c.mutual + TASTE_WEIGHT * cosine));
+            }
+            ranked.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+            if (ranked.isEmpty()) {
+                ranked.add(new UserSuggestion(chunk[i], chunk[i], 0, 0, 0));
+            }
+            result.put(chunk[i], ranked.size() > KEEP ? ranked.subList(0, KEEP) : ranked);
+        }
+        return result;
+    }
+
+    private void store(long[] chunk, Map<Long, List<UserSuggestion>> ranked) {
+        List<Long> ids = Arrays.stream(chunk).boxed().toList();
+        Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (long userId : chunk) {
+            for (UserSuggestion r : ranked.get(userId)) {
+                rows.add(new Object[] { r.getUserId(), r.getCandidateId(), r.getMutualCount(), r.getSharedLikes(),
+                        r.getScore(), computedAt });
+            }
+        }
+        newTx.executeWithoutResult(status -> {
+            suggestionRepository.deleteByUserIds(ids);
+            jdbcTemplate.batchUpdate("INSERT INTO user_suggestions (user_id, candidate_id, mutual_count, "
+                    + "shared_likes, score, computed_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        });
+    }
+
+    /** Sorted numeric TMDB ids each user has liked. */
+    private Map<Long, long[]> likedMovies(List<Long> userIds) {
+        Map<Long, List<Long>> collected = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += IN_BATCH) {
+            List<Long> batch = userIds.subList(from, Math.min(userIds.size(), from + IN_BATCH));
+            for (Object[] row : likeRepository.findMovieIdsByUserIds(batch)) {
+                try {
+                    long movieId = Long.parseLong((String) row[1]);
+                    collected.computeIfAbsent(((Number) row[0]).longValue(), k -> new ArrayList<>()).add(movieId);
+                } catch (NumberFormatException ignored) {
+                    // Not a TMDB id; it cannot match anyone else's like either
+                }
+            }
+        }
+        Map<Long, long[]> result = new HashMap<>();
+        collected.forEach((id, movies) -> result.put(id,
+                movies.stream().mapToLong(Long::longValue).sorted().distinct().toArray()));
+        return result;
+    }
+
+    private static int intersectionSize(long[] a, long[] b) {
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { n++; i++; j++; }
+        }
+        return n;
+    }
+
+    private record Candidate(long id, int mutual) {
+    }
+
+    /** Counts second-degree neighbours for a range of users; splits until the range is small. */
+    private final class MutualTask extends RecursiveAction {
+        private final long[] users;
+        private final int from;
+        private final int to;
+        private final long[] universe;
+        private final Candidate[][] out;
+
+        MutualTask(long[] users, int from, int to, long[] universe, Candidate[][] out) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.universe = universe;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MutualTask(users, from, mid, universe, out),
+                        new MutualTask(users, mid, to, universe, out));
+                return;
+            }
+            // Indexed by position in the universe; only touched slots are reset between users
+            int[] counts = new int[universe.length];
+            int[] touched = new int[Math.min(universe.length, 1024)];
+            for (int u = from; u < to; u++) {
+                long userId = users[u];
+                long[] mine = followGraph.followingView(userId);
+                int touchedCount = 0;
+                for (long friend : mine) {
+                    for (long candidate : followGraph.followingView(friend)) {
+                        if (candidate == userId || Arrays.binarySearch(mine, candidate) >= 0) continue;
+                        int slot = Arrays.binarySearch(universe, candidate);
+                        if (slot < 0) continue;
+                        if (counts[slot]++ == 0) {
+                            if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                            touched[touchedCount++] = slot;
+                        }
+                    }
+                }
+                Candidate[] found = new Candidate[touchedCount];
+                for (int t = 0; t < touchedCount; t++) {
+                    int slot = touched[t];
+                    found[t] = new Candidate(universe[slot], counts[slot]);
+                    counts[slot] = 0;
+                }
+                Arrays.sort(found, (a, b) -> a.mutual != b.mutual ? Integer.compare(b.mutual, a.mutual)
+                        : Long.compare(a.id, b.id));
+                out[u] = found.length > PRESELECT ? Arrays.copyOf(found, PRESELECT) : found;
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.ReviewRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How closely two members' ratings agree, for the profile page.
+ * <p>
+ * Each member's ratings are kept as a sparse vector: sorted TMDB ids with
+ * the rating in half stars alongside, loaded with one query and held in a
+ * bounded LRU. Two vectors are compared with a single merge scan over the
+ * ids, giving the overlap, Pearson and cosine similarity and the films both
+ * rated highly. Results are cached per pair and tagged with both members'
+ * rating versions; a new or changed rating bumps the member's version, so
+ * every pair involving them is recomputed on next read.
+ */
+@Service
+public class TasteCompatibility {
+
+    /** Fewer films rated in common than this gives no score. */
+    static final int MIN_OVERLAP = 3;
+    /** Pulls scores from small overlaps towards the neutral middle. */
+    private static final double SHRINK = 5.0;
+    /** Both rated at least four stars, in half stars. */
+    private static final int FAVORITE = 8;
+    private static final int MAX_FAVORITES = 6;
+    private static final int MAX_VECTORS = 20_000;
+    private static final int MAX_PAIRS = 50_000;
+
+    private final ReviewRepository reviewRepository;
+
+    private final LinkedHashMap<Long, Vector> vectors = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Pair, Cached> pairs = new ConcurrentHashMap<>();
+
+    public record Result(int overlap, Double pearson, Double cosine, Integer score, List<String> sharedFavorites) {
+    }
+
+    public TasteCompatibility(ReviewRepository reviewRepository) {
+        this.reviewRepository = reviewRepository;
+    }
+
+    public Result between(long userId, long otherId) {
+        Pair pair = userId < otherId ? new Pair(userId, otherId) : new Pair(otherId, userId);
+        long versionA = version(pair.a());
+        long versionB = version(pair.b());
+        Cached cached = pairs.get(pair);
+        if (cached != null && cached.versionA == versionA && cached.versionB == versionB) {
+            return cached.result;
+        }
+        Result result = compare(vector(pair.a(), versionA), vector(pair.b(), versionB));
+        if (pairs.size() >= MAX_PAIRS) {
+            pairs.entrySet().removeIf(e -> e.getValue().versionA != version(e.getKey().a())
+                    || e.getValue().versionB != version(e.getKey().b()));
+            if (pairs.size() >= MAX_PAIRS) pairs.clear();
+        }
+        pairs.put(pair, new Cached(result, versionA, versionB));
+        return result;
+    }
+
+    /** A rating of {@code userId}'s was added or changed. */
+    public void onRatingsChanged(long userId) {
+        versions.merge(userId, 1L, Long::sum);
+        synchronized (this) {
+            vectors.remove(userId);
+        }
+    }
+
+    private long version(long userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    private Vector vector(long userId, long version) {
+        synchronized (this) {
+            Vector v = vectors.get(userId);
+            if (v != null && v.version == version) return v;
+        }
+        Vector loaded = Vector.of(reviewRepository.findRatings(userId), version);
+        synchronized (this) {
+            // A rating that landed during the load bumped the version; keep the load for this read only
+            if (version(userId) == version) {
+                vectors.put(userId, loaded);
+                if (vectors.size() > MAX_VECTORS) {
+                    vectors.remove(vectors.keySet().iterator().next());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /** One merge scan over both sorted id arrays. */
+    static Result compare(Vector x, Vector y) {
+        int n = 0;
+        double sx = 0, sy = 0, sxy = 0, sxx = 0, syy = 0;
+        long[] favorites = new long[MAX_FAVORITES];
+        int[] favoriteRank = new int[MAX_FAVORITES];
+        int favoriteCount = 0;
+        int i = 0, j = 0;
+        while (i < x.movieIds.length && j < y.movieIds.length) {
+            if (x.movieIds[i] < y.movieIds[j]) i++;
+            else if (x.movieIds[i] > y.movieIds[j]) j++;
+            else {
+                int a = x.halfStars[i], b = y.halfStars[j];
+                n++;
+                sx += a;
+                sy += b;
+                sxy += a * b;
+                sxx += a * a;
+                syy += b * b;
+                if (a >= FAVORITE && b >= FAVORITE) {
+                    // Keep the best by combined rating, ties by lower id
+                    int rank = a + b;
+                    if (favoriteCount < MAX_FAVORITES || rank > favoriteRank[MAX_FAVORITES - 1]) {
+                        int pos = favoriteCount < MAX_FAVORITES ? favoriteCount++ : MAX_FAVORITES - 1;
+                        while (pos > 0 && favoriteRank[pos - 1] < rank) {
+                            favorites[pos] = favorites[pos - 1];
+                            favoriteRank[pos] = favoriteRank[pos - 1];
+                            pos--;
+                        }
+                        favorites[pos] = x.movieIds[i];
+                        favoriteRank[pos] = rank;
+                    }
+                }
+                i++;
+                j++;
+            }
+        }
+        List<String> shared = Arrays.stream(favorites, 0, favoriteCount).mapToObj(String::valueOf).toList();
+        if (n < MIN_OVERLAP) {
+            return new Result(n, null, null, null, shared);
+        }
+        double cosine = sxy / Math.sqrt(sxx * syy);
+        double varX = sxx - sx * sx / n;
+        double varY = syy - sy * sy / n;
+        // Someone who gives every film the same rating has no spread to correlate
+        double pearson = varX <= 0 || varY <= 0 ? 0 : (sxy - sx * sy / n) / Math.sqrt(varX * varY);
+        int score = (int) Math.round(50 * (1 + pearson * n / (n + SHRINK)));
+        return new Result(n, round(pearson), round(cosine), score, shared);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private record Pair(long a, long b) {
+    }
+
+    private record Cached(Result result, long versionA, long versionB) {
+    }
+
+    /** Sorted TMDB ids with each rating in half stars (1..10). */
+    static final class Vector {
+        final long[] movieIds;
+        final byte[] halfStars;
+        final long version;
+
+        Vector(long[] movieIds, byte[] halfStars, long version) {
+            this.movieIds = movieIds;
+            this.halfStars = halfStars;
+            this.version = version;
+        }
+
+        /** From [movieId, rating] rows oldest first; a film logged again keeps its latest rating. */
+        static Vector of(List<Object[]> rows, long version) {
+            Map<Long, Byte> latest = new HashMap<>();
+            for (Object[] row : rows) {
+                try {
+                    long id = Long.parseLong((String) row[0]);
+                    latest.put(id, (byte) Math.round(((Number) row[1]).doubleValue() * 2));
+                } catch (NumberFormatException ignored) {
+                    // Not a TMDB id; it cannot match anyone else's rating either
+                }
+            }
+            long[] ids = latest.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            byte[] ratings = new byte[ids.length];
+            for (int k = 0; k < ids.length; k++) ratings[k] = latest.get(ids[k]);
+            return new Vector(ids, ratings, version);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.moviereview.backend.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A small thread-safe map whose entries expire after a fixed TTL. Size is
+ * capped: a put that finds the cache full first drops expired entries and,
+ * if that frees nothing, empties the cache, which for these short-lived
+ * lookups costs no more than one reload per key. A non-positive TTL
+ * disables caching.
+ */
+public final class TtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public TtlCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** The live value for {@code key}, or null when absent or expired. */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && entry.expiresAt > System.currentTimeMillis() ? entry.value : null;
+    }
+
+    public void put(K key, V value) {
+        putUntil(key, value, Long.MAX_VALUE);
+    }
+
+    /** Caches {@code value} for the TTL, but never past {@code deadline} (epoch millis). */
+    public void putUntil(K key, V value, long deadline) {
+        if (ttlMillis <= 0) return;
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+            if (entries.size() >= maxEntries) entries.clear();
+        }
+        entries.put(key, new Entry<>(value, Math.min(now + ttlMillis, deadline)));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
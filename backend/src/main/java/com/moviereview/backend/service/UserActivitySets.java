@@ -0,0 +1,271 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.repository.WatchlistRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user sets of liked, watched and watchlisted movie ids, so "has this
+ * user liked / watched / saved this movie" checks are answered from memory.
+ * A user's set is loaded with one query the first time it is asked for and
+ * kept in an LRU bounded by an approximate byte budget. The controllers call
+ * {@link #added} / {@link #removed} on every toggle; toggles still sitting in
+ * the {@link ActivityWriteBuffer} are overlaid on a fresh load.
+ */
+@Service
+public class UserActivitySets {
+
+    public enum Kind { LIKED, WATCHED, WATCHLIST }
+
+    /** Sets larger than this share of the budget are used for the request but not kept. */
+    private static final int MAX_SHARE = 8;
+
+    private final LikeRepository likeRepository;
+    private final WatchedRepository watchedRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final ActivityWriteBuffer writeBuffer;
+    private final long maxBytes;
+
+    private final LinkedHashMap<Long, MovieIdSet> sets = new LinkedHashMap<>(256, 0.75f, true);
+    /** Keys being loaded; a write to one of them drops its token so the stale load is not cached. */
+    private final Map<Long, Object> loading = new HashMap<>();
+    private long usedBytes;
+
+    public UserActivitySets(LikeRepository likeRepository, WatchedRepository watchedRepository,
+            WatchlistRepository watchlistRepository, ActivityWriteBuffer writeBuffer,
+            @Value("${activity-sets.max-bytes:33554432}") long maxBytes) {
+        this.likeRepository = likeRepository;
+        this.watchedRepository = watchedRepository;
+        this.watchlistRepository = watchlistRepository;
+        this.writeBuffer = writeBuffer;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean contains(Kind kind, long userId, String movieId) {
+        long key = key(kind, userId);
+        Object token;
+        synchronized (this) {
+            MovieIdSet set = sets.get(key);
+            if (set != null) {
+                return set.contains(movieId);
+            }
+            token = new Object();
+            loading.put(key, token);
+        }
+        // Taken before the read: anything flushed since is in the table, anything newer drops the token
+        Map<String, Boolean> unflushed = writeBuffer.pendingFor(kind, userId);
+        MovieIdSet loaded = MovieIdSet.of(load(kind, userId));
+        unflushed.forEach((id, present) -> {
+            if (present) loaded.add(id);
+            else loaded.remove(id);
+        });
+        keep(key, token, loaded);
+        return loaded.contains(movieId);
+    }
+
+    /**
+     * Loads the sets of every listed user that is not cached yet with one
+     * query, so a feed that checks many authors does not pay a query each.
+     */
+    public void preload(Kind kind, Collection<Long> userIds) {
+        Map<Long, Object> tokens = new HashMap<>();
+        synchronized (this) {
+            for (Long userId : userIds) {
+                long key = key(kind, userId);
+                if (!sets.containsKey(key) && !tokens.containsKey(userId)) {
+                    Object token = new Object();
+                    loading.put(key, token);
+                    tokens.put(userId, token);
+                }
+            }
+        }
+        if (tokens.isEmpty()) return;
+        Map<Long, Map<String, Boolean>> unflushed = new HashMap<>();
+        for (Long userId : tokens.keySet()) {
+            unflushed.put(userId, writeBuffer.pendingFor(kind, userId));
+        }
+        Map<Long, List<String>> movieIds = new HashMap<>();
+        for (Long userId : tokens.keySet()) movieIds.put(userId, new ArrayList<>());
+        for (Object[] row : load(kind, new ArrayList<>(tokens.keySet()))) {
+            movieIds.get((Long) row[0]).add((String) row[1]);
+        }
+        movieIds.forEach((userId, ids) -> {
+            MovieIdSet loaded = MovieIdSet.of(ids);
+            unflushed.get(userId).forEach((id, present) -> {
+                if (present) loaded.add(id);
+                else loaded.remove(id);
+            });
+            keep(key(kind, userId), tokens.get(userId), loaded);
+        });
+    }
+
+    private synchronized void keep(long key, Object token, MovieIdSet loaded) {
+        if (loading.get(key) == token) {
+            loading.remove(key);
+            if (loaded.bytes() <= maxBytes / MAX_SHARE) {
+                sets.put(key, loaded);
+                usedBytes += loaded.bytes();
+                evict();
+            }
+        }
+    }
+
+    public synchronized void added(Kind kind, long userId, String movieId) {
+        long key = key(kind, userId);
+        loading.remove(key);
+        MovieIdSet set = sets.get(key);
+        if (set != null) {
+            usedBytes -= set.bytes();
+            set.add(movieId);
+            usedBytes += set.bytes();
+            evict();
+        }
+    }
+
+    public synchronized void removed(Kind kind, long userId, String movieId) {
+        long key = key(kind, userId);
+        loading.remove(key);
+        MovieIdSet set = sets.get(key);
+        if (set != null) {
+            set.remove(movieId);
+        }
+    }
+
+    private List<String> load(Kind kind, long userId) {
+        return switch (kind) {
+            case LIKED -> likeRepository.findMovieIdsByUserId(userId);
+            case WATCHED -> watchedRepository.findMovieIdsByUserId(userId);
+            case WATCHLIST -> watchlistRepository.findMovieIdsByUserId(userId);
+        };
+    }
+
+    private List<Object[]> load(Kind kind, List<Long> userIds) {
+        return switch (kind) {
+            case LIKED -> likeRepository.findMovieIdsByUserIds(userIds);
+            case WATCHED -> watchedRepository.findMovieIdsByUserIds(userIds);
+            case WATCHLIST -> watchlistRepository.findMovieIdsByUserIds(userIds);
+        };
+    }
+
+    private void evict() {
+        Iterator<MovieIdSet> it = sets.values().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            usedBytes -= it.next().bytes();
+            it.remove();
+        }
+    }
+
+    private static long key(Kind kind, long userId) {
+        return userId * 4 + kind.ordinal();
+    }
+
+    /**
+     * Open-addressing set of numeric (TMDB) movie ids with linear probing;
+     * the rare non-numeric id goes to a plain fallback set.
+     */
+    static final class MovieIdSet {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] table;
+        private int size;
+        private Set<String> other = Set.of();
+
+        private MovieIdSet(int expected) {
+            int capacity = 8;
+            while (capacity * 3 < expected * 4) capacity <<= 1;
+            table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+        }
+
+        static MovieIdSet of(List<String> movieIds) {
+            MovieIdSet set = new MovieIdSet(movieIds.size());
+            for (String id : movieIds) set.add(id);
+            return set;
+        }
+
+        long bytes() {
+            return 64 + 8L * table.length + 64L * other.size();
+        }
+
+        boolean contains(String movieId) {
+            long id = parse(movieId);
+            if (id == EMPTY) return other.contains(movieId);
+            return table[slot(id)] == id;
+        }
+
+        void add(String movieId) {
+            long id = parse(movieId);
+            if (id == EMPTY) {
+                if (other.isEmpty()) other = new HashSet<>();
+                other.add(movieId);
+                return;
+            }
+            int slot = slot(id);
+            if (table[slot] == id) return;
+            table[slot] = id;
+            if (++size * 4 > table.length * 3) rehash(table.length << 1);
+        }
+
+        void remove(String movieId) {
+            long id = parse(movieId);
+            if (id == EMPTY) {
+                if (!other.isEmpty()) other.remove(movieId);
+                return;
+            }
+            int slot = slot(id);
+            if (table[slot] != id) return;
+            table[slot] = EMPTY;
+            size--;
+            // Re-seat the rest of the probe run so lookups never stop at the hole
+            int mask = table.length - 1;
+            for (int i = (slot + 1) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+                long moved = table[i];
+                table[i] = EMPTY;
+                table[slot(moved)] = moved;
+            }
+        }
+
+        /** The slot holding {@code id}, or the empty slot where it would go. */
+        private int slot(long id) {
+            int mask = table.length - 1;
+            int i = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+            while (table[i] != EMPTY && table[i] != id) i = (i + 1) & mask;
+            return i;
+        }
+
+        private void rehash(int capacity) {
+            long[] old = table;
+            table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            for (long id : old) {
+                if (id != EMPTY) table[slot(id)] = id;
+            }
+        }
+
+        private static long parse(String movieId) {
+            if (movieId == null || movieId.isEmpty() || movieId.length() > 18
+                    || (movieId.charAt(0) == '0' && movieId.length() > 1)) return EMPTY;
+            long value = 0;
+            for (int i = 0; i < movieId.length(); i++) {
+                char c = movieId.charAt(i);
+                if (c < '0' || c > '9') return EMPTY;
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+    }
+}
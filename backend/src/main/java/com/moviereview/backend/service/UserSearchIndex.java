@@ -0,0 +1,258 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory name search over all members, replacing {@code LIKE '%q%'}
+ * scans of the users table.
+ * <p>
+ * Display names and usernames are normalized (lower case, accents
+ * stripped) and indexed two ways: trigram posting lists answer substring
+ * queries of three or more characters, and a sorted word map answers
+ * shorter prefix queries. Every candidate is ranked by how well it
+ * matches, then by closeness to the searcher in the follow graph, then by
+ * follower count, and only the top K are returned. The follow-graph term is
+ * only computed for candidates that could still reach the top K.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final int GRAM = 3;
+    /** Upper bound of the proximity term in {@link #proximity}. */
+    private static final double MAX_PROXIMITY = 2 + 1 + 10 * 0.3;
+    private static final long[] EMPTY = new long[0];
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final UserRepository userRepository;
+    private final FollowGraphIndex followGraph;
+    private final TransactionTemplate readOnlyTx;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    /** trigram -> sorted ids whose name or username contains it */
+    private final Map<String, long[]> grams = new HashMap<>();
+    /** word of a name or username -> sorted ids, for one- and two-letter queries */
+    private final TreeMap<String, long[]> words = new TreeMap<>();
+
+    public record Entry(long id, String name, String username, String avatarUrl, String normName,
+            String normUsername) {
+    }
+
+    public UserSearchIndex(UserRepository userRepository, FollowGraphIndex followGraph,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.followGraph = followGraph;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void load() {
+        List<Entry> loaded = new ArrayList<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = userRepository.streamSearchEntries()) {
+                rows.forEach(row -> loaded.add(entry(((Number) row[0]).longValue(), (String) row[1],
+                        (String) row[2], (String) row[3])));
+            }
+        });
+        Map<String, SortedLongs.Builder> gramBuild = new HashMap<>();
+        Map<String, SortedLongs.Builder> wordBuild = new HashMap<>();
+        for (Entry e : loaded) {
+            for (String g : gramsOf(e)) gramBuild.computeIfAbsent(g, k -> new SortedLongs.Builder()).add(e.id());
+            for (String w : wordsOf(e)) wordBuild.computeIfAbsent(w, k -> new SortedLongs.Builder()).add(e.id());
+        }
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            grams.clear();
+            words.clear();
+            loaded.forEach(e -> entries.put(e.id(), e));
+            gramBuild.forEach((g, ids) -> grams.put(g, ids.toSortedArray()));
+            wordBuild.forEach((w, ids) -> words.put(w, ids.toSortedArray()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("User search index loaded: {} users, {} trigrams", loaded.size(), gramBuild.size());
+    }
+
+    /** Adds a newly registered user or re-indexes one whose name, email or avatar changed. */
+    public void put(User user) {
+        Entry next = entry(user.getId(), user.getName(), user.getEmail(), user.getAvatarUrl());
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(next.id(), next);
+            if (previous != null) {
+                for (String g : gramsOf(previous)) grams.computeIfPresent(g, (k, ids) -> SortedLongs.remove(ids, next.id()));
+                for (String w : wordsOf(previous)) words.computeIfPresent(w, (k, ids) -> SortedLongs.remove(ids, next.id()));
+            }
+            for (String g : gramsOf(next)) grams.compute(g, (k, ids) -> SortedLongs.insert(ids, next.id()));
+            for (String w : wordsOf(next)) words.compute(w, (k, ids) -> SortedLongs.insert(ids, next.id()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The indexed name and avatar of one member, or null if unknown. */
+    public Entry get(long id) {
+        lock.readLock().lock();
+        try {
+            return entries.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top {@code limit} members matching {@code query}, best first.
+     * {@code searcherId} may be null for anonymous searches.
+     */
+    public List<Entry> search(String query, Long searcherId, int limit) {
+        String q = normalize(query).trim();
+        if (q.isEmpty() || limit <= 0) return List.of();
+        long[] searcherFollowing = searcherId != null ? followGraph.followingIds(searcherId) : EMPTY;
+
+        PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(q)) {
+                Entry e = entries.get(id);
+                if (e == null) continue;
+                int match = match(e, q);
+                if (match < 0) continue;
+                // Match quality dominates; proximity and popularity order members within a tier
+                double score = match * 10 + Math.log1p(followGraph.followerCount(e.id()));
+                if (top.size() == limit && score + MAX_PROXIMITY <= top.peek().score()) continue;
+                score += proximity(e, searcherId, searcherFollowing);
+                if (top.size() < limit) {
+                    top.add(new Scored(e, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Scored(e, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Entry> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) result.add(top.poll().entry());
+        Collections.reverse(result);
+        return result;
+    }
+
+    private long[] candidates(String q) {
+        if (q.length() < GRAM) {
+            Set<Long> ids = new HashSet<>();
+            for (long[] posting : words.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+                for (long id : posting) ids.add(id);
+            }
+            return ids.stream().mapToLong(Long::longValue).toArray();
+        }
+        // Intersect the shortest posting lists first; substring containment is re-checked when scoring
+        List<long[]> postings = new ArrayList<>();
+        for (String g : gramsOf(q)) {
+            long[] ids = grams.get(g);
+            if (ids == null) return EMPTY;
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(a -> a.length));
+        long[] result = postings.get(0);
+        for (int i = 1; i < postings.size() && result.length > 0; i++) {
+            result = intersect(result, postings.get(i));
+        }
+        return result;
+    }
+
+    /** Match tier from 4 (exact) down to 1 (substring), or -1 when the entry does not match. */
+    private static int match(Entry e, String q) {
+        if (e.normName().equals(q) || e.normUsername().equals(q)) return 4;
+        if (e.normName().startsWith(q) || e.normUsername().startsWith(q)) return 3;
+        if (e.normName().contains(" " + q)) return 2;
+        if (e.normName().contains(q) || e.normUsername().contains(q)) return 1;
+        return -1;
+    }
+
+    private double proximity(Entry e, Long searcherId, long[] searcherFollowing) {
+        double proximity = 0;
+        if (searcherId != null && e.id() != searcherId) {
+            if (Arrays.binarySearch(searcherFollowing, e.id()) >= 0) proximity += 2;
+            if (followGraph.isFollowing(e.id(), searcherId)) proximity += 1;
+            proximity += Math.min(followGraph.countFollowersAmong(e.id(), searcherFollowing), 10) * 0.3;
+        }
+        return proximity;
+    }
+
+    private static Entry entry(long id, String name, String email, String avatarUrl) {
+        String username = email != null ? email.split("@")[0] : "";
+        String displayName = name != null ? name : "";
+        return new Entry(id, displayName, username, avatarUrl, normalize(displayName), normalize(username));
+    }
+
+    static String normalize(String value) {
+        if (value == null) return "";
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(Entry e) {
+        Set<String> out = new HashSet<>();
+        addGrams(e.normName(), out);
+        addGrams(e.normUsername(), out);
+        return out;
+    }
+
+    private static Set<String> gramsOf(String q) {
+        Set<String> out = new HashSet<>();
+        addGrams(q, out);
+        return out;
+    }
+
+    private static void addGrams(String s, Set<String> out) {
+        for (int i = 0; i + GRAM <= s.length(); i++) out.add(s.substring(i, i + GRAM));
+    }
+
+    private static Set<String> wordsOf(Entry e) {
+        Set<String> out = new HashSet<>();
+        for (String w : e.normName().split("\\s+")) if (!w.isEmpty()) out.add(w);
+        if (!e.normUsername().isEmpty()) out.add(e.normUsername());
+        return out;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private record Scored(Entry entry, double score) {
+    }
+}
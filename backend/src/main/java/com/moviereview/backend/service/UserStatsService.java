@@ -0,0 +1,277 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.UserStats;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.MovieListRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.repository.UserStatsRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.repository.WatchlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the {@code user_stats} counter row behind profile headers.
+ * <p>
+ * Write paths call the {@code on...} methods inside their own transaction,
+ * so a counter moves atomically with the row it counts. A missing row is
+ * created from a recount on first touch, and {@link #reconcile()} recounts
+ * every user in the background to repair any drift.
+ * <p>
+ * A recount is only ever written over a row this service has locked, and a
+ * first insert that loses to a concurrent one falls back to applying its
+ * delta, so no committed delta is overwritten.
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsService.class);
+    private static final int RECONCILE_BATCH = 500;
+    private static final String INSERT_ROW = "INSERT INTO user_stats (user_id, followers_count, following_count, "
+            + "films_count, reviews_count, lists_count, films_this_year, likes_count, watched_count, "
+            + "watchlist_count, stats_year, last_activity_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Directory sort keys and the counter each one orders by; every counter has its own index. */
+    public static final Map<String, String> MEMBER_SORTS = Map.of(
+            "followers", "followersCount",
+            "films", "filmsCount",
+            "recent", "lastActivityAt");
+
+    private final UserStatsRepository userStatsRepository;
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final MovieListRepository movieListRepository;
+    private final LikeRepository likeRepository;
+    private final WatchedRepository watchedRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+
+    public UserStatsService(UserStatsRepository userStatsRepository, UserRepository userRepository,
+            ReviewRepository reviewRepository, MovieListRepository movieListRepository,
+            LikeRepository likeRepository, WatchedRepository watchedRepository,
+            WatchlistRepository watchlistRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.userStatsRepository = userStatsRepository;
+        this.userRepository = userRepository;
+        this.reviewRepository = reviewRepository;
+        this.movieListRepository = movieListRepository;
+        this.likeRepository = likeRepository;
+        this.watchedRepository = watchedRepository;
+        this.watchlistRepository = watchlistRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Counters for a profile header. Served from the stored row; only a
+     * missing row or one left over from last year is recounted.
+     */
+    public UserStats get(Long userId) {
+        UserStats stats = userStatsRepository.findById(userId).orElse(null);
+        if (stats != null && stats.getStatsYear() == currentYear()) {
+            return stats;
+        }
+        return newTx.execute(status -> rewrite(userId));
+    }
+
+    /**
+     * One page of the members directory, highest first. Returns {@code null}
+     * for an unknown sort key.
+     */
+    public Slice<UserStatsRepository.MemberSummary> members(String sort, int page, int size) {
+        String property = MEMBER_SORTS.get(sort);
+        if (property == null) return null;
+        Sort order = Sort.by(Sort.Direction.DESC, property, "userId");
+        return userStatsRepository.findMembers(PageRequest.of(page, size, order));
+    }
+
+    /** Creates the empty row for a newly registered user so they show up in the directory. */
+    public void onRegistered(Long userId) {
+        UserStats stats = new UserStats(userId);
+        stats.setStatsYear(currentYear());
+        insert(stats);
+    }
+
+    public void onFollow(Long followerId, Long followedId, int delta) {
+        apply(followedId, delta, 0, 0, 0, 0, 0, false);
+        apply(followerId, 0, delta, 0, 0, 0, 0, false);
+    }
+
+    /** A diary entry was added ({@code +1}) or removed ({@code -1}). */
+    public void onReviewAdded(Long userId, boolean hasContent, LocalDateTime createdAt, int delta) {
+        boolean thisYear = createdAt != null && createdAt.getYear() == currentYear();
+        apply(userId, 0, 0, delta, hasContent ? delta : 0, 0, thisYear ? delta : 0, delta > 0);
+    }
+
+    /** An existing entry gained ({@code +1}) or lost ({@code -1}) its review text. */
+    public void onReviewTextChanged(Long userId, int delta) {
+        apply(userId, 0, 0, 0, delta, 0, 0, delta > 0);
+    }
+
+    public void onListsChanged(Long userId, int delta) {
+        apply(userId, 0, 0, 0, 0, delta, 0, delta > 0);
+    }
+
+    /** A like, watched mark or watchlist entry was added ({@code +1}) or removed ({@code -1}). */
+    public void onActivityChanged(Long userId, UserActivitySets.Kind kind, int delta) {
+        if (delta == 0) return;
+        long likes = kind == UserActivitySets.Kind.LIKED ? delta : 0;
+        long watched = kind == UserActivitySets.Kind.WATCHED ? delta : 0;
+        long watchlist = kind == UserActivitySets.Kind.WATCHLIST ? delta : 0;
+        if (userStatsRepository.applyActivityDeltas(userId, likes, watched, watchlist) == 0
+                && !insert(recount(List.of(userId)).get(userId))) {
+            // Another request created the row from a recount that could not see this write
+            userStatsRepository.applyActivityDeltas(userId, likes, watched, watchlist);
+        }
+    }
+
+    private void apply(Long userId, long followers, long following, long films, long reviews, long lists,
+            long thisYear, boolean activity) {
+        if (followers == 0 && following == 0 && films == 0 && reviews == 0 && lists == 0 && thisYear == 0) {
+            return;
+        }
+        LocalDateTime activityAt = activity ? LocalDateTime.now() : null;
+        int updated = userStatsRepository.applyDeltas(userId, followers, following, films, reviews, lists,
+                thisYear, currentYear(), activityAt);
+        // First counter for this user: the recount already sees this transaction's write
+        if (updated == 0 && !insert(recount(List.of(userId)).get(userId))) {
+            // Another request created the row from a recount that could not see this write
+            userStatsRepository.applyDeltas(userId, followers, following, films, reviews, lists,
+                    thisYear, currentYear(), activityAt);
+        }
+    }
+
+    /**
+     * Recounts every user in batches without locks, then rewrites each row
+     * that looks drifted from a fresh recount taken under its row lock.
+     */
+    @Scheduled(initialDelayString = "${stats.reconcile.initial-delay-ms:60000}",
+            fixedDelayString = "${stats.reconcile.interval-ms:21600000}",
+            scheduler = "batchScheduler")
+    public void reconcile() {
+        long afterId = 0;
+        int checked = 0;
+        int repaired = 0;
+        while (true) {
+            List<Long> ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, RECONCILE_BATCH));
+            if (ids.isEmpty()) break;
+            List<Long> drifted = newTx.execute(status -> {
+                Map<Long, UserStats> stored = new HashMap<>();
+                userStatsRepository.findAllById(ids).forEach(s -> stored.put(s.getUserId(), s));
+                return recount(ids).values().stream()
+                        .filter(expected -> {
+                            UserStats current = stored.get(expected.getUserId());
+                            return current == null || !current.sameCounts(expected);
+                        })
+                        .map(UserStats::getUserId)
+                        .toList();
+            });
+            for (Long userId : drifted) {
+                newTx.execute(status -> rewrite(userId));
+            }
+            checked += ids.size();
+            repaired += drifted.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (repaired > 0) {
+            logger.info("User stats reconciliation repaired {} of {} users", repaired, checked);
+        }
+    }
+
+    /**
+     * Replaces the user's row with a recount. The row is locked before the
+     * recount reads, so a delta either committed first and is counted, or
+     * waits for the lock and is applied on top.
+     */
+    private UserStats rewrite(Long userId) {
+        UserStats locked = userStatsRepository.findForUpdate(userId).orElse(null);
+        UserStats fresh = recount(List.of(userId)).get(userId);
+        if (locked != null) {
+            locked.copyCounts(fresh);
+            return locked;
+        }
+        if (insert(fresh)) {
+            return fresh;
+        }
+        // Created concurrently from its own recount; that row is current
+        return userStatsRepository.findForUpdate(userId).orElseThrow();
+    }
+
+    /** Inserts the row unless the user already has one; returns whether it was inserted. */
+    private boolean insert(UserStats s) {
+        return JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT_ROW, s.getUserId(), s.getFollowersCount(),
+                s.getFollowingCount(), s.getFilmsCount(), s.getReviewsCount(), s.getListsCount(),
+                s.getFilmsThisYear(), s.getLikesCount(), s.getWatchedCount(), s.getWatchlistCount(),
+                s.getStatsYear(), s.getLastActivityAt(), s.getUpdatedAt()) == 1;
+    }
+
+    /** Counts from the source tables, one grouped query per counter. */
+    private Map<Long, UserStats> recount(List<Long> userIds) {
+        int year = currentYear();
+        Map<Long, UserStats> result = new HashMap<>();
+        for (Long id : userIds) {
+            UserStats s = new UserStats(id);
+            s.setStatsYear(year);
+            result.put(id, s);
+        }
+        for (Object[] row : reviewRepository.countStatsByUserIds(userIds, LocalDateTime.of(year, 1, 1, 0, 0))) {
+            UserStats s = result.get(((Number) row[0]).longValue());
+            s.setFilmsCount(toLong(row[1]));
+            s.setReviewsCount(toLong(row[2]));
+            s.setFilmsThisYear(toLong(row[3]));
+            s.setLastActivityAt(latest(s.getLastActivityAt(), (LocalDateTime) row[4]));
+        }
+        for (Object[] row : movieListRepository.countByUserIds(userIds)) {
+            UserStats s = result.get(((Number) row[0]).longValue());
+            s.setListsCount(toLong(row[1]));
+            s.setLastActivityAt(latest(s.getLastActivityAt(), (LocalDateTime) row[2]));
+        }
+        for (Object[] row : likeRepository.countByUserIds(userIds)) {
+            result.get(((Number) row[0]).longValue()).setLikesCount(toLong(row[1]));
+        }
+        for (Object[] row : watchedRepository.countByUserIds(userIds)) {
+            result.get(((Number) row[0]).longValue()).setWatchedCount(toLong(row[1]));
+        }
+        for (Object[] row : watchlistRepository.countByUserIds(userIds)) {
+            result.get(((Number) row[0]).longValue()).setWatchlistCount(toLong(row[1]));
+        }
+        for (Object[] row : userRepository.countFollowersByUserIds(userIds)) {
+            result.get(((Number) row[0]).longValue()).setFollowersCount(toLong(row[1]));
+        }
+        for (Object[] row : userRepository.countFollowingByUserIds(userIds)) {
+            result.get(((Number) row[0]).longValue()).setFollowingCount(toLong(row[1]));
+        }
+        return result;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static int currentYear() {
+        return LocalDateTime.now().getYear();
+    }
+}
@@ -0,0 +1,357 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.MovieMetadata;
+import com.moviereview.backend.model.Review;
+import com.moviereview.backend.model.YearInReview;
+import com.moviereview.backend.repository.MovieMetadataRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.repository.YearInReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Maintains the {@code user_year_stats} rollup behind the year-in-review
+ * page.
+ * <p>
+ * Diary counters (films, ratings, rewatches, entries per day) are applied
+ * as deltas inside the transaction that changes the entry; a missing row
+ * is built from a recount of that year instead. Totals that need TMDB
+ * metadata are recomputed in the background for rows flagged dirty, using
+ * the {@code movie_metadata} table as a cache so each film is fetched once.
+ * TMDB is called with no transaction open; the row is only locked to write
+ * the totals. A first row is inserted only if absent, so two requests
+ * building the same year do not collide on its unique key.
+ */
+@Service
+public class YearInReviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(YearInReviewService.class);
+    private static final int TOP = 25;
+    private static final int MAX_FETCHES_PER_PASS = 200;
+    private static final String INSERT_ROW = "INSERT INTO user_year_stats (user_id, stats_year, films_count, "
+            + "reviews_count, rewatch_count, rated_count, rating_sum, rating_counts, day_counts, minutes_watched, "
+            + "metadata_dirty, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_METADATA = "INSERT INTO movie_metadata (movie_id, runtime, genres, "
+            + "directors, fetched_at) VALUES (?, ?, ?, ?, ?)";
+    private static final TypeReference<LinkedHashMap<String, Integer>> COUNTS = new TypeReference<>() {
+    };
+
+    private final YearInReviewRepository yearRepository;
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final MovieMetadataRepository metadataRepository;
+    private final TmdbService tmdbService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTx;
+
+    /** The parts of a diary entry the rollup counts; {@code day} decides the year. */
+    public record Entry(LocalDate day, double rating, boolean rewatch, boolean hasContent) {
+        public static Entry of(Review review) {
+            LocalDate day = review.getWatchedDate() != null ? review.getWatchedDate()
+                    : review.getCreatedAt() != null ? review.getCreatedAt().toLocalDate() : LocalDate.now();
+            return new Entry(day, review.getRating(), review.isRewatch(), review.getContent() != null);
+        }
+    }
+
+    public YearInReviewService(YearInReviewRepository yearRepository, ReviewRepository reviewRepository,
+            UserRepository userRepository, MovieMetadataRepository metadataRepository, TmdbService tmdbService,
+            ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.yearRepository = yearRepository;
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.metadataRepository = metadataRepository;
+        this.tmdbService = tmdbService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The stored rollup, built from a recount the first time a year is asked
+     * for. Null when the user does not exist.
+     */
+    public YearInReview get(Long userId, int year) {
+        YearInReview stats = yearRepository.findByUserIdAndStatsYear(userId, year).orElse(null);
+        if (stats != null) {
+            return stats;
+        }
+        if (!userRepository.existsById(userId)) {
+            return null;
+        }
+        YearInReview built = newTx.execute(status -> {
+            YearInReview fresh = recount(userId, year);
+            return insert(fresh) ? fresh : null;
+        });
+        // Null when a concurrent request inserted the row first
+        return built != null ? built : yearRepository.findByUserIdAndStatsYear(userId, year).orElseThrow();
+    }
+
+    /**
+     * An entry was added ({@code before == null}), removed ({@code after ==
+     * null}) or edited. Must run in the writing transaction, after the write.
+     */
+    public void onEntryChanged(Long userId, Entry before, Entry after) {
+        if (Objects.equals(before, after)) return;
+        TreeSet<Integer> years = new TreeSet<>();
+        if (before != null) years.add(before.day().getYear());
+        if (after != null) years.add(after.day().getYear());
+        for (int year : years) {
+            YearInReview stats = yearRepository.findForUpdate(userId, year).orElse(null);
+            // The recount already sees this transaction's write
+            if (stats == null && insert(recount(userId, year))) continue;
+            if (stats == null) {
+                // Inserted concurrently from a recount that could not see this write
+                stats = yearRepository.findForUpdate(userId, year).orElseThrow();
+            }
+            if (before != null && before.day().getYear() == year) apply(stats, before, -1);
+            if (after != null && after.day().getYear() == year) apply(stats, after, 1);
+            // Only a film entering or leaving the year changes the TMDB totals
+            boolean sameFilmSet = before != null && after != null
+                    && before.day().getYear() == after.day().getYear();
+            if (!sameFilmSet) stats.setMetadataDirty(true);
+            stats.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    private static void apply(YearInReview stats, Entry e, int delta) {
+        stats.setFilmsCount(stats.getFilmsCount() + delta);
+        if (e.hasContent()) stats.setReviewsCount(stats.getReviewsCount() + delta);
+        if (e.rewatch()) stats.setRewatchCount(stats.getRewatchCount() + delta);
+        int bucket = ratingBucket(e.rating());
+        if (bucket >= 0) {
+            stats.setRatedCount(stats.getRatedCount() + delta);
+            stats.setRatingSum(stats.getRatingSum() + delta * e.rating());
+            int[] ratings = stats.getRatingCounts();
+            ratings[bucket] = Math.max(0, ratings[bucket] + delta);
+            stats.setRatingCounts(ratings);
+        }
+        int[] days = stats.getDayCounts();
+        int day = e.day().getDayOfYear() - 1;
+        days[day] = Math.max(0, days[day] + delta);
+        stats.setDayCounts(days);
+    }
+
+    private YearInReview recount(Long userId, int year) {
+        YearInReview stats = new YearInReview(userId, year);
+        stats.setRatingCounts(new int[YearInReview.RATING_BUCKETS]);
+        for (Object[] row : yearEntries(userId, year)) {
+            LocalDate watched = (LocalDate) row[0];
+            LocalDate day = watched != null ? watched : ((LocalDateTime) row[1]).toLocalDate();
+            apply(stats, new Entry(day, ((Number) row[2]).doubleValue(), (Boolean) row[3],
+                    ((Number) row[4]).intValue() == 1), 1);
+        }
+        return stats;
+    }
+
+    private List<Object[]> yearEntries(Long userId, int year) {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        return reviewRepository.findYearEntries(userId, from, to, from.atStartOfDay(), to.atStartOfDay());
+    }
+
+    /** Fills in runtime, genre and director totals for rows whose film set changed. */
+    @Scheduled(initialDelayString = "${year-stats.enrich.interval-ms:60000}",
+            fixedDelayString = "${year-stats.enrich.interval-ms:60000}",
+            scheduler = "batchScheduler")
+    public void enrichDirty() {
+        int[] budget = { MAX_FETCHES_PER_PASS };
+        for (YearInReview row : yearRepository.findTop50ByMetadataDirtyTrueOrderByUpdatedAtAsc()) {
+            if (budget[0] <= 0) break;
+            try {
+                enrich(row.getUserId(), row.getStatsYear(), budget);
+            } catch (RuntimeException e) {
+                logger.warn("Year stats enrichment failed for user {} / {}: {}", row.getUserId(),
+                        row.getStatsYear(), e.getMessage());
+            }
+        }
+    }
+
+    private void enrich(Long userId, int year, int[] budget) {
+        // Fetch and cache missing metadata first, holding no transaction or lock across TMDB calls
+        TreeSet<String> wanted = new TreeSet<>(movieIds(userId, year));
+        Map<String, MovieMetadata> metadata = new HashMap<>();
+        metadataRepository.findAllById(wanted).forEach(m -> metadata.put(m.getMovieId(), m));
+        boolean fetchedAll = true;
+        for (String movieId : wanted) {
+            if (metadata.containsKey(movieId)) continue;
+            if (budget[0]-- <= 0) {
+                fetchedAll = false;
+                break;
+            }
+            MovieMetadata fetched = fetch(movieId);
+            if (fetched == null) {
+                fetchedAll = false;
+                continue;
+            }
+            JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT_METADATA, fetched.getMovieId(), fetched.getRuntime(),
+                    fetched.getGenres(), fetched.getDirectors(), fetched.getFetchedAt());
+            metadata.put(movieId, fetched);
+        }
+        boolean complete = fetchedAll;
+
+        // Then lock the row only to total up the film set as it is now
+        newTx.executeWithoutResult(status -> {
+            YearInReview stats = yearRepository.findForUpdate(userId, year).orElse(null);
+            if (stats == null) return;
+            List<String> movieIds = movieIds(userId, year);
+            boolean missing = false;
+            long minutes = 0;
+            Map<String, Integer> genres = new HashMap<>();
+            Map<String, Integer> directors = new HashMap<>();
+            for (String movieId : movieIds) {
+                MovieMetadata m = metadata.get(movieId);
+                if (m == null) {
+                    missing = true;
+                    continue;
+                }
+                minutes += m.getRuntime();
+                count(m.getGenres(), genres);
+                count(m.getDirectors(), directors);
+            }
+            stats.setMinutesWatched(minutes);
+            stats.setTopGenres(toJson(top(genres)));
+            stats.setTopDirectors(toJson(top(directors)));
+            // Films TMDB could not answer for, or logged since the fetch, are picked up on a later pass
+            stats.setMetadataDirty(!complete || missing);
+            stats.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    private List<String> movieIds(Long userId, int year) {
+        List<String> movieIds = new ArrayList<>();
+        for (Object[] row : yearEntries(userId, year)) movieIds.add((String) row[5]);
+        return movieIds;
+    }
+
+    /** Inserts a freshly counted row unless the year already has one; returns whether it was inserted. */
+    private boolean insert(YearInReview s) {
+        return JdbcWrites.insertIfAbsent(jdbcTemplate, INSERT_ROW, s.getUserId(), s.getStatsYear(),
+                s.getFilmsCount(), s.getReviewsCount(), s.getRewatchCount(), s.getRatedCount(), s.getRatingSum(),
+                s.getRatingCountsColumn(), s.getDayCountsColumn(), s.getMinutesWatched(), s.isMetadataDirty(),
+                s.getUpdatedAt()) == 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MovieMetadata fetch(String movieId) {
+        Map<String, Object> movie = tmdbService.getMovie(movieId);
+        if (movie == null) return null;
+        int runtime = movie.get("runtime") instanceof Number n ? n.intValue() : 0;
+        List<String> genres = new ArrayList<>();
+        if (movie.get("genres") instanceof List<?> list) {
+            for (Object g : list) {
+                if (g instanceof Map<?, ?> genre && genre.get("name") != null) genres.add(genre.get("name").toString());
+            }
+        }
+        List<String> directors = new ArrayList<>();
+        if (movie.get("credits") instanceof Map<?, ?> credits && credits.get("crew") instanceof List<?> crew) {
+            for (Object c : crew) {
+                Map<String, Object> member = (Map<String, Object>) c;
+                if ("Director".equals(member.get("job")) && member.get("name") != null) {
+                    directors.add(member.get("name").toString());
+                }
+            }
+        }
+        return new MovieMetadata(movieId, runtime, truncate(String.join("|", genres), 500),
+                truncate(String.join("|", directors), 1000));
+    }
+
+    /** The response body of {@code /api/users/{id}/stats/{year}}, derived from the one row. */
+    public Map<String, Object> toResponse(YearInReview s) {
+        int[] days = s.getDayCounts();
+        int[] months = new int[12];
+        int longestStreak = 0;
+        int streak = 0;
+        int activeDays = 0;
+        LocalDate jan1 = LocalDate.of(s.getStatsYear(), 1, 1);
+        for (int d = 0; d < jan1.lengthOfYear(); d++) {
+            if (days[d] > 0) {
+                months[jan1.plusDays(d).getMonthValue() - 1] += days[d];
+                activeDays++;
+                longestStreak = Math.max(longestStreak, ++streak);
+            } else {
+                streak = 0;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("userId", s.getUserId());
+        result.put("year", s.getStatsYear());
+        result.put("filmsCount", s.getFilmsCount());
+        result.put("reviewsCount", s.getReviewsCount());
+        result.put("rewatchCount", s.getRewatchCount());
+        result.put("rewatchRatio", s.getFilmsCount() > 0 ? (double) s.getRewatchCount() / s.getFilmsCount() : 0.0);
+        result.put("averageRating", s.getRatedCount() > 0 ? s.getRatingSum() / s.getRatedCount() : null);
+        result.put("ratingDistribution", s.getRatingCounts());
+        result.put("filmsByMonth", months);
+        result.put("activeDays", activeDays);
+        result.put("longestStreak", longestStreak);
+        result.put("minutesWatched", s.getMinutesWatched());
+        result.put("topGenres", fromJson(s.getTopGenres()));
+        result.put("topDirectors", fromJson(s.getTopDirectors()));
+        result.put("metadataPending", s.isMetadataDirty());
+        return result;
+    }
+
+    /** Half-star bucket 0..9, or -1 for an unrated entry. */
+    private static int ratingBucket(double rating) {
+        if (rating <= 0) return -1;
+        return Math.min(YearInReview.RATING_BUCKETS, Math.max(1, (int) Math.round(rating * 2))) - 1;
+    }
+
+    private static void count(String names, Map<String, Integer> counts) {
+        if (names == null || names.isEmpty()) return;
+        for (String name : names.split("\\|")) counts.merge(name, 1, Integer::sum);
+    }
+
+    private static Map<String, Integer> top(Map<String, Integer> counts) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP)
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    private String toJson(Map<String, Integer> counts) {
+        try {
+            return objectMapper.writeValueAsString(counts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, Integer> fromJson(String json) {
+        if (json == null) return Map.of();
+        try {
+            return objectMapper.readValue(json, COUNTS);
+        } catch (JsonProcessingException e) {
+            return Map.of();
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -0,0 +1,545 @@
+package com.moviereview.backend;
+
+import com.moviereview.backend.model.Like;
+import com.moviereview.backend.model.MovieList;
+import com.moviereview.backend.model.MovieSummary;
+import com.moviereview.backend.model.Notification;
+import com.moviereview.backend.model.Review;
+import com.moviereview.backend.model.ReviewLike;
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.model.Watched;
+import com.moviereview.backend.model.Watchlist;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.MovieListRepository;
+import com.moviereview.backend.repository.MovieSummaryRepository;
+import com.moviereview.backend.repository.NotificationRepository;
+import com.moviereview.backend.repository.ReviewLikeRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.repository.WatchlistRepository;
+import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.ActivityWriteBuffer;
+import com.moviereview.backend.service.JdbcWrites;
+import com.moviereview.backend.service.ListBrowseService;
+import com.moviereview.backend.service.ListItemService;
+import com.moviereview.backend.service.ListTagService;
+import com.moviereview.backend.service.RecommendationService;
+import com.moviereview.backend.service.UserSearchIndex;
+import com.moviereview.backend.service.UserStatsService;
+import com.moviereview.backend.service.TmdbService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when an endpoint issues more SQL statements than its budget.
+ * Budgets are fixed numbers for a seeded graph of several users, so an
+ * N+1 regression shows up as a budget overrun.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querybudget",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jwt.version-cache-ttl-ms=3600000",
+        "activity-buffer.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryBudgetTest {
+
+    private static final String VIEWER = "viewer@budget.test";
+    private static final int FRIENDS = 4;
+    private static final int ENTRIES_PER_FRIEND = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewLikeRepository reviewLikeRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private WatchedRepository watchedRepository;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private MovieListRepository movieListRepository;
+
+    @Autowired
+    private ListItemService listItemService;
+
+    @Autowired
+    private ListTagService listTagService;
+
+    @Autowired
+    private ListBrowseService listBrowseService;
+
+    @Autowired
+    private MovieSummaryRepository movieSummaryRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ActivityLeaderboard leaderboard;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ActivityWriteBuffer writeBuffer;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TmdbService tmdbService;
+
+    private User viewer;
+    private String viewerToken;
+    private User friend;
+    private Review review;
+    private MovieList list;
+
+    @BeforeAll
+    void seed() throws Exception {
+        viewer = newUser(VIEWER, "Viewer");
+        viewerToken = jwtUtils.generateToken(viewer);
+        List<User> friends = new ArrayList<>();
+        for (int i = 0; i < FRIENDS; i++) {
+            User f = newUser("friend" + i + "@budget.test", "Friend " + i);
+            mockMvc.perform(post("/api/users/" + f.getId() + "/follow").with(asViewer()))
+                    .andExpect(status().isOk());
+            friends.add(f);
+            for (int m = 0; m < ENTRIES_PER_FRIEND; m++) {
+                String movieId = String.valueOf(100 + m);
+                Review r = new Review();
+                r.setUser(f);
+                r.setMovieId(movieId);
+                r.setMovieTitle("Movie " + m);
+                r.setContent("Review " + m);
+                r.setRating(3.5);
+                r.setTags(List.of("tag" + m));
+                reviewRepository.save(r);
+                likeRepository.save(new Like(f, movieId, "Movie " + m, "/p.jpg", 7.0, "2020-01-01"));
+                watchedRepository.save(new Watched(f, movieId, "Movie " + m, "/p.jpg", 7.0, "2020-01-01"));
+                watchlistRepository.save(new Watchlist(f, String.valueOf(200 + m), "Other " + m, "/p.jpg", 6.0,
+                        "2021-01-01"));
+            }
+            notificationRepository.save(new Notification(f.getName() + " started following you", "FOLLOW", viewer, f));
+            MovieList l = new MovieList();
+            l.setUser(f);
+            l.setName("List " + i);
+            l.setTags(i == 0 ? "Horror, Favourites" : "horror");
+            movieListRepository.save(l);
+            listItemService.replaceAll(l, List.of("100", "101", "102", "103", "104"));
+            listTagService.sync(l);
+            movieListRepository.save(l);
+            list = l;
+        }
+        friend = friends.get(0);
+        review = reviewRepository.findByUserId(friend.getId()).get(0);
+        for (User f : friends.subList(1, friends.size())) {
+            reviewLikeRepository.save(new ReviewLike(f, review));
+        }
+    }
+
+    private User newUser(String email, String name) {
+        User u = new User();
+        u.setEmail(email);
+        u.setName(name);
+        return userRepository.save(u);
+    }
+
+    /** Bearer token as sent by the frontend; its version check is cached after the first request. */
+    private RequestPostProcessor asViewer() {
+        return request -> {
+            request.addHeader("Authorization", "Bearer " + viewerToken);
+            return request;
+        };
+    }
+
+    private RequestPostProcessor asFriend() {
+        String token = jwtUtils.generateToken(friend);
+        return request -> {
+            request.addHeader("Authorization", "Bearer " + token);
+            return request;
+        };
+    }
+
+    private MvcResult assertBudget(int budget, RequestBuilder request, ResultMatcher... matchers) throws Exception {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andExpectAll(matchers).andReturn();
+        long statements = stats.getPrepareStatementCount();
+        assertTrue(statements <= budget, "expected at most " + budget + " statements but was " + statements);
+        return result;
+    }
+
+    @Test
+    void friendFeed() throws Exception {
+        // Review likes are fetched in one IN query; the friends' movie-like sets load together
+        assertBudget(4, get("/api/reviews/friends").with(asViewer()),
+                jsonPath("$.length()").value(FRIENDS * ENTRIES_PER_FRIEND));
+    }
+
+    @Test
+    void profileReviews() throws Exception {
+        // Review likes and like counts are one IN query each; movie likes load one set
+        assertBudget(5, get("/api/reviews/user/" + friend.getId()).with(asViewer()));
+    }
+
+    @Test
+    void repeatFollowInsertsNothing() throws Exception {
+        // A follow that lost the race to an identical one affects no row instead of failing
+        assertEquals(0, JdbcWrites.insertIfAbsent(jdbcTemplate,
+                "INSERT INTO user_followers (user_id, follower_id) VALUES (?, ?)", friend.getId(), viewer.getId()));
+        mockMvc.perform(post("/api/users/" + friend.getId() + "/follow").with(asViewer()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + friend.getId()).with(asViewer()))
+                .andExpect(jsonPath("$.followersCount").value(1));
+    }
+
+    @Test
+    void profileHeader() throws Exception {
+        // The first view loads both members' rating vectors
+        assertBudget(4, get("/api/users/" + friend.getId()).with(asViewer()),
+                jsonPath("$.followersCount").value(1),
+                jsonPath("$.isFollowing").value(true));
+        // Taste compatibility is then served from the pair cache
+        assertBudget(2, get("/api/users/" + friend.getId()).with(asViewer()),
+                jsonPath("$.tasteCompatibility.overlap").value(0));
+    }
+
+    @Test
+    void membersDirectory() throws Exception {
+        assertBudget(1, get("/api/users/all").param("sort", "followers"),
+                jsonPath("$.content.length()").value(FRIENDS + 1));
+        assertBudget(1, get("/api/users/all").param("sort", "recent").param("size", "2"),
+                jsonPath("$.content.length()").value(2),
+                jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void yearInReview() throws Exception {
+        String url = "/api/users/" + friend.getId() + "/stats/" + java.time.LocalDate.now().getYear();
+        // The first read builds the row from a recount; later reads are the one row
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertBudget(1, get(url),
+                jsonPath("$.filmsCount").value(ENTRIES_PER_FRIEND),
+                jsonPath("$.ratingDistribution[6]").value(ENTRIES_PER_FRIEND),
+                jsonPath("$.longestStreak").value(1));
+    }
+
+    @Test
+    void recommendations() throws Exception {
+        // Removed again afterwards so the viewer stays out of the activity leaderboards
+        Watched seed = watchedRepository.save(new Watched(viewer, "100", "Movie 0", "/p.jpg", 7.0, "2020-01-01"));
+        recommendationService.rebuild();
+
+        // Three recent-activity reads, the neighbour lists, two activity sets and the entries check
+        assertBudget(7, get("/api/me/recommendations").with(asViewer()),
+                jsonPath("$.length()").value(ENTRIES_PER_FRIEND - 1),
+                jsonPath("$[0].becauseMovieId").value("100"),
+                jsonPath("$[0].becauseTitle").value("Movie 0"));
+        watchedRepository.delete(seed);
+    }
+
+    @Test
+    void communityTrending() throws Exception {
+        // Served from the published snapshot
+        assertBudget(0, get("/api/movies/trending/community"));
+    }
+
+    @Test
+    void listDetail() throws Exception {
+        assertBudget(2, get("/api/lists/" + list.getId()),
+                jsonPath("$.movieIds.length()").value(ENTRIES_PER_FRIEND));
+    }
+
+    @Test
+    void listsContainingMovie() throws Exception {
+        // The counter row, then one page of lists with their authors
+        assertBudget(2, get("/api/movies/100/lists").param("size", "3"),
+                jsonPath("$.listCount").value(FRIENDS),
+                jsonPath("$.content.length()").value(3),
+                jsonPath("$.content[0].authorName").exists(),
+                jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void listsByTag() throws Exception {
+        // The tag by name, then one page of its postings joined to the lists
+        assertBudget(2, get("/api/lists").param("tag", " HORROR ").param("size", "3"),
+                jsonPath("$.content.length()").value(3),
+                jsonPath("$.hasNext").value(true));
+        assertBudget(1, get("/api/lists").param("tag", "unknown"),
+                jsonPath("$.content.length()").value(0));
+        assertBudget(1, get("/api/lists/tags"),
+                jsonPath("$[0].name").value("horror"),
+                jsonPath("$[0].listCount").value(FRIENDS),
+                jsonPath("$[1].name").value("favourites"),
+                jsonPath("$[1].listCount").value(1));
+    }
+
+    @Test
+    void hydratedList() throws Exception {
+        for (int m = 0; m < ENTRIES_PER_FRIEND - 1; m++) {
+            movieSummaryRepository.save(new MovieSummary(String.valueOf(100 + m), "Movie " + m, "/p.jpg",
+                    "2020-01-01", 7.0));
+        }
+        // The list with its author, a page of items, their summaries and the full id list for the editor
+        MvcResult first = assertBudget(4, get("/api/lists/" + list.getId() + "/hydrated").param("limit", "3"),
+                jsonPath("$.name").exists(),
+                jsonPath("$.movieIds.length()").value(ENTRIES_PER_FRIEND),
+                jsonPath("$.films.length()").value(3),
+                jsonPath("$.films[0].id").value("100"),
+                jsonPath("$.films[0].title").value("Movie 0"),
+                jsonPath("$.films[0].year").value(2020));
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+        // A film TMDB cannot answer for comes back without its details
+        assertBudget(3, get("/api/lists/" + list.getId() + "/hydrated")
+                        .param("limit", "3").param("after", cursor),
+                jsonPath("$.films.length()").value(2),
+                jsonPath("$.films[0].title").value("Movie 3"),
+                jsonPath("$.films[1].id").value("104"),
+                jsonPath("$.films[1].title").doesNotExist(),
+                jsonPath("$.nextCursor").doesNotExist());
+
+        // Only a read that asks to be counted is a view
+        listBrowseService.flushViews();
+        long views = movieListRepository.findById(list.getId()).orElseThrow().getViewCount();
+        mockMvc.perform(get("/api/lists/" + list.getId() + "/hydrated")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/lists/" + list.getId() + "/hydrated").param("view", "true"))
+                .andExpect(status().isOk());
+        listBrowseService.flushViews();
+        assertEquals(views + 1, movieListRepository.findById(list.getId()).orElseThrow().getViewCount());
+        movieSummaryRepository.deleteAll();
+    }
+
+    @Test
+    void listItemEdits() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/lists").with(asViewer())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Edits\",\"visibility\":\"private\",\"movieIds\":[\"1\",\"2\",\"3\",\"4\"]}"))
+                .andExpect(status().isOk()).andReturn();
+        Integer id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+        String items = "/api/lists/" + id + "/items";
+        mockMvc.perform(patch(items).with(asViewer())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ops\":[{\"type\":\"MOVE\",\"movieId\":\"4\",\"index\":0},"
+                        + "{\"type\":\"INSERT\",\"movieId\":\"5\",\"after\":\"2\"},"
+                        + "{\"type\":\"REMOVE\",\"movieId\":\"3\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filmCount").value(4));
+        MvcResult first = mockMvc.perform(get(items).param("limit", "3"))
+                .andExpect(jsonPath("$.items[0].movieId").value("4"))
+                .andExpect(jsonPath("$.items[1].movieId").value("1"))
+                .andExpect(jsonPath("$.items[2].movieId").value("2"))
+                .andReturn();
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+        mockMvc.perform(get(items).param("limit", "3").param("after", cursor))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].movieId").value("5"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Films sharing a rank are still each served once, in id order
+        jdbcTemplate.update("UPDATE movie_list_items SET item_rank = 7 WHERE list_id = ?", id);
+        MvcResult tied = mockMvc.perform(get(items).param("limit", "2"))
+                .andExpect(jsonPath("$.items[0].movieId").value("1"))
+                .andExpect(jsonPath("$.items[1].movieId").value("2"))
+                .andReturn();
+        cursor = JsonPath.read(tied.getResponse().getContentAsString(), "$.nextCursor");
+        mockMvc.perform(get(items).param("limit", "2").param("after", cursor))
+                .andExpect(jsonPath("$.items[0].movieId").value("4"))
+                .andExpect(jsonPath("$.items[1].movieId").value("5"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get(items).param("after", "7")).andExpect(status().isBadRequest());
+        mockMvc.perform(patch(items).with(asViewer())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ops\":[{\"type\":\"INSERT\",\"movieId\":\"1\"}]}"))
+                .andExpect(status().isConflict());
+
+        // A full save is diffed against the stored order
+        mockMvc.perform(put("/api/lists/" + id).with(asViewer())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"movieIds\":[\"5\",\"4\",\"1\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movieIds[0]").value("5"))
+                .andExpect(jsonPath("$.movieIds[1]").value("4"))
+                .andExpect(jsonPath("$.movieIds[2]").value("1"))
+                .andExpect(jsonPath("$.filmCount").value(3));
+        mockMvc.perform(delete("/api/lists/" + id).with(asViewer())).andExpect(status().isOk());
+    }
+
+    @Test
+    void publicLists() throws Exception {
+        // One page of rows with their authors; the films are never loaded
+        assertBudget(1, get("/api/lists/all").param("size", "3"),
+                jsonPath("$.content.length()").value(3),
+                jsonPath("$.content[0].filmCount").value(5),
+                jsonPath("$.content[0].previewMovieIds.length()").value(MovieList.PREVIEW_FILMS),
+                jsonPath("$.hasNext").value(true));
+        assertBudget(1, get("/api/lists/all").param("sort", "popular"),
+                jsonPath("$.content.length()").value(FRIENDS),
+                jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void userLists() throws Exception {
+        assertBudget(2, get("/api/lists/user/" + friend.getId()));
+    }
+
+    @Test
+    void notifications() throws Exception {
+        assertBudget(1, get("/api/notifications").with(asViewer()));
+    }
+
+    @Test
+    void activityTabs() throws Exception {
+        // Without a limit each tab serves a capped first page with its total
+        for (String kind : List.of("likes", "watched", "watchlist")) {
+            assertBudget(2, get("/api/" + kind + "/user/" + friend.getId()).with(asViewer()),
+                    jsonPath("$.items.length()").value(ENTRIES_PER_FRIEND),
+                    jsonPath("$.nextCursor").doesNotExist());
+        }
+    }
+
+    @Test
+    void activityTabPages() throws Exception {
+        String url = "/api/watched/user/" + friend.getId();
+        // Rows seeded through the repositories bypassed the counters
+        userStatsService.reconcile();
+        // Counter row + one index range per page, with the owner joined in
+        MvcResult first = mockMvc.perform(get(url).param("limit", "2").with(asViewer())).andReturn();
+        assertBudget(2, get(url).param("limit", "2").with(asViewer()),
+                jsonPath("$.items.length()").value(2),
+                jsonPath("$.total").value(ENTRIES_PER_FRIEND),
+                jsonPath("$.nextCursor").isString());
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+        assertBudget(1, get(url).param("limit", "4").param("cursor", cursor).with(asViewer()),
+                jsonPath("$.items.length()").value(ENTRIES_PER_FRIEND - 2),
+                jsonPath("$.total").doesNotExist(),
+                jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void batchStatus() throws Exception {
+        // The first request as this user loads their token version and activity sets
+        mockMvc.perform(get("/api/me/status").param("movieIds", "100").with(asFriend()));
+        // Flags come from memory; ratings are one query however many movies are asked about
+        assertBudget(1, get("/api/me/status").param("movieIds", "100,101,200,999").with(asFriend()),
+                jsonPath("$['100'].isLiked").value(true),
+                jsonPath("$['100'].isWatched").value(true),
+                jsonPath("$['100'].rating").value(3.5),
+                jsonPath("$['200'].inWatchlist").value(true),
+                jsonPath("$['999'].isLiked").value(false),
+                jsonPath("$['999'].rating").doesNotExist());
+    }
+
+    @Test
+    void likeToggle() throws Exception {
+        // Load the viewer's like set so the duplicate check is in memory
+        mockMvc.perform(get("/api/likes/500/check").with(asViewer())).andExpect(status().isOk());
+        // Buffered: nothing reaches the database until the flush
+        assertBudget(0, post("/api/likes").with(asViewer())
+                .header("Idempotency-Key", "like-500")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"movieId\":\"500\",\"title\":\"Retried\"}"));
+        // A client retry with the same key replays the first response
+        assertBudget(0, post("/api/likes").with(asViewer())
+                .header("Idempotency-Key", "like-500")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"movieId\":\"500\",\"title\":\"Retried\"}"),
+                jsonPath("$.message").value("Added to likes"));
+
+        // Unlike and like again inside the window: only the final state is written
+        long absorbed = writeBuffer.absorbedWrites();
+        mockMvc.perform(delete("/api/likes/500").with(asViewer())).andExpect(status().isOk());
+        mockMvc.perform(post("/api/likes").with(asViewer())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"movieId\":\"500\",\"title\":\"Retried\"}")).andExpect(status().isOk());
+        assertEquals(absorbed + 2, writeBuffer.absorbedWrites());
+        writeBuffer.flush();
+        assertTrue(likeRepository.existsByUserIdAndMovieId(viewer.getId(), "500"));
+    }
+
+    @Test
+    void reviewLikers() throws Exception {
+        assertBudget(1, get("/api/reviews/" + review.getId() + "/likes").with(asViewer()));
+    }
+
+    @Test
+    void leaderboards() throws Exception {
+        // Seeded rows bypass the write paths, so rebuild as at startup
+        leaderboard.load();
+        userSearchIndex.load();
+        assertBudget(0, get("/api/users/active"),
+                jsonPath("$.length()").value(FRIENDS),
+                jsonPath("$[0].activityCount").value(3 * ENTRIES_PER_FRIEND));
+        assertBudget(0, get("/api/movies/most-logged"),
+                jsonPath("$.length()").value(ENTRIES_PER_FRIEND),
+                jsonPath("$[0].entriesCount").value(FRIENDS));
+    }
+
+    @Test
+    void friendActivity() throws Exception {
+        assertBudget(1, get("/api/movies/100/friend-activity").with(asViewer()),
+                jsonPath("$.length()").value(FRIENDS),
+                jsonPath("$[0].status").value("LIKED"));
+        // Served from the per-(viewer, movie) cache
+        assertBudget(0, get("/api/movies/100/friend-activity").with(asViewer()),
+                jsonPath("$.length()").value(FRIENDS));
+    }
+}
@@ -0,0 +1,124 @@
+package com.moviereview.backend.bench;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.JwtAuthenticationFilter;
+import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.security.TokenVersionCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of the bearer-token auth path in
+ * {@link JwtAuthenticationFilter}. Not part of the test run; start it with
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.moviereview.backend.bench.JwtAuthBenchmark
+ * </pre>
+ * The GC profiler reports {@code gc.alloc.rate.norm}, the bytes allocated
+ * per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private String token;
+
+    @Setup
+    public void setup() {
+        UserRepository users = Mockito.mock(UserRepository.class);
+        Mockito.when(users.findTokenVersionById(Mockito.anyLong())).thenReturn(Optional.of(0));
+        TokenVersionCache versions = new TokenVersionCache(users, TimeUnit.HOURS.toMillis(1));
+
+        JwtUtils cachedJwt = new JwtUtils(TimeUnit.HOURS.toMillis(1));
+        JwtUtils uncachedJwt = new JwtUtils(0);
+        cachedFilter = new JwtAuthenticationFilter(cachedJwt, versions, users);
+        uncachedFilter = new JwtAuthenticationFilter(uncachedJwt, versions, users);
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bench@example.com");
+        token = cachedJwt.generateToken(user);
+
+        request = new MockHttpServletRequest("GET", "/api/reviews/friends");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    /** Repeat request with the same token: claims come from the verified-token cache. */
+    @Benchmark
+    public Object filterCachedClaims() throws Exception {
+        return authenticate(cachedFilter);
+    }
+
+    /** Every request verifies the signature, with the key and parser built once. */
+    @Benchmark
+    public Object filterVerifyEveryRequest() throws Exception {
+        return authenticate(uncachedFilter);
+    }
+
+    /** The previous path: key decoded and parser built per call, token parsed twice. */
+    @Benchmark
+    public Object rebuildKeyAndParseTwice() {
+        String subject = parseWithFreshParser(token).getSubject();
+        return parseWithFreshParser(token).getExpiration().after(new java.util.Date()) ? subject : null;
+    }
+
+    private Object authenticate(JwtAuthenticationFilter filter) throws Exception {
+        // The filter skips requests that already carry an authentication
+        SecurityContextHolder.clearContext();
+        request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static Claims parseWithFreshParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
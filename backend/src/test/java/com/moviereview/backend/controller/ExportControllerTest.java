@@ -0,0 +1,113 @@
+package com.moviereview.backend.controller;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.security.TokenVersionCache;
+import com.moviereview.backend.service.CustomUserDetailsService;
+import com.moviereview.backend.service.ExportService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class ExportControllerTest {
+
+        private static final String CSV = "id,movieId,title\r\n5,m5,Alien\r\n";
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private ExportService exportService;
+
+        @MockitoBean
+        private UserRepository userRepository;
+
+        @MockitoBean
+        private JwtUtils jwtUtils;
+
+        @MockitoBean
+        private CustomUserDetailsService customUserDetailsService;
+
+        @MockitoBean
+        private TokenVersionCache tokenVersionCache;
+
+        @Test
+        public void testExport_GzipIsAContentEncodingOfThePlainFile() throws Exception {
+                Authentication auth = signedIn();
+                Mockito.doAnswer(invocation -> {
+                        Writer out = invocation.getArgument(3);
+                        out.write(CSV);
+                        return null;
+                }).when(exportService).export(eq(5L), eq("likes"), eq(ExportService.Format.CSV), any(Writer.class));
+
+                MvcResult started = mockMvc.perform(get("/api/export/likes").param("gzip", "true").principal(auth))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                MvcResult result = mockMvc.perform(asyncDispatch(started))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=\"moviepulse-likes.csv\""))
+                                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                                .andReturn();
+
+                byte[] compressed = result.getResponse().getContentAsByteArray();
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                        assertEquals(CSV, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+        }
+
+        @Test
+        public void testExport_PlainByDefault() throws Exception {
+                Authentication auth = signedIn();
+                Mockito.doAnswer(invocation -> {
+                        Writer out = invocation.getArgument(3);
+                        out.write(CSV);
+                        return null;
+                }).when(exportService).export(eq(5L), eq("likes"), eq(ExportService.Format.CSV), any(Writer.class));
+
+                MvcResult started = mockMvc.perform(get("/api/export/likes").principal(auth))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(started))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                                .andExpect(content().string(CSV));
+        }
+
+        private Authentication signedIn() {
+                User user = new User();
+                user.setId(5L);
+                user.setEmail("test@example.com");
+                Mockito.when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                return new UsernamePasswordAuthenticationToken("test@example.com", null, List.of());
+        }
+}
@@ -3,9 +3,20 @@ package com.moviereview.backend.controller;
 import com.moviereview.backend.model.Review;
 import com.moviereview.backend.model.User;
 import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.ReviewLikeRepository;
 import com.moviereview.backend.repository.ReviewRepository;
 import com.moviereview.backend.repository.UserRepository;
 import com.moviereview.backend.security.JwtUtils;
+import com.moviereview.backend.security.TokenVersionCache;
+import com.moviereview.backend.service.ActivityLeaderboard;
+import com.moviereview.backend.service.ActivityWriteBuffer;
+import com.moviereview.backend.service.CommunityTrending;
+import com.moviereview.backend.service.TasteCompatibility;
+import com.moviereview.backend.service.FollowGraphIndex;
+import com.moviereview.backend.service.IdempotentRequests;
+import com.moviereview.backend.service.UserActivitySets;
+import com.moviereview.backend.service.UserStatsService;
+import com.moviereview.backend.service.YearInReviewService;
 import com.moviereview.backend.service.CustomUserDetailsService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -13,14 +24,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,12 +55,45 @@ public class ReviewControllerTest {
         @MockitoBean
         private LikeRepository likeRepository;
 
+        @MockitoBean
+        private ReviewLikeRepository reviewLikeRepository;
+
+        @MockitoBean
+        private FollowGraphIndex followGraphIndex;
+
+        @MockitoBean
+        private UserStatsService userStatsService;
+
         @MockitoBean
         private JwtUtils jwtUtils;
 
         @MockitoBean
         private CustomUserDetailsService customUserDetailsService;
 
+        @MockitoBean
+        private TokenVersionCache tokenVersionCache;
+
+        @MockitoBean
+        private ActivityLeaderboard activityLeaderboard;
+
+        @MockitoBean
+        private YearInReviewService yearInReviewService;
+
+        @MockitoBean
+        private UserActivitySets userActivitySets;
+
+        @MockitoBean
+        private IdempotentRequests idempotentRequests;
+
+        @MockitoBean
+        private ActivityWriteBuffer activityWriteBuffer;
+
+        @MockitoBean
+        private CommunityTrending communityTrending;
+
+        @MockitoBean
+        private TasteCompatibility tasteCompatibility;
+
         @Test
         public void testCheckReviewStatus_HasReview() throws Exception {
                 User user = new User();
@@ -97,4 +145,24 @@ public class ReviewControllerTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.hasReview").value(false));
         }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        public void testLikeReview_ConcurrentDuplicateIsConflict() throws Exception {
+                User user = new User();
+                user.setId(5L);
+                user.setEmail("test@example.com");
+
+                Mockito.when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+                Mockito.when(idempotentRequests.execute(Mockito.any(), Mockito.any(), Mockito.any()))
+                                .thenAnswer(i -> ((Supplier<ResponseEntity<?>>) i.getArgument(2)).get());
+                Mockito.when(reviewLikeRepository.insertIfAbsent(Mockito.eq(5L), Mockito.eq(1L), Mockito.any()))
+                                .thenThrow(new DataIntegrityViolationException("uk_review_likes_user_review"));
+
+                Authentication auth = Mockito.mock(Authentication.class);
+                Mockito.when(auth.getName()).thenReturn("test@example.com");
+
+                mockMvc.perform(post("/api/reviews/1/like").principal(auth))
+                                .andExpect(status().isConflict());
+        }
 }
@@ -0,0 +1,74 @@
+package com.moviereview.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityWriteBufferTest {
+
+    private static final UserActivitySets.Kind LIKED = UserActivitySets.Kind.LIKED;
+    private static final ActivityWriteBuffer.Movie MOVIE = new ActivityWriteBuffer.Movie("Alien", null, 8.0, null);
+
+    private JdbcTemplate jdbcTemplate;
+    private ActivityWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        buffer = new ActivityWriteBuffer(jdbcTemplate, mock(UserStatsService.class),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void rejectedRowIsDroppedAndTheRestAreWritten() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                if ("bad".equals(row[0])) throw new DataIntegrityViolationException("Data too long");
+            }
+            return new int[rows.size()];
+        });
+        buffer.add(LIKED, 1, "bad", MOVIE);
+        buffer.add(LIKED, 1, "1", MOVIE);
+        buffer.add(LIKED, 2, "2", MOVIE);
+
+        buffer.flush();
+
+        assertEquals(Map.of(), buffer.pendingFor(LIKED, 1));
+        assertEquals(Map.of(), buffer.pendingFor(LIKED, 2));
+        assertEquals(2, buffer.flushedWrites());
+        assertEquals(1, buffer.droppedWrites());
+    }
+
+    @Test
+    void transientFailureKeepsEveryRowPending() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new CannotAcquireLockException("busy"));
+        buffer.add(LIKED, 1, "1", MOVIE);
+        buffer.remove(LIKED, 1, "2");
+
+        buffer.flush();
+
+        assertEquals(Map.of("1", true, "2", false), buffer.pendingFor(LIKED, 1));
+        assertEquals(0, buffer.droppedWrites());
+    }
+
+    @Test
+    void overlongMovieFieldsAreCutToTheColumn() {
+        ActivityWriteBuffer.Movie movie = new ActivityWriteBuffer.Movie("x".repeat(300), "/p.jpg", null, null);
+
+        assertEquals(255, movie.title().length());
+        assertEquals("/p.jpg", movie.posterPath());
+    }
+}
@@ -0,0 +1,111 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.TrendingScore;
+import com.moviereview.backend.repository.TrendingScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommunityTrendingTest {
+
+    private TrendingScoreRepository trendingScoreRepository;
+    private JdbcTemplate jdbcTemplate;
+    private CommunityTrending trending;
+
+    @BeforeEach
+    void setUp() {
+        trendingScoreRepository = mock(TrendingScoreRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        trending = new CommunityTrending(trendingScoreRepository, jdbcTemplate,
+                mock(PlatformTransactionManager.class), 48);
+    }
+
+    @Test
+    void restoredScoreHalvesPerHalfLife() {
+        restore(new TrendingScore("1", 8.0, LocalDateTime.now().minusHours(48), "One", "/1.jpg"),
+                new TrendingScore("2", 8.0, LocalDateTime.now().minusHours(96), "Two", "/2.jpg"));
+
+        List<CommunityTrending.Trending> top = trending.top(10);
+
+        assertEquals(List.of("1", "2"), ids(top));
+        assertEquals(4.0, top.get(0).score(), 0.01);
+        assertEquals(2.0, top.get(1).score(), 0.01);
+        assertEquals("One", top.get(0).title());
+    }
+
+    @Test
+    void decayedAwayFilmsAreForgotten() {
+        // 10 half-lives: 8 / 1024 is below the floor
+        restore(new TrendingScore("1", 8.0, LocalDateTime.now().minusHours(480), null, null));
+
+        assertTrue(trending.top(10).isEmpty());
+    }
+
+    @Test
+    void freshEventsOutrankAnOlderHigherScore() {
+        restore(new TrendingScore("old", 3.0, LocalDateTime.now().minusHours(48), null, null));
+        trending.record(CommunityTrending.Signal.REVIEW, "new", "New", null);
+        trending.record(CommunityTrending.Signal.LIST_ADD, "list", null, null);
+        trending.record(CommunityTrending.Signal.LIKE, "liked", null, null);
+
+        trending.publish();
+
+        // REVIEW 2.0 > LIST_ADD 1.5 > 3.0 decayed to just under 1.5 > LIKE 1.0
+        assertEquals(List.of("new", "list", "old", "liked"), ids(trending.top(10)));
+        assertEquals(List.of("new", "list"), ids(trending.top(2)));
+    }
+
+    @Test
+    void eventsAccumulateAndKeepTheLatestTitle() {
+        trending.record(CommunityTrending.Signal.WATCHED, "1", null, null);
+        trending.record(CommunityTrending.Signal.LIKE, "1", "One", "/1.jpg");
+        trending.record(CommunityTrending.Signal.LIST_ADD, "1", null, null);
+
+        trending.publish();
+
+        CommunityTrending.Trending only = trending.top(10).get(0);
+        assertEquals(3.5, only.score(), 0.01);
+        assertEquals("One", only.title());
+        assertEquals("/1.jpg", only.posterPath());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkpointBatchInsertsLiveScores() {
+        restore(new TrendingScore("gone", 8.0, LocalDateTime.now().minusHours(480), null, null));
+        trending.record(CommunityTrending.Signal.REVIEW, "1", "One", "/1.jpg");
+
+        trending.checkpoint();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(trendingScoreRepository).deleteAllInBatch();
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        Object[] row = rows.getValue().get(0);
+        assertEquals("1", row[0]);
+        assertEquals(2.0, (double) row[1], 0.01);
+        assertEquals("One", row[3]);
+        assertEquals("/1.jpg", row[4]);
+    }
+
+    private void restore(TrendingScore... rows) {
+        when(trendingScoreRepository.findAll()).thenReturn(List.of(rows));
+        trending.load();
+    }
+
+    private static List<String> ids(List<CommunityTrending.Trending> entries) {
+        return entries.stream().map(CommunityTrending.Trending::movieId).toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.moviereview.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviereview.backend.model.Like;
+import com.moviereview.backend.model.Review;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import com.moviereview.backend.repository.WatchlistRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+
+    private static final long USER = 7L;
+
+    private ReviewRepository reviewRepository;
+    private LikeRepository likeRepository;
+    private WatchedRepository watchedRepository;
+    private WatchlistRepository watchlistRepository;
+    private ActivityWriteBuffer writeBuffer;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = Mockito.mock(ReviewRepository.class);
+        likeRepository = Mockito.mock(LikeRepository.class);
+        watchedRepository = Mockito.mock(WatchedRepository.class);
+        watchlistRepository = Mockito.mock(WatchlistRepository.class);
+        writeBuffer = Mockito.mock(ActivityWriteBuffer.class);
+        exportService = new ExportService(reviewRepository, likeRepository, watchedRepository, watchlistRepository,
+                Mockito.mock(EntityManager.class), new ObjectMapper(), writeBuffer);
+        when(reviewRepository.streamByUserIdOrderByCreatedAtAscIdAsc(USER)).thenAnswer(i -> Stream.of(
+                review(1L, "Heat", "Tense, \"long\" and great", 4.5),
+                review(2L, "=HYPERLINK(\"x\")", null, 3.0)));
+        when(likeRepository.streamByUserIdOrderByCreatedAtAscIdAsc(USER)).thenAnswer(i -> Stream.of(like(5L, "Alien")));
+        when(watchedRepository.streamByUserIdOrderByCreatedAtAscIdAsc(USER)).thenAnswer(i -> Stream.empty());
+        when(watchlistRepository.streamByUserIdOrderByCreatedAtAscIdAsc(USER)).thenAnswer(i -> Stream.empty());
+    }
+
+    @Test
+    void csvQuotesAndNeutralizesFormulas() throws Exception {
+        StringWriter out = new StringWriter();
+        exportService.export(USER, "reviews", ExportService.Format.CSV, out);
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,movieId,movieTitle,movieYear,rating,watchedDate,rewatch,containsSpoiler,ratingOnly,"
+                + "content,createdAt", lines[0]);
+        assertTrue(lines[1].startsWith("1,m1,Heat,1995,4.5,,false,false,false,\"Tense, \"\"long\"\" and great\","));
+        assertTrue(lines[2].startsWith("2,m2,\"'=HYPERLINK(\"\"x\"\")\",1995,3.0,"));
+        // Pending buffered toggles are written before reading
+        verify(writeBuffer).flushUser(USER);
+    }
+
+    @Test
+    void csvCellLeavesNumbersAlone() {
+        assertEquals("-1.5", ExportService.csvCell(-1.5));
+        assertEquals("'-1", ExportService.csvCell("-1"));
+        assertEquals("'@sum", ExportService.csvCell("@sum"));
+        assertEquals("plain", ExportService.csvCell("plain"));
+        assertEquals("\"a\nb\"", ExportService.csvCell("a\nb"));
+    }
+
+    @Test
+    void ndjsonAllTagsEachLineWithItsKind() throws Exception {
+        StringWriter out = new StringWriter();
+        exportService.export(USER, "all", ExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals("reviews", first.get("type").asText());
+        assertEquals("Tense, \"long\" and great", first.get("content").asText());
+        assertEquals(4.5, first.get("rating").asDouble());
+        JsonNode like = mapper.readTree(lines[2]);
+        assertEquals("likes", like.get("type").asText());
+        assertEquals("Alien", like.get("movieTitle").asText());
+        // NDJSON is data, not a spreadsheet: no formula prefix
+        assertEquals("=HYPERLINK(\"x\")", mapper.readTree(lines[1]).get("movieTitle").asText());
+    }
+
+    private static Review review(Long id, String title, String content, double rating) {
+        Review r = new Review();
+        r.setId(id);
+        r.setMovieId("m" + id);
+        r.setMovieTitle(title);
+        r.setMovieYear("1995");
+        r.setRating(rating);
+        r.setContent(content);
+        r.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return r;
+    }
+
+    private static Like like(Long id, String title) {
+        Like l = new Like(null, "m" + id, title, "/a.jpg", 8.0, "1979-05-25");
+        l.setId(id);
+        return l;
+    }
+}
@@ -0,0 +1,53 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.MovieListRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ListBrowseServiceTest {
+
+    @Test
+    void viewsRecordedDuringAFlushAreNotLost() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        AtomicLong written = new AtomicLong();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(i -> {
+            List<Object[]> rows = i.getArgument(1);
+            rows.forEach(row -> written.addAndGet((Long) row[0]));
+            return new int[rows.size()];
+        });
+        ListBrowseService service = new ListBrowseService(mock(MovieListRepository.class), jdbcTemplate,
+                mock(PlatformTransactionManager.class));
+
+        int threads = 4;
+        int viewsEach = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int v = 0; v < viewsEach; v++) service.recordView(v % 3);
+                done.countDown();
+            });
+        }
+        while (done.getCount() > 0) service.flushViews();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        service.flushViews();
+
+        assertEquals((long) threads * viewsEach, written.get());
+    }
+}
@@ -0,0 +1,91 @@
+package com.moviereview.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.moviereview.backend.service.ListItemService.GAP;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ListItemServiceTest {
+
+    @Test
+    void betweenSplitsTheGapOrStepsOutFromAnOpenEnd() {
+        assertEquals(GAP, ListItemService.between(null, null));
+        assertEquals(5 * GAP, ListItemService.between(null, 6 * GAP));
+        assertEquals(7 * GAP, ListItemService.between(6 * GAP, null));
+        assertEquals(GAP + GAP / 2, ListItemService.between(GAP, 2 * GAP));
+        assertEquals(11L, ListItemService.between(10L, 12L));
+    }
+
+    @Test
+    void betweenAdjacentRanksHasNoRoom() {
+        assertNull(ListItemService.between(10L, 11L));
+    }
+
+    @Test
+    void newListIsSpacedByGap() {
+        assertArrayEquals(new long[] { GAP, 2 * GAP, 3 * GAP }, ListItemService.place(List.of("a", "b", "c"), Map.of()));
+    }
+
+    @Test
+    void unchangedOrderKeepsEveryRank() {
+        Map<String, Long> current = ranks("a", 5L, "b", 9L, "c", 40L);
+
+        assertArrayEquals(new long[] { 5, 9, 40 }, ListItemService.place(List.of("a", "b", "c"), current));
+    }
+
+    @Test
+    void movedFilmIsTheOnlyOneOutsideTheIncreasingRun() {
+        Map<String, Long> current = ranks("a", GAP, "b", 2 * GAP, "c", 3 * GAP, "d", 4 * GAP);
+
+        // a, b, d keep their ranks; c goes halfway between a and b
+        assertArrayEquals(new long[] { GAP, GAP + GAP / 2, 2 * GAP, 4 * GAP },
+                ListItemService.place(List.of("a", "c", "b", "d"), current));
+        // d to the front: a, b, c stay, d steps out before a
+        assertArrayEquals(new long[] { 0, GAP, 2 * GAP, 3 * GAP },
+                ListItemService.place(List.of("d", "a", "b", "c"), current));
+    }
+
+    @Test
+    void reversedListKeepsOneAnchor() {
+        Map<String, Long> current = ranks("a", GAP, "b", 2 * GAP, "c", 3 * GAP);
+
+        assertArrayEquals(new long[] { -GAP, 0, GAP }, ListItemService.place(List.of("c", "b", "a"), current));
+    }
+
+    @Test
+    void newFilmsAreSpreadEvenlyInTheirGap() {
+        Map<String, Long> current = ranks("a", 100L, "b", 400L);
+
+        assertArrayEquals(new long[] { 100, 200, 300, 400, 400 + GAP, 400 + 2 * GAP },
+                ListItemService.place(List.of("a", "x", "y", "b", "z", "w"), current));
+    }
+
+    @Test
+    void exactlyEnoughRoomStillFits() {
+        Map<String, Long> current = ranks("a", 10L, "b", 12L);
+
+        assertArrayEquals(new long[] { 10, 11, 12 }, ListItemService.place(List.of("a", "x", "b"), current));
+    }
+
+    @Test
+    void gapTooSmallRenumbersTheWholeList() {
+        Map<String, Long> current = ranks("a", 10L, "b", 11L, "c", 50L);
+
+        assertArrayEquals(new long[] { GAP, 2 * GAP, 3 * GAP, 4 * GAP },
+                ListItemService.place(List.of("a", "x", "b", "c"), current));
+    }
+
+    private static Map<String, Long> ranks(Object... pairs) {
+        Map<String, Long> ranks = new HashMap<>();
+        for (int k = 0; k < pairs.length; k += 2) {
+            ranks.put((String) pairs[k], (Long) pairs[k + 1]);
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,81 @@
+package com.moviereview.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieIdSetTest {
+
+    @Test
+    void randomAddsAndRemovesMatchAHashSet() {
+        List<String> pool = new ArrayList<>();
+        for (int i = 0; i < 400; i++) pool.add(String.valueOf(i));
+        // Leading zeros must not alias their numeric twins
+        pool.addAll(List.of("00", "007", "0603", "0000000000000000001"));
+        // Non-numeric and out-of-range ids take the fallback set
+        pool.addAll(List.of("", "tt0133093", "custom-1", "-5", "12a", "9223372036854775807", "1234567890123456789"));
+        pool.add("999999999999999999");
+
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            UserActivitySets.MovieIdSet set = UserActivitySets.MovieIdSet.of(List.of());
+            Set<String> expected = new HashSet<>();
+            for (int op = 0; op < 5_000; op++) {
+                String id = pool.get(random.nextInt(pool.size()));
+                if (random.nextInt(3) == 0) {
+                    set.remove(id);
+                    expected.remove(id);
+                } else {
+                    set.add(id);
+                    expected.add(id);
+                }
+                if (op % 250 == 0) assertSame(expected, set, pool);
+            }
+            assertSame(expected, set, pool);
+        }
+    }
+
+    @Test
+    void removingTheHeadOfARunThatWrapsKeepsTheRest() {
+        // An empty set has eight slots; these ids all hash to the last one,
+        // so they probe into slots 7, 0 and 1
+        List<String> wrapping = new ArrayList<>();
+        for (long id = 1; wrapping.size() < 3; id++) {
+            if (home(id, 8) == 7) wrapping.add(String.valueOf(id));
+        }
+        UserActivitySets.MovieIdSet set = UserActivitySets.MovieIdSet.of(List.of());
+        wrapping.forEach(set::add);
+
+        set.remove(wrapping.get(0));
+        assertFalse(set.contains(wrapping.get(0)));
+        assertTrue(set.contains(wrapping.get(1)));
+        assertTrue(set.contains(wrapping.get(2)));
+
+        set.remove(wrapping.get(1));
+        assertTrue(set.contains(wrapping.get(2)));
+        set.add(wrapping.get(0));
+        assertTrue(set.contains(wrapping.get(0)));
+        set.remove(wrapping.get(2));
+        assertTrue(set.contains(wrapping.get(0)));
+        assertFalse(set.contains(wrapping.get(2)));
+    }
+
+    /** Same home slot as MovieIdSet.slot before probing. */
+    private static int home(long id, int capacity) {
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & (capacity - 1);
+    }
+
+    private static void assertSame(Set<String> expected, UserActivitySets.MovieIdSet set, List<String> pool) {
+        for (String id : pool) {
+            assertEquals(expected.contains(id), set.contains(id), id);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.MovieNeighbour;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.MovieNeighbourRepository;
+import com.moviereview.backend.repository.ReviewRepository;
+import com.moviereview.backend.repository.WatchedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the neighbour job ({@code toMatrix} and {@code NeighbourTask}) over
+ * small hand-built interaction sets by capturing the rows it would store,
+ * and the seed merge of {@code recommendationsFor} over stub neighbours.
+ */
+class RecommendationServiceTest {
+
+    private LikeRepository likeRepository;
+    private WatchedRepository watchedRepository;
+    private ReviewRepository reviewRepository;
+    private MovieNeighbourRepository neighbourRepository;
+    private UserActivitySets activitySets;
+    private JdbcTemplate jdbcTemplate;
+    private RecommendationService service;
+
+    private final List<Object[]> likes = new ArrayList<>();
+    private final List<Object[]> watched = new ArrayList<>();
+    private final List<Object[]> reviews = new ArrayList<>();
+    private final List<Object[]> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        likeRepository = mock(LikeRepository.class);
+        watchedRepository = mock(WatchedRepository.class);
+        reviewRepository = mock(ReviewRepository.class);
+        neighbourRepository = mock(MovieNeighbourRepository.class);
+        activitySets = mock(UserActivitySets.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new RecommendationService(likeRepository, watchedRepository, reviewRepository, neighbourRepository,
+                activitySets, mock(ActivityWriteBuffer.class), jdbcTemplate, mock(PlatformTransactionManager.class));
+
+        when(likeRepository.streamInteractions()).thenAnswer(i -> likes.stream());
+        when(watchedRepository.streamInteractions()).thenAnswer(i -> watched.stream());
+        when(reviewRepository.streamInteractions()).thenAnswer(i -> reviews.stream());
+        // The job reuses its batch list, so copy the rows out on every call
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(i -> {
+            List<Object[]> rows = i.getArgument(1);
+            stored.addAll(rows);
+            return new int[rows.size()];
+        });
+    }
+
+    @Test
+    void foldsInteractionsAndScoresByShrunkCosine() {
+        // Member 1: likes A (weight 2), watched B (1), an unrated entry on B changes nothing
+        like(1, "1", "A");
+        watch(1, "2", "B");
+        review(1, "2", 0);
+        // Member 2: watched A (1), liked and watched B (folded to 2), watched C (1)
+        watch(2, "1", null);
+        like(2, "2", null);
+        watch(2, "2", null);
+        watch(2, "3", "C");
+        // Member 3: rated A 5 stars (2), watched C (1); a non-TMDB id is skipped
+        review(3, "1", 5.0);
+        watch(3, "3", null);
+        watch(3, "custom-1", "Custom");
+
+        service.rebuild();
+
+        // |A| = 3, |B| = sqrt(5), |C| = sqrt(2); two shared members shrink by 2 / (2 + 5)
+        double ab = 4 / (3 * Math.sqrt(5)) * 2 / 7;
+        double ac = 3 / (3 * Math.sqrt(2)) * 2 / 7;
+        // B and C share only member 2, below the two-member minimum
+        assertEquals(4, stored.size());
+        assertRow(stored.get(0), "1", "3", ac, 2, "C");
+        assertRow(stored.get(1), "1", "2", ab, 2, "B");
+        assertRow(stored.get(2), "2", "1", ab, 2, "A");
+        assertRow(stored.get(3), "3", "1", ac, 2, "A");
+    }
+
+    @Test
+    void membersWithTooManyFilmsAreLeftOut() {
+        watch(1, "1", null);
+        watch(1, "2", null);
+        watch(2, "1", null);
+        watch(2, "2", null);
+        // Member 3 would make the overlap three, but has logged 3001 films
+        for (int film = 1; film <= 3001; film++) watch(3, String.valueOf(film), null);
+
+        service.rebuild();
+
+        assertEquals(2, stored.size());
+        // Two members, weight 1 each: cosine 1, shrunk by 2 / 7
+        assertRow(stored.get(0), "1", "2", 2.0 / 7, 2, null);
+        assertRow(stored.get(1), "2", "1", 2.0 / 7, 2, null);
+    }
+
+    @Test
+    void memberAtTheFilmLimitStillCounts() {
+        watch(1, "1", null);
+        watch(1, "2", null);
+        watch(2, "1", null);
+        watch(2, "2", null);
+        for (int film = 1; film <= 3000; film++) watch(3, String.valueOf(film), null);
+
+        service.rebuild();
+
+        Object[] first = stored.get(0);
+        assertEquals("1", first[0]);
+        assertEquals("2", first[1]);
+        assertEquals(3, first[3]);
+    }
+
+    @Test
+    void keepsTheTopThirtyNeighboursBestFirst() {
+        // Film j (1..35) is watched together with film 1000 by j + 1 members of its own;
+        // everyone weighs 1, so cosine is sqrt(s / M) and grows with the overlap s
+        List<Object[]> rows = new ArrayList<>();
+        int member = 0;
+        for (int j = 1; j <= 35; j++) {
+            for (int s = 0; s <= j; s++) {
+                member++;
+                rows.add(new Object[] { (long) member, "1000", null, null });
+                rows.add(new Object[] { (long) member, String.valueOf(j), null, null });
+            }
+        }
+        // Shuffled so neighbours reach the top-K insertion in no particular order
+        Collections.shuffle(rows, new Random(7));
+        watched.addAll(rows);
+
+        service.rebuild();
+
+        List<Object[]> top = stored.stream().filter(r -> "1000".equals(r[0])).toList();
+        assertEquals(RecommendationService.K, top.size());
+        for (int k = 0; k < top.size(); k++) {
+            int j = 35 - k;
+            int shared = j + 1;
+            double expected = Math.sqrt(shared / (double) member) * shared / (shared + 5.0);
+            assertRow(top.get(k), "1000", String.valueOf(j), expected, shared, null);
+        }
+    }
+
+    @Test
+    void mergesSeedsByRecencyAndStrongestSignal() {
+        LocalDateTime now = LocalDateTime.now();
+        when(likeRepository.findRecentMovies(eq(9L), any())).thenReturn(rows(
+                new Object[] { "1", "One", now }));
+        when(reviewRepository.findRecentMovies(eq(9L), any())).thenReturn(rows(
+                new Object[] { "2", "Two", now.minusDays(1), 3.0 },
+                // Rated below three stars: not a seed
+                new Object[] { "3", "Three", now.minusDays(3), 2.0 }));
+        when(watchedRepository.findRecentMovies(eq(9L), any())).thenReturn(rows(
+                // Also liked: keeps the like's weight and its place
+                new Object[] { "1", "One", now.minusDays(2) }));
+        List<MovieNeighbour> neighbours = List.of(
+                neighbour("1", "10", 0.4, "Ten"),
+                neighbour("1", "11", 0.2, "Eleven"),
+                neighbour("1", "13", 0.1, "Thirteen"),
+                neighbour("2", "10", 0.5, "Ten"),
+                neighbour("2", "1", 0.9, "One"),
+                neighbour("2", "12", 0.3, "Twelve"),
+                neighbour("3", "14", 0.9, "Fourteen"));
+        when(neighbourRepository.findByMovieIdIn(anyCollection())).thenAnswer(i -> {
+            Collection<String> ids = i.getArgument(0);
+            return neighbours.stream().filter(n -> ids.contains(n.getMovieId())).toList();
+        });
+        when(activitySets.contains(eq(UserActivitySets.Kind.LIKED), anyLong(), eq("11"))).thenReturn(true);
+        when(reviewRepository.findEntriesIn(eq(9L), anyCollection())).thenReturn(rows(
+                new Object[] { "13", 3.0, 0 }));
+
+        List<RecommendationService.Recommendation> recs = service.recommendationsFor(9L, 10);
+
+        // Seed 1 weighs 1.5, seed 2 weighs 1.0 * 0.9 for coming second
+        assertEquals(2, recs.size());
+        assertEquals("10", recs.get(0).movieId());
+        assertEquals(1.5 * 0.4 + 0.9 * 0.5, recs.get(0).score(), 1e-9);
+        assertEquals("1", recs.get(0).becauseMovieId());
+        assertEquals("One", recs.get(0).becauseTitle());
+        assertEquals("12", recs.get(1).movieId());
+        assertEquals(0.9 * 0.3, recs.get(1).score(), 1e-9);
+        assertEquals("Two", recs.get(1).becauseTitle());
+        assertTrue(recs.stream().noneMatch(r -> r.movieId().equals("14")));
+    }
+
+    private void like(long userId, String movieId, String title) {
+        likes.add(new Object[] { userId, movieId, title, null });
+    }
+
+    private void watch(long userId, String movieId, String title) {
+        watched.add(new Object[] { userId, movieId, title, null });
+    }
+
+    private void review(long userId, String movieId, double rating) {
+        reviews.add(new Object[] { userId, movieId, rating, null, null });
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static MovieNeighbour neighbour(String movieId, String neighbourId, double score, String title) {
+        MovieNeighbour n = mock(MovieNeighbour.class);
+        when(n.getMovieId()).thenReturn(movieId);
+        when(n.getNeighbourId()).thenReturn(neighbourId);
+        when(n.getScore()).thenReturn(score);
+        when(n.getTitle()).thenReturn(title);
+        return n;
+    }
+
+    /** A stored row: [movieId, neighbourId, score, shared, title, poster]. */
+    private static void assertRow(Object[] row, String movieId, String neighbourId, double score, int shared,
+            String title) {
+        assertEquals(movieId, row[0]);
+        assertEquals(neighbourId, row[1]);
+        assertEquals(score, (double) row[2], 1e-6);
+        assertEquals(shared, row[3]);
+        assertEquals(title, row[4]);
+    }
+}
@@ -0,0 +1,128 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.UserSuggestion;
+import com.moviereview.backend.repository.LikeRepository;
+import com.moviereview.backend.repository.UserRepository;
+import com.moviereview.backend.repository.UserSuggestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuggestionServiceTest {
+
+    private FollowGraphIndex followGraph;
+    private LikeRepository likeRepository;
+    private UserSuggestionRepository suggestionRepository;
+    private JdbcTemplate jdbcTemplate;
+    private SuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        followGraph = new FollowGraphIndex(Mockito.mock(UserRepository.class), transactionManager);
+        likeRepository = Mockito.mock(LikeRepository.class);
+        suggestionRepository = Mockito.mock(UserSuggestionRepository.class);
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        suggestionService = new SuggestionService(followGraph, likeRepository, suggestionRepository, jdbcTemplate,
+                transactionManager);
+
+        // 1 follows 2 and 3; both follow 4, only 2 follows 5
+        followGraph.follow(1, 2);
+        followGraph.follow(1, 3);
+        followGraph.follow(2, 4);
+        followGraph.follow(3, 4);
+        followGraph.follow(2, 5);
+        likes(Map.of(1L, List.of("10", "11", "12"), 5L, List.of("10", "11", "12"), 4L, List.of("99")));
+    }
+
+    @Test
+    void sharedTasteOutranksOneExtraMutual() {
+        Map<Long, List<Object[]>> stored = refreshAll();
+
+        List<Object[]> forOne = stored.get(1L);
+        assertEquals(2, forOne.size());
+        // 5: one mutual plus identical likes (1 + 3 * 1.0); 4: two mutuals, nothing shared
+        assertRow(forOne.get(0), 5L, 1, 3, 4.0);
+        assertRow(forOne.get(1), 4L, 2, 0, 2.0);
+    }
+
+    @Test
+    void userWithoutCandidatesGetsTheSelfMarker() {
+        Map<Long, List<Object[]>> stored = refreshAll();
+
+        // 2 and 3 only reach 4 and 5, who follow nobody
+        assertEquals(1, stored.get(2L).size());
+        assertRow(stored.get(2L).get(0), 2L, 0, 0, 0.0);
+        assertRow(stored.get(3L).get(0), 3L, 0, 0, 0.0);
+    }
+
+    @Test
+    void storedMarkerIsNotRecomputedOnRead() {
+        when(suggestionRepository.findByUserIdOrderByScoreDesc(1L))
+                .thenReturn(List.of(new UserSuggestion(1L, 1L, 0, 0, 0)));
+
+        assertTrue(suggestionService.suggestionsFor(1L, 10).isEmpty());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void readDropsCandidatesFollowedSinceTheLastPass() {
+        when(suggestionRepository.findByUserIdOrderByScoreDesc(1L)).thenReturn(List.of(
+                new UserSuggestion(1L, 5L, 1, 3, 4.0),
+                new UserSuggestion(1L, 4L, 2, 0, 2.0)));
+        followGraph.follow(1, 5);
+
+        List<UserSuggestion> result = suggestionService.suggestionsFor(1L, 10);
+
+        assertEquals(List.of(4L), result.stream().map(UserSuggestion::getCandidateId).toList());
+    }
+
+    /** Runs a full pass and returns the inserted rows grouped by owner, in insertion order. */
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<Object[]>> refreshAll() {
+        suggestionService.refreshAll();
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        Map<Long, List<Object[]>> byUser = new HashMap<>();
+        for (Object[] row : rows.getValue()) {
+            byUser.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add(row);
+        }
+        return byUser;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void likes(Map<Long, List<String>> liked) {
+        when(likeRepository.findMovieIdsByUserIds(anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Long userId : (List<Long>) invocation.getArgument(0)) {
+                for (String movieId : liked.getOrDefault(userId, List.of())) {
+                    rows.add(new Object[] { userId, movieId });
+                }
+            }
+            return rows;
+        });
+    }
+
+    private static void assertRow(Object[] row, long candidateId, int mutual, int shared, double score) {
+        assertEquals(candidateId, row[1]);
+        assertEquals(mutual, row[2]);
+        assertEquals(shared, row[3]);
+        assertEquals(score, (double) row[4], 1e-9);
+    }
+}
@@ -0,0 +1,123 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TasteCompatibilityTest {
+
+    @Test
+    void identicalRatingsAgreeFully() {
+        TasteCompatibility.Result r = compare(ratings("1", 2.0, "2", 3.0, "3", 4.0),
+                ratings("1", 2.0, "2", 3.0, "3", 4.0));
+
+        assertEquals(3, r.overlap());
+        assertEquals(1.0, r.pearson());
+        assertEquals(1.0, r.cosine());
+        // 50 * (1 + 1 * 3 / (3 + 5)), shrunk towards the middle for a small overlap
+        assertEquals(69, r.score());
+    }
+
+    @Test
+    void reversedRatingsCorrelateNegativelyButStayCosineClose() {
+        TasteCompatibility.Result r = compare(ratings("1", 2.0, "2", 3.0, "3", 4.0),
+                ratings("1", 4.0, "2", 3.0, "3", 2.0));
+
+        assertEquals(-1.0, r.pearson());
+        // (32 + 36 + 32) / (16 + 36 + 64) in half stars
+        assertEquals(0.862, r.cosine());
+        assertEquals(31, r.score());
+    }
+
+    @Test
+    void flatRaterHasNoCorrelation() {
+        TasteCompatibility.Result r = compare(ratings("1", 3.0, "2", 3.0, "3", 3.0),
+                ratings("1", 2.0, "2", 3.0, "3", 4.0));
+
+        assertEquals(0.0, r.pearson());
+        assertEquals(0.965, r.cosine());
+        assertEquals(50, r.score());
+    }
+
+    @Test
+    void smallOverlapGivesNoScoreButKeepsFavorites() {
+        TasteCompatibility.Result r = compare(ratings("1", 5.0, "2", 3.0, "7", 1.0),
+                ratings("1", 4.5, "2", 3.0, "9", 1.0));
+
+        assertEquals(2, r.overlap());
+        assertNull(r.pearson());
+        assertNull(r.cosine());
+        assertNull(r.score());
+        assertEquals(List.of("1"), r.sharedFavorites());
+    }
+
+    @Test
+    void favoritesAreTheSixBestSharedByCombinedRating() {
+        Object[] x = new Object[18];
+        Object[] y = new Object[18];
+        double[] theirs = { 4.0, 5.0, 4.5, 5.0, 4.0, 4.5, 5.0, 4.0, 3.0 };
+        for (int k = 0; k < theirs.length; k++) {
+            x[2 * k] = y[2 * k] = String.valueOf(k + 1);
+            x[2 * k + 1] = 5.0;
+            y[2 * k + 1] = theirs[k];
+        }
+
+        TasteCompatibility.Result r = compare(ratings(x), ratings(y));
+
+        // Ties keep the lower id; film 9 is only a favourite of one of them
+        assertEquals(List.of("2", "4", "7", "3", "6", "1"), r.sharedFavorites());
+    }
+
+    @Test
+    void vectorKeepsTheLatestRatingAndSkipsNonTmdbIds() {
+        TasteCompatibility.Vector v = TasteCompatibility.Vector.of(ratings("20", 2.0, "custom-1", 5.0, "10", 3.5,
+                "20", 4.0), 0);
+
+        assertEquals(2, v.movieIds.length);
+        assertEquals(10L, v.movieIds[0]);
+        assertEquals(7, v.halfStars[0]);
+        assertEquals(20L, v.movieIds[1]);
+        assertEquals(8, v.halfStars[1]);
+    }
+
+    @Test
+    void changedRatingsAreReloadedOnNextRead() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.findRatings(1L)).thenReturn(ratings("1", 2.0, "2", 3.0, "3", 4.0));
+        when(reviewRepository.findRatings(2L)).thenReturn(ratings("1", 2.0, "2", 3.0, "3", 4.0));
+        TasteCompatibility taste = new TasteCompatibility(reviewRepository);
+
+        assertEquals(1.0, taste.between(1, 2).pearson());
+        assertEquals(1.0, taste.between(2, 1).pearson());
+        verify(reviewRepository, times(1)).findRatings(1L);
+
+        when(reviewRepository.findRatings(2L)).thenReturn(ratings("1", 4.0, "2", 3.0, "3", 2.0));
+        taste.onRatingsChanged(2);
+
+        assertEquals(-1.0, taste.between(1, 2).pearson());
+        verify(reviewRepository, times(1)).findRatings(1L);
+        verify(reviewRepository, times(2)).findRatings(2L);
+    }
+
+    private static TasteCompatibility.Result compare(List<Object[]> x, List<Object[]> y) {
+        return TasteCompatibility.compare(TasteCompatibility.Vector.of(x, 0), TasteCompatibility.Vector.of(y, 0));
+    }
+
+    /** [movieId, rating] rows from alternating arguments. */
+    private static List<Object[]> ratings(Object... pairs) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int k = 0; k < pairs.length; k += 2) {
+            rows.add(new Object[] { pairs[k], pairs[k + 1] });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,53 @@
+package com.moviereview.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TtlCacheTest {
+
+    @Test
+    void entryPastItsDeadlineIsGone() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 60_000);
+        cache.put("live", "a");
+        cache.putUntil("dead", "b", System.currentTimeMillis() - 1);
+
+        assertEquals("a", cache.get("live"));
+        assertNull(cache.get("dead"));
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>(3, 60_000);
+        cache.put(1, 1);
+        cache.putUntil(2, 2, 0);
+        cache.put(3, 3);
+
+        cache.put(4, 4);
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.get(1));
+        assertEquals(4, cache.get(4));
+    }
+
+    @Test
+    void fullCacheWithNothingExpiredStartsOver() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>(2, 60_000);
+        cache.put(1, 1);
+        cache.put(2, 2);
+
+        cache.put(3, 3);
+
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.get(3));
+    }
+
+    @Test
+    void nonPositiveTtlCachesNothing() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 0);
+        cache.put("k", "v");
+
+        assertNull(cache.get("k"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.moviereview.backend.service;
+
+import com.moviereview.backend.model.User;
+import com.moviereview.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTest {
+
+    private FollowGraphIndex followGraph;
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        followGraph = mock(FollowGraphIndex.class);
+        when(followGraph.followingIds(anyLong())).thenReturn(new long[0]);
+        index = new UserSearchIndex(mock(UserRepository.class), followGraph, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void exactMatchBeatsThousandsOfLowerIdSubstringMatches() {
+        for (long id = 1; id <= 6000; id++) {
+            index.put(user(id, "Joanna " + id, "joanna" + id + "@example.com"));
+        }
+        index.put(user(90_000, "Ann", "ann@example.com"));
+        index.put(user(90_001, "Annabel Lee", "annabel@example.com"));
+
+        List<UserSearchIndex.Entry> result = index.search("ann", null, 3);
+
+        assertEquals(List.of(90_000L, 90_001L), result.subList(0, 2).stream().map(UserSearchIndex.Entry::id).toList());
+    }
+
+    @Test
+    void shortPrefixQueryReachesHighIds() {
+        for (long id = 1; id <= 6000; id++) {
+            index.put(user(id, "Zed Ab" + id, "z" + id + "@example.com"));
+        }
+        index.put(user(90_000, "Ab", "ab@example.com"));
+
+        assertEquals(90_000L, index.search("ab", null, 1).get(0).id());
+    }
+
+    @Test
+    void tierOrderIsExactPrefixWordSubstring() {
+        index.put(user(1, "Marianne", "m1@example.com"));
+        index.put(user(2, "Jo Anne", "m2@example.com"));
+        index.put(user(3, "Anneliese", "m3@example.com"));
+        index.put(user(4, "Anne", "m4@example.com"));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(index.search("anne", null, 10)));
+    }
+
+    @Test
+    void followedMemberRanksFirstWithinATier() {
+        index.put(user(1, "Sam Carter", "s1@example.com"));
+        index.put(user(2, "Sam Porter", "s2@example.com"));
+        when(followGraph.followingIds(99L)).thenReturn(new long[] { 2 });
+
+        assertEquals(List.of(2L, 1L), ids(index.search("sam", 99L, 10)));
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        index.put(user(1, "Zoë Kravitz", "zk@example.com"));
+
+        assertEquals(List.of(1L), ids(index.search("ZOE", null, 10)));
+    }
+
+    private static List<Long> ids(List<UserSearchIndex.Entry> entries) {
+        return entries.stream().map(UserSearchIndex.Entry::id).toList();
+    }
+
+    private static User user(long id, String name, String email) {
+        User u = new User();
+        u.setId(id);
+        u.setName(name);
+        u.setEmail(email);
+        return u;
+    }
+}
@@ -20,6 +20,8 @@ const ListDetailPage = () => {
     const [editing, setEditing] = useState(false);
     const [posterCache, setPosterCache] = useState({});
     const [menuOpen, setMenuOpen] = useState(false);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const menuRef = useRef(null);
 
     useEffect(() => {
@@ -28,37 +30,55 @@ const ListDetailPage = () => {
         return () => document.removeEventListener("mousedown", handler);
     }, []);
 
+    const addFilms = (films) => {
+        setMovies(prev => [...prev, ...films]);
+        setPosterCache(prev => {
+            const cache = { ...prev };
+            films.forEach(m => { cache[String(m.id)] = m.poster_path; });
+            return cache;
+        });
+    };
+
     useEffect(() => {
         const headers = token ? { Authorization: `Bearer ${token}` } : {};
-        fetch(`${API_BASE_URL}/api/lists/${id}`, { headers })
+        setMovies([]);
+        setPosterCache({});
+        // The list with its first page of films, titles and posters included; this read counts as the view
+        fetch(`${API_BASE_URL}/api/lists/${id}/hydrated?view=true`, { headers })
             .then(r => r.ok ? r.json() : null)
-            .then(async data => {
+            .then(data => {
                 if (!data) { setLoading(false); return; }
-                setList(data);
+                const { films, nextCursor: cursor, ...listData } = data;
+                setList(listData);
+                addFilms(films || []);
+                setNextCursor(cursor ?? null);
                 // fetch author
                 if (data.authorId) {
                     fetch(`${API_BASE_URL}/api/users/${data.authorId}`, { headers })
                         .then(r => r.ok ? r.json() : null)
                         .then(u => setAuthor(u));
                 }
-                // fetch movie details
-                const movieDetails = await Promise.all(
-                    (data.movieIds || []).map(mid =>
-                        fetch(`${API_BASE_URL}/api/movies/${mid}`)
-                            .then(r => r.ok ? r.json() : null)
-                            .catch(() => null)
-                    )
-                );
-                const valid = movieDetails.filter(Boolean);
-                setMovies(valid);
-                const cache = {};
-                valid.forEach(m => { cache[String(m.id)] = m.poster_path; });
-                setPosterCache(cache);
                 setLoading(false);
             })
             .catch(() => setLoading(false));
     }, [id, token]);
 
+    const loadMore = () => {
+        if (nextCursor == null || loadingMore) return;
+        setLoadingMore(true);
+        fetch(`${API_BASE_URL}/api/lists/${id}/hydrated?after=${encodeURIComponent(nextCursor)}`, {
+            headers: token ? { Authorization: `Bearer ${token}` } : {},
+        })
+            .then(r => r.ok ? r.json() : null)
+            .then(data => {
+                if (data) {
+                    addFilms(data.films || []);
+                    setNextCursor(data.nextCursor ?? null);
+                }
+            })
+            .finally(() => setLoadingMore(false));
+    };
+
     const isOwn = user && list && String(list.authorId) === String(user.id);
 
     const handleTogglePrivate = async () => {
@@ -128,17 +148,29 @@ const ListDetailPage = () => {
                     )}
 
                     {/* Film count */}
-                    <div className="ldp-film-count">{movies.length} film{movies.length !== 1 ? "s" : ""}</div>
+                    <div className="ldp-film-count">{list.filmCount} film{list.filmCount !== 1 ? "s" : ""}</div>
 
                     {/* Poster grid */}
                     <div className="ldp-grid">
                         {movies.map((movie, i) => (
                             <div key={movie.id} className="ldp-grid-item">
                                 {list.ranked && <div className="ldp-rank">{i + 1}</div>}
-                                <MoviePoster movie={movie} showTitleTooltip={true} />
+                                {movie.title ? (
+                                    <MoviePoster movie={movie} showTitleTooltip={true} />
+                                ) : (
+                                    // TMDB did not answer in time; reloading the list picks the film up
+                                    <div className="ldp-grid-placeholder" onClick={() => navigate(`/movie/${movie.id}`)}>
+                                        Details not loaded yet
+                                    </div>
+                                )}
                             </div>
                         ))}
                     </div>
+                    {nextCursor != null && (
+                        <button className="ldp-load-more" onClick={loadMore} disabled={loadingMore}>
+                            {loadingMore ? "Loading..." : "Load more"}
+                        </button>
+                    )}
                 </div>
 
                 {/* ── Sidebar ── */}
@@ -1,4 +1,4 @@
-import { useState, useRef } from "react";
+import { useState, useRef, useEffect } from "react";
 import { useNavigate } from "react-router-dom";
 import Navbar from "./Navbar";
 import { useAuth } from "../context/AuthContext";
@@ -218,20 +218,31 @@ export const EditListModal = ({ token, list, posterCache, onClose, onSaved }) =>
     const [searchTimer, setSearchTimer] = useState(null);
     const { draggingIdx, handleMouseDown } = useDragSort(selectedFilms, setSelectedFilms);
 
-    // Fetch titles/posters for existing films
-    useState(() => {
-        (list.movieIds || []).forEach(async id => {
-            try {
-                const r = await fetch(`${API_BASE_URL}/api/movies/${id}`);
-                if (r.ok) {
-                    const m = await r.json();
-                    setSelectedFilms(prev => prev.map(f =>
-                        String(f.id) === String(id) ? { ...f, title: m.title, poster_path: m.poster_path } : f
-                    ));
+    // Titles and posters for the existing films, a page of the hydrated list at a time
+    useEffect(() => {
+        if (!(list.movieIds || []).length) return;
+        let cancelled = false;
+        const headers = token ? { Authorization: `Bearer ${token}` } : {};
+        (async () => {
+            let after = null;
+            do {
+                const query = after != null ? `?after=${encodeURIComponent(after)}&limit=200` : "?limit=200";
+                const r = await fetch(`${API_BASE_URL}/api/lists/${list.id}/hydrated${query}`, { headers });
+                if (!r.ok) return;
+                const page = await r.json();
+                const byId = {};
+                (page.films || []).forEach(m => { if (m.title) byId[String(m.id)] = m; });
+                if (!cancelled) {
+                    setSelectedFilms(prev => prev.map(f => {
+                        const m = byId[String(f.id)];
+                        return m ? { ...f, title: m.title, poster_path: m.poster_path } : f;
+                    }));
                 }
-            } catch {}
-        });
-    }, []);
+                after = page.nextCursor ?? null;
+            } while (after != null && !cancelled);
+        })().catch(() => {});
+        return () => { cancelled = true; };
+    }, [list.id]);
 
     const handleTagKey = (e) => {
         if ((e.key === "Tab" || e.key === "Enter") && tagInput.trim()) {
@@ -374,15 +385,47 @@ const ListsPage = () => {
     const [search, setSearch] = useState("");
     const [showTypePicker, setShowTypePicker] = useState(false);
     const [showModal, setShowModal] = useState(false);
+    const [sort, setSort] = useState("recent");
+    const [page, setPage] = useState(0);
+    const [hasNext, setHasNext] = useState(false);
+    const [tag, setTag] = useState(null);
+    const [facets, setFacets] = useState([]);
+
+    useEffect(() => {
+        fetch(`${API_BASE_URL}/api/lists/tags?limit=20`)
+            .then(r => r.ok ? r.json() : [])
+            .then(data => setFacets(Array.isArray(data) ? data : []))
+            .catch(() => setFacets([]));
+    }, []);
 
-    useState(() => {
-        fetch(`${API_BASE_URL}/api/lists/all`, {
+    useEffect(() => {
+        setLoading(page === 0);
+        const url = tag
+            ? `${API_BASE_URL}/api/lists?tag=${encodeURIComponent(tag)}&page=${page}&size=24`
+            : `${API_BASE_URL}/api/lists/all?sort=${sort}&page=${page}&size=24`;
+        fetch(url, {
             headers: token ? { Authorization: `Bearer ${token}` } : {},
         })
-            .then(r => r.ok ? r.json() : [])
-            .then(data => { setLists(data); setLoading(false); })
+            .then(r => r.ok ? r.json() : { content: [], hasNext: false })
+            .then(data => {
+                setLists(prev => page === 0 ? data.content : [...prev, ...data.content]);
+                setHasNext(data.hasNext);
+                setLoading(false);
+            })
             .catch(() => setLoading(false));
-    }, [token]);
+    }, [token, sort, page, tag]);
+
+    const changeSort = (next) => {
+        if (next === sort && !tag) return;
+        setSort(next);
+        setTag(null);
+        setPage(0);
+    };
+
+    const changeTag = (next) => {
+        setTag(next === tag ? null : next);
+        setPage(0);
+    };
 
     const filtered = lists.filter(l =>
         !search ||
@@ -407,8 +450,22 @@ const ListsPage = () => {
                 <div className="lists-page-search-row">
                     <input className="lists-page-search" type="text" placeholder="Search lists..."
                         value={search} onChange={e => setSearch(e.target.value)} />
+                    <div className="lists-page-sort">
+                        <button className={!tag && sort === "recent" ? "active" : ""} onClick={() => changeSort("recent")}>Recent</button>
+                        <button className={!tag && sort === "popular" ? "active" : ""} onClick={() => changeSort("popular")}>Popular</button>
+                    </div>
                 </div>
 
+                {facets.length > 0 && (
+                    <div className="lists-page-facets">
+                        {facets.map(f => (
+                            <button key={f.name} className={tag === f.name ? "active" : ""} onClick={() => changeTag(f.name)}>
+                                {f.name} <span>{f.listCount}</span>
+                            </button>
+                        ))}
+                    </div>
+                )}
+
                 {loading ? (
                     <div className="lists-page-loading">Loading lists...</div>
                 ) : filtered.length === 0 ? (
@@ -418,7 +475,7 @@ const ListsPage = () => {
                 ) : (
                     <>
                         <div className="lists-page-section-label">
-                            {search ? "SEARCH RESULTS" : "ALL LISTS"}
+                            {search ? "SEARCH RESULTS" : tag ? `TAGGED ${tag.toUpperCase()}` : sort === "popular" ? "POPULAR LISTS" : "ALL LISTS"}
                         </div>
                         <div className="lists-page-grid">
                             {filtered.map(list => (
@@ -431,7 +488,8 @@ const ListsPage = () => {
                                         <div className="lists-page-card-meta">
                                             <span>{list.filmCount} film{list.filmCount !== 1 ? "s" : ""}</span>
                                             {list.tags && list.tags.split(",").filter(Boolean).map(t => (
-                                                <span key={t} className="lists-page-tag">{t.trim()}</span>
+                                                <span key={t} className="lists-page-tag"
+                                                    onClick={e => { e.stopPropagation(); changeTag(t.trim().toLowerCase()); }}>{t.trim()}</span>
                                             ))}
                                         </div>
                                     </div>
@@ -447,6 +505,11 @@ const ListsPage = () => {
                                 </div>
                             ))}
                         </div>
+                        {hasNext && (
+                            <button className="lists-page-load-more" onClick={() => setPage(p => p + 1)}>
+                                Load more
+                            </button>
+                        )}
                     </>
                 )}
             </div>
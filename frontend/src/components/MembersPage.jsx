@@ -5,6 +5,7 @@ import { useAuth } from '../context/AuthContext';
 import './MembersPage.css';
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080';
+const PAGE_SIZE = 48;
 
 const MembersPage = () => {
     const navigate = useNavigate();
@@ -12,21 +13,57 @@ const MembersPage = () => {
     const [members, setMembers] = useState([]);
     const [loading, setLoading] = useState(true);
     const [searchQuery, setSearchQuery] = useState('');
+    const [searchResults, setSearchResults] = useState(null);
     const [followingIds, setFollowingIds] = useState(new Set());
+    const [sort, setSort] = useState('followers');
+    const [page, setPage] = useState(0);
+    const [hasNext, setHasNext] = useState(false);
+    const [loadingMore, setLoadingMore] = useState(false);
+
+    const fetchPage = (sortKey, pageNum) => {
+        const headers = token ? { 'Authorization': `Bearer ${token}` } : {};
+        return fetch(`${API_BASE_URL}/api/users/all?sort=${sortKey}&page=${pageNum}&size=${PAGE_SIZE}`, { headers })
+            .then(r => r.ok ? r.json() : { content: [], hasNext: false });
+    };
 
     useEffect(() => {
         const headers = token ? { 'Authorization': `Bearer ${token}` } : {};
+        setLoading(true);
         Promise.all([
-            fetch(`${API_BASE_URL}/api/users/all`, { headers }).then(r => r.ok ? r.json() : []),
+            fetchPage(sort, 0),
             user ? fetch(`${API_BASE_URL}/api/users/${user.id}/following-ids`, { headers }).then(r => r.ok ? r.json() : []) : Promise.resolve([]),
-        ]).then(([allUsers, followingIdsList]) => {
-            setMembers(allUsers);
+        ]).then(([firstPage, followingIdsList]) => {
+            setMembers(firstPage.content || []);
+            setPage(0);
+            setHasNext(!!firstPage.hasNext);
             if (Array.isArray(followingIdsList)) {
                 setFollowingIds(new Set(followingIdsList.map(String)));
             }
             setLoading(false);
         }).catch(() => setLoading(false));
-    }, [user, token]);
+    }, [user, token, sort]);
+
+    useEffect(() => {
+        const q = searchQuery.trim();
+        if (!q) { setSearchResults(null); return; }
+        const timer = setTimeout(() => {
+            fetch(`${API_BASE_URL}/api/users/search?query=${encodeURIComponent(q)}`)
+                .then(r => r.ok ? r.json() : [])
+                .then(setSearchResults)
+                .catch(() => setSearchResults([]));
+        }, 250);
+        return () => clearTimeout(timer);
+    }, [searchQuery]);
+
+    const loadMore = () => {
+        setLoadingMore(true);
+        fetchPage(sort, page + 1).then(next => {
+            setMembers(prev => [...prev, ...(next.content || [])]);
+            setPage(page + 1);
+            setHasNext(!!next.hasNext);
+            setLoadingMore(false);
+        }).catch(() => setLoadingMore(false));
+    };
 
     const handleFollow = async (e, memberId) => {
         e.stopPropagation();
@@ -51,13 +88,8 @@ const MembersPage = () => {
         } catch (err) { console.error(err); }
     };
 
-    const filtered = members.filter(m =>
-        (!user || String(m.id) !== String(user.id)) &&
-        (!searchQuery || m.name?.toLowerCase().includes(searchQuery.toLowerCase()))
-    );
-
-    // Sort: most followers first
-    const sorted = [...filtered].sort((a, b) => (b.followersCount || 0) - (a.followersCount || 0));
+    // Pages arrive already sorted by the server; search results come from the search endpoint
+    const sorted = (searchResults ?? members).filter(m => !user || String(m.id) !== String(user.id));
 
     return (
         <div className="members-page">
@@ -75,6 +107,15 @@ const MembersPage = () => {
                         value={searchQuery}
                         onChange={e => setSearchQuery(e.target.value)}
                     />
+                    <select
+                        className="members-sort"
+                        value={sort}
+                        onChange={e => setSort(e.target.value)}
+                    >
+                        <option value="followers">Most followed</option>
+                        <option value="films">Most films</option>
+                        <option value="recent">Recently active</option>
+                    </select>
                 </div>
 
                 {loading ? (
@@ -124,6 +165,11 @@ const MembersPage = () => {
                                 );
                             })}
                         </div>
+                        {!searchResults && hasNext && (
+                            <button className="members-load-more" onClick={loadMore} disabled={loadingMore}>
+                                {loadingMore ? 'Loading...' : 'Load more'}
+                            </button>
+                        )}
                     </>
                 )}
             </div>
@@ -44,6 +44,7 @@ const MovieDetails = () => {
   const [isWatched, setIsWatched] = useState(false);
   const [isWatchedHovered, setIsWatchedHovered] = useState(false);
   const [friendActivity, setFriendActivity] = useState([]);
+  const [movieLists, setMovieLists] = useState({ listCount: 0, content: [] });
   const [isReviewModalOpen, setIsReviewModalOpen] = useState(false);
   const [userRating, setUserRating] = useState(0);
   const [userReview, setUserReview] = useState(null);
@@ -130,6 +131,15 @@ const MovieDetails = () => {
       }
   }, [user, movie]);
 
+  // Public lists featuring this film
+  useEffect(() => {
+      if (!movie) return;
+      fetch(`${API_BASE_URL}/api/movies/${movie.id}/lists?size=3`)
+          .then(res => (res.ok ? res.json() : null))
+          .then(data => setMovieLists(data && Array.isArray(data.content) ? data : { listCount: 0, content: [] }))
+          .catch(err => console.error('Error fetching lists for movie:', err));
+  }, [movie]);
+
   // Sync watchlist state when changed from MoviePoster three-dot menu
   useEffect(() => {
       const handler = (e) => {
@@ -1190,6 +1200,20 @@ const MovieDetails = () => {
           </div>
           )}
 
+          {movieLists.listCount > 0 && (
+          <div className="movie-lists-section">
+             <div className="activity-header">
+                <span className="activity-title">Appears in {movieLists.listCount} {movieLists.listCount === 1 ? 'list' : 'lists'}</span>
+             </div>
+             {movieLists.content.map(list => (
+                <div key={list.id} className="movie-lists-item" onClick={() => navigate(`/lists/${list.id}`)}>
+                   <span className="movie-lists-name">{list.name}</span>
+                   <span className="movie-lists-meta">by {list.authorName} • {list.filmCount} films</span>
+                </div>
+             ))}
+          </div>
+          )}
+
         </div>
       </div>
       {isReviewModalOpen && (
@@ -3,6 +3,7 @@ import { Eye, Heart, MoreHorizontal, Star } from 'lucide-react';
 import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import ReviewModal from './ReviewModal';
+import { fetchMovieStatus } from './movieStatus';
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080';
 const IMAGE_BASE_URL = 'https://image.tmdb.org/t/p/w500';
@@ -66,20 +67,10 @@ const MoviePoster = ({
             const token = localStorage.getItem('token');
             if (!token) return;
 
-            const headers = { 'Authorization': `Bearer ${token}` };
-
-            const [likeRes, watchedRes] = await Promise.all([
-                fetch(`${API_BASE_URL}/api/likes/${movie.id}/check`, { headers }),
-                fetch(`${API_BASE_URL}/api/watched/${movie.id}/check`, { headers })
-            ]);
-
-            if (likeRes.ok) {
-                const data = await likeRes.json();
-                setInternalIsLiked(data.isLiked);
-            }
-            if (watchedRes.ok) {
-                const data = await watchedRes.json();
-                setInternalIsWatched(data.isWatched);
+            const status = await fetchMovieStatus(movie.id);
+            if (status) {
+                setInternalIsLiked(status.isLiked);
+                setInternalIsWatched(status.isWatched);
             }
             setStatusChecked(true);
         } catch (error) {
@@ -227,10 +218,10 @@ const MoviePoster = ({
         const headers = { 'Authorization': `Bearer ${token}` };
         Promise.all([
             fetch(`${API_BASE_URL}/api/reviews/movie/${movie.id}/check`, { headers }).then(r => r.ok ? r.json() : null).catch(() => null),
-            fetch(`${API_BASE_URL}/api/watchlist/${movie.id}/check`, { headers }).then(r => r.ok ? r.json() : null).catch(() => null),
-        ]).then(([reviewData, watchlistData]) => {
+            fetchMovieStatus(movie.id).catch(() => null),
+        ]).then(([reviewData, status]) => {
             if (reviewData?.rating) setMenuRating(reviewData.rating);
-            if (watchlistData?.inWatchlist !== undefined) setInternalIsWatchlisted(watchlistData.inWatchlist);
+            if (status?.inWatchlist !== undefined) setInternalIsWatchlisted(status.inWatchlist);
             setExistingReview(reviewData || null);
         });
     }, [showMenu]);
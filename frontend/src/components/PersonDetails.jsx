@@ -3,6 +3,7 @@ import { useParams, useNavigate, useLocation } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import Navbar from './Navbar';
 import MoviePoster from './MoviePoster';
+import { fetchAllActivity } from './activityPages';
 import './PersonDetails.css';
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL;
@@ -56,10 +57,7 @@ const PersonDetails = () => {
     // Fetch user's watched movies
     useEffect(() => {
         if (!user || !token) return;
-        fetch(`${API_BASE_URL}/api/watched/user/${user.id}`, {
-            headers: { 'Authorization': `Bearer ${token}` }
-        })
-        .then(r => r.ok ? r.json() : [])
+        fetchAllActivity('watched', user.id)
         .then(data => {
             const ids = new Set(data.map(w => String(w.movieId || w.tmdbId || w.id)));
             setWatchedIds(ids);
@@ -5,6 +5,7 @@ import ReviewCard from './ReviewCard';
 import MoviePoster from './MoviePoster';
 import ReviewModal from './ReviewModal';
 import { NewListModal, EditListModal } from './ListsPage';
+import { fetchActivityPage, fetchAllActivity, useActivityPages } from './activityPages';
 import { Heart, Clock, Star, Film, Grid, List as ListIcon, User, UserPlus, UserMinus, BarChart2 } from 'lucide-react';
 import './ProfileTabs.css';
 
@@ -207,13 +208,9 @@ export const ProfileOverview = () => {
     if (!user) return;
     const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
 
-    const fetchProfileWatched = isOwnProfile
-      ? fetch(`${API_BASE_URL}/api/watched`, { headers })
-      : fetch(`${API_BASE_URL}/api/watched/user/${user.id}`, { headers });
-
     Promise.all([
       fetch(`${API_BASE_URL}/api/users/${user.id}/favorites`, { headers }).then(r => r.ok ? r.json() : []),
-      fetchProfileWatched.then(r => r.ok ? r.json() : []),
+      fetchActivityPage('watched', user.id, { limit: 5 }).then(page => page.items).catch(() => []),
       fetch(`${API_BASE_URL}/api/reviews/user/${user.id}`, { headers }).then(r => r.ok ? r.json() : []),
     ]).then(([favIds, watchedData, reviewsData]) => {
       // Favorites
@@ -522,10 +519,10 @@ export const ProfileFilms = () => {
   const user = profileUser || authUser;
   const navigate = useNavigate();
 
-  const [watchedMovies, setWatchedMovies] = useState([]);
+  const watched = useActivityPages('watched', user?.id);
+  const watchedMovies = watched.items;
   const [reviews, setReviews] = useState([]);
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState(null);
+  const [reviewsLoading, setReviewsLoading] = useState(true);
   const [ratingFilter, setRatingFilter] = useState(null); // null=all, 'none'=unrated, [lo,hi]=range
   const [sortBy, setSortBy] = useState('added');
 
@@ -538,22 +535,15 @@ export const ProfileFilms = () => {
 
   useEffect(() => {
     if (!user) return;
-    const isOwnProfile = !profileUser || (authUser && String(profileUser.id) === String(authUser.id));
-    const endpoint = isOwnProfile ? `${API_BASE_URL}/api/watched` : `${API_BASE_URL}/api/watched/user/${user.id}`;
     const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
+    fetch(`${API_BASE_URL}/api/reviews/user/${user.id}`, { headers })
+      .then(r => r.ok ? r.json() : [])
+      .then(reviewsData => { setReviews(reviewsData); setReviewsLoading(false); })
+      .catch(() => setReviewsLoading(false));
+  }, [user]);
 
-    Promise.all([
-      fetch(endpoint, { headers }).then(r => r.ok ? r.json() : []),
-      fetch(`${API_BASE_URL}/api/reviews/user/${user.id}`, { headers }).then(r => r.ok ? r.json() : []),
-    ]).then(([watchedData, reviewsData]) => {
-      setWatchedMovies(watchedData);
-      setReviews(reviewsData);
-      setLoading(false);
-    }).catch(err => { setError(err.message); setLoading(false); });
-  }, [user, authUser, profileUser]);
-
-  if (loading) return <div className="tab-content"><div className="profile-content-title">Loading films...</div></div>;
-  if (error) return <div className="tab-content"><p>Error: {error}</p></div>;
+  if (watched.loading || reviewsLoading) return <div className="tab-content"><div className="profile-content-title">Loading films...</div></div>;
+  if (watched.error) return <div className="tab-content"><p>Error: {watched.error}</p></div>;
 
   // Build rating map: movieId -> user's personal rating
   const ratingMap = {};
@@ -595,7 +585,7 @@ export const ProfileFilms = () => {
     <div className="tab-content">
       <div className="films-tab-header">
         <div className="profile-content-title" style={{ marginBottom: 0 }}>
-          WATCHED — {filtered.length} FILMS
+          WATCHED — {ratingFilter === null ? watched.total : filtered.length} FILMS
         </div>
         <div className="films-tab-controls" style={{ display: 'flex', gap: '8px', alignItems: 'center' }}>
           <RatingDropdown value={ratingFilter} onChange={setRatingFilter} mode="user" />
@@ -626,6 +616,11 @@ export const ProfileFilms = () => {
           ))}
         </div>
       )}
+      {watched.hasMore && (
+        <button className="profile-load-more" onClick={watched.loadMore} disabled={watched.loadingMore}>
+          {watched.loadingMore ? 'Loading...' : 'Load more'}
+        </button>
+      )}
     </div>
   );
 };
@@ -638,51 +633,65 @@ export const ProfileDiary = () => {
 
   const [entries, setEntries] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [ratingFilter, setRatingFilter] = useState(null);
   const [reviewModal, setReviewModal] = useState(null); // { movie, initialData }
+  const lookups = useRef({ reviewMap: {}, likeSet: new Set() });
+
+  const toEntries = (watched) => {
+    const { reviewMap, likeSet } = lookups.current;
+    return watched.map(w => {
+      const rev = reviewMap[String(w.movieId)];
+      return {
+        id: w.id,
+        movieId: w.movieId,
+        movieTitle: w.movieTitle,
+        posterPath: w.posterPath,
+        releaseDate: w.releaseDate,
+        watchedAt: w.createdAt,
+        rating: rev?.rating || 0,
+        isLiked: likeSet.has(String(w.movieId)),
+        isRewatch: rev?.rewatch || false,
+        hasReview: !!(rev?.content && rev.content.trim()),
+        reviewId: rev?.id,
+        reviewContent: rev?.content || '',
+        containsSpoiler: rev?.containsSpoiler || false,
+        watchedDate: rev?.watchedDate || w.createdAt,
+      };
+    });
+  };
+
+  // Sort by watchedAt desc
+  const byWatchedAt = (a, b) => new Date(b.watchedAt) - new Date(a.watchedAt);
 
   useEffect(() => {
     if (!user) return;
     const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
-    const isOwnProfile = !profileUser || (authUser && String(profileUser.id) === String(authUser.id));
-    const watchedEndpoint = isOwnProfile ? `${API_BASE_URL}/api/watched` : `${API_BASE_URL}/api/watched/user/${user.id}`;
 
     Promise.all([
-      fetch(watchedEndpoint, { headers }).then(r => r.ok ? r.json() : []),
+      fetchActivityPage('watched', user.id),
       fetch(`${API_BASE_URL}/api/reviews/user/${user.id}`, { headers }).then(r => r.ok ? r.json() : []),
-      fetch(`${API_BASE_URL}/api/likes/user/${user.id}`, { headers }).then(r => r.ok ? r.json() : []),
-    ]).then(([watched, reviews, likes]) => {
+      fetchAllActivity('likes', user.id).catch(() => []),
+    ]).then(([watchedPage, reviews, likes]) => {
       const reviewMap = {};
       reviews.forEach(r => { reviewMap[String(r.movieId)] = r; });
-      const likeSet = new Set(likes.map(l => String(l.movieId)));
-
-      const merged = watched.map(w => {
-        const rev = reviewMap[String(w.movieId)];
-        return {
-          id: w.id,
-          movieId: w.movieId,
-          movieTitle: w.movieTitle,
-          posterPath: w.posterPath,
-          releaseDate: w.releaseDate,
-          watchedAt: w.createdAt,
-          rating: rev?.rating || 0,
-          isLiked: likeSet.has(String(w.movieId)),
-          isRewatch: rev?.rewatch || false,
-          hasReview: !!(rev?.content && rev.content.trim()),
-          reviewId: rev?.id,
-          reviewContent: rev?.content || '',
-          containsSpoiler: rev?.containsSpoiler || false,
-          watchedDate: rev?.watchedDate || w.createdAt,
-        };
-      });
-
-      // Sort by watchedAt desc
-      merged.sort((a, b) => new Date(b.watchedAt) - new Date(a.watchedAt));
-      setEntries(merged);
+      lookups.current = { reviewMap, likeSet: new Set(likes.map(l => String(l.movieId))) };
+      setEntries(toEntries(watchedPage.items).sort(byWatchedAt));
+      setNextCursor(watchedPage.nextCursor);
       setLoading(false);
     }).catch(() => setLoading(false));
   }, [user, authUser, profileUser]);
 
+  const loadMore = () => {
+    setLoadingMore(true);
+    fetchActivityPage('watched', user.id, { cursor: nextCursor }).then(page => {
+      setEntries(prev => [...prev, ...toEntries(page.items)].sort(byWatchedAt));
+      setNextCursor(page.nextCursor);
+      setLoadingMore(false);
+    }).catch(() => setLoadingMore(false));
+  };
+
   // Sync like state when toggled from MoviePoster anywhere on the page
   useEffect(() => {
     const handler = (e) => {
@@ -857,6 +866,11 @@ export const ProfileDiary = () => {
           })}
         </div>
       ))}
+      {nextCursor && (
+        <button className="profile-load-more" onClick={loadMore} disabled={loadingMore}>
+          {loadingMore ? 'Loading...' : 'Load more'}
+        </button>
+      )}
     </div>
     {reviewModal && (
       <ReviewModal
@@ -945,25 +959,10 @@ export const ProfileWatchlist = () => {
   const user = profileUser || authUser;
 
   const navigate = useNavigate();
-  const [watchlist, setWatchlist] = useState([]);
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState(null);
+  const pages = useActivityPages('watchlist', user?.id);
+  const { items: watchlist, loading, error } = pages;
   const [surprise, setSurprise] = useState(null);
 
-  useEffect(() => {
-    if (user) {
-      const isOwnProfile = !profileUser || (authUser && String(profileUser.id) === String(authUser.id));
-      const endpoint = isOwnProfile ? `${API_BASE_URL}/api/watchlist` : `${API_BASE_URL}/api/watchlist/user/${user.id}`;
-      fetch(endpoint, { headers: { 'Authorization': `Bearer ${localStorage.getItem('token')}` } })
-        .then(async res => {
-          if (!res.ok) throw new Error(`Failed to fetch watchlist: ${res.status}`);
-          return res.json();
-        })
-        .then(data => { setWatchlist(data); setLoading(false); })
-        .catch(err => { console.error(err); setError(err.message); setLoading(false); });
-    }
-  }, [user, authUser, profileUser]);
-
   const handleSurprise = () => {
     if (!watchlist.length) return;
     const pick = watchlist[Math.floor(Math.random() * watchlist.length)];
@@ -978,7 +977,7 @@ export const ProfileWatchlist = () => {
     <div className="tab-content">
       <div className="watchlist-header">
         <div className="profile-content-title" style={{ marginBottom: 0 }}>
-          YOU WANT TO SEE {watchlist.length} FILMS
+          YOU WANT TO SEE {pages.total} FILMS
         </div>
         <button className="watchlist-surprise-btn" onClick={handleSurprise} title="Surprise me">
           <svg width="18" height="18" viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2" strokeLinecap="round" strokeLinejoin="round">
@@ -1028,6 +1027,11 @@ export const ProfileWatchlist = () => {
           </div>
         ))}
       </div>
+      {pages.hasMore && (
+        <button className="profile-load-more" onClick={pages.loadMore} disabled={pages.loadingMore}>
+          {pages.loadingMore ? 'Loading...' : 'Load more'}
+        </button>
+      )}
     </div>
   );
 };
@@ -1192,39 +1196,43 @@ export const ProfileLikes = () => {
   const { user: profileUser } = useOutletContext() || {};
   const user = profileUser || authUser;
 
-  const [likes, setLikes] = useState([]);
+  const pages = useActivityPages('likes', user?.id);
+  const likes = pages.items;
   const [reviews, setReviews] = useState([]);
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState(null);
+  const [reviewsLoading, setReviewsLoading] = useState(true);
   const [ratingFilter, setRatingFilter] = useState(null);
 
   useEffect(() => {
     if (!user) return;
-    const isOwnProfile = !profileUser || (authUser && String(profileUser.id) === String(authUser.id));
-    const endpoint = isOwnProfile ? `${API_BASE_URL}/api/likes` : `${API_BASE_URL}/api/likes/user/${user.id}`;
     const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
+    fetch(`${API_BASE_URL}/api/reviews/user/${user.id}`, { headers })
+      .then(r => r.ok ? r.json() : [])
+      .then(reviewsData => { setReviews(reviewsData); setReviewsLoading(false); })
+      .catch(() => setReviewsLoading(false));
+  }, [user]);
 
-    Promise.all([
-      fetch(endpoint, { headers }).then(r => r.ok ? r.json() : []),
-      fetch(`${API_BASE_URL}/api/reviews/user/${user.id}`, { headers }).then(r => r.ok ? r.json() : []),
-    ]).then(async ([likesData, reviewsData]) => {
-      // Backfill missing titles from TMDB
-      const enriched = await Promise.all(likesData.map(async item => {
-        if (item.movieTitle) return item;
-        try {
-          const res = await fetch(`${API_BASE_URL}/api/movies/${item.movieId}`);
-          if (res.ok) {
-            const m = await res.json();
-            return { ...item, movieTitle: m.title, posterPath: item.posterPath || m.poster_path };
-          }
-        } catch (_) {}
-        return item;
-      }));
-      setLikes(enriched);
-      setReviews(reviewsData);
-      setLoading(false);
-    }).catch(err => { setError(err.message); setLoading(false); });
-  }, [user, authUser, profileUser]);
+  // Backfill titles missing from older likes, only for the rows just loaded
+  const { setItems } = pages;
+  useEffect(() => {
+    const missing = likes.filter(item => !item.movieTitle && !item.titleChecked);
+    if (!missing.length) return;
+    Promise.all(missing.map(async item => {
+      try {
+        const res = await fetch(`${API_BASE_URL}/api/movies/${item.movieId}`);
+        if (res.ok) {
+          const m = await res.json();
+          return { ...item, movieTitle: m.title, posterPath: item.posterPath || m.poster_path, titleChecked: true };
+        }
+      } catch (_) {}
+      return { ...item, titleChecked: true };
+    })).then(filled => {
+      const byId = new Map(filled.map(item => [item.id, item]));
+      setItems(prev => prev.map(item => byId.get(item.id) || item));
+    });
+  }, [likes, setItems]);
+
+  const loading = pages.loading || reviewsLoading;
+  const error = pages.error;
 
   if (loading) return <div className="tab-content"><div className="profile-content-title">Loading likes...</div></div>;
   if (error) return <div className="tab-content"><p>Error: {error}</p></div>;
@@ -1254,7 +1262,7 @@ export const ProfileLikes = () => {
   return (
     <div className="tab-content">
       <div className="films-tab-header">
-        <div className="profile-content-title" style={{ marginBottom: 0 }}>YOU HAVE LIKED {filtered.length} FILMS</div>
+        <div className="profile-content-title" style={{ marginBottom: 0 }}>YOU HAVE LIKED {ratingFilter === null ? pages.total : filtered.length} FILMS</div>
         <RatingDropdown value={ratingFilter} onChange={setRatingFilter} mode="user" />
       </div>
       <div className="films-grid">
@@ -1270,6 +1278,11 @@ export const ProfileLikes = () => {
           </div>
         ))}
       </div>
+      {pages.hasMore && (
+        <button className="profile-load-more" onClick={pages.loadMore} disabled={pages.loadingMore}>
+          {pages.loadingMore ? 'Loading...' : 'Load more'}
+        </button>
+      )}
     </div>
   );
 };
@@ -6,6 +6,7 @@ import ReviewModal from './ReviewModal';
 import { Star, Heart, Eye, Clock, Calendar, List, RefreshCw } from 'lucide-react';
 import { useAuth } from '../context/AuthContext';
 import MoviePoster from './MoviePoster';
+import { fetchAllActivity } from './activityPages';
 import './UserMovieActivity.css';
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL;
@@ -100,16 +101,11 @@ const UserMovieActivity = () => {
                          let isLiked = false;
                          let likeDate = null;
                          try {
-                             const allLikesRes = await fetch(`${API_BASE_URL}/api/likes/user/${targetUserId}`, {
-                                  headers: { 'Authorization': `Bearer ${localStorage.getItem('token')}` }
-                             });
-                             if (allLikesRes.ok) {
-                                 const allLikes = await allLikesRes.json();
-                                 const targetLike = allLikes.find(l => String(l.movieId) === String(id));
-                                 if (targetLike) {
-                                     isLiked = true;
-                                     likeDate = targetLike.createdAt;
-                                 }
+                             const allLikes = await fetchAllActivity('likes', targetUserId);
+                             const targetLike = allLikes.find(l => String(l.movieId) === String(id));
+                             if (targetLike) {
+                                 isLiked = true;
+                                 likeDate = targetLike.createdAt;
                              }
                          } catch (e) {
                              console.warn("Could not fetch likes", e);
@@ -181,9 +177,9 @@ const UserMovieActivity = () => {
             const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
             try {
               const [watchedAll, reviewsAll, likesAll] = await Promise.all([
-                fetch(isOwnProfile ? `${API_BASE_URL}/api/watched` : `${API_BASE_URL}/api/watched/user/${targetUserId}`, { headers }).then(r => r.ok ? r.json() : []),
+                (isOwnProfile ? fetch(`${API_BASE_URL}/api/watched`, { headers }).then(r => r.ok ? r.json() : []) : fetchAllActivity('watched', targetUserId).catch(() => [])),
                 fetch(`${API_BASE_URL}/api/reviews/user/${targetUserId}`, { headers }).then(r => r.ok ? r.json() : []),
-                fetch(`${API_BASE_URL}/api/likes/user/${targetUserId}`, { headers }).then(r => r.ok ? r.json() : []),
+                fetchAllActivity('likes', targetUserId).catch(() => []),
               ]);
               const movieWatched = watchedAll.filter(w => String(w.movieId) === String(id));
               const movieReview = reviewsAll.find(r => String(r.movieId) === String(id));
@@ -0,0 +1,64 @@
+import { useCallback, useEffect, useState } from 'react';
+
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080';
+const EMPTY_PAGE = { items: [], nextCursor: null, total: 0 };
+
+/**
+ * One keyset page of a member's likes, watched or watchlist (kind is
+ * 'likes', 'watched' or 'watchlist'): { items, nextCursor, total }. The
+ * total only comes with the first page.
+ */
+export const fetchActivityPage = async (kind, userId, { cursor, limit } = {}) => {
+    const params = new URLSearchParams();
+    if (cursor) params.set('cursor', cursor);
+    if (limit) params.set('limit', String(limit));
+    const query = params.toString();
+    const res = await fetch(`${API_BASE_URL}/api/${kind}/user/${userId}${query ? `?${query}` : ''}`, {
+        headers: { 'Authorization': `Bearer ${localStorage.getItem('token')}` }
+    });
+    if (!res.ok) throw new Error(`Failed to fetch ${kind}: ${res.status}`);
+    return res.json();
+};
+
+/** Every entry, following nextCursor; only for views that need the whole set at once. */
+export const fetchAllActivity = async (kind, userId) => {
+    const all = [];
+    let cursor = null;
+    do {
+        const page = await fetchActivityPage(kind, userId, { cursor, limit: 100 });
+        all.push(...(page.items || []));
+        cursor = page.nextCursor;
+    } while (cursor);
+    return all;
+};
+
+/** Pages of one activity tab: the first page on mount, the next one on loadMore(). */
+export const useActivityPages = (kind, userId) => {
+    const [page, setPage] = useState(EMPTY_PAGE);
+    const [items, setItems] = useState([]);
+    const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
+    const [error, setError] = useState(null);
+
+    useEffect(() => {
+        if (!userId) return;
+        setLoading(true);
+        fetchActivityPage(kind, userId)
+            .then(first => { setPage(first); setItems(first.items || []); setLoading(false); })
+            .catch(err => { setError(err.message); setLoading(false); });
+    }, [kind, userId]);
+
+    const loadMore = useCallback(() => {
+        if (!page.nextCursor || loadingMore) return;
+        setLoadingMore(true);
+        fetchActivityPage(kind, userId, { cursor: page.nextCursor })
+            .then(next => {
+                setItems(prev => [...prev, ...(next.items || [])]);
+                setPage(prev => ({ ...next, total: prev.total }));
+                setLoadingMore(false);
+            })
+            .catch(() => setLoadingMore(false));
+    }, [kind, userId, page, loadingMore]);
+
+    return { items, setItems, total: page.total ?? items.length, hasMore: !!page.nextCursor, loadMore, loading, loadingMore, error };
+};
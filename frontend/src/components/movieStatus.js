@@ -0,0 +1,39 @@
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080';
+const BATCH_DELAY_MS = 20;
+const MAX_BATCH = 300;
+
+let pending = new Map(); // movieId -> [{ resolve, reject }]
+let timer = null;
+
+const flush = async () => {
+    timer = null;
+    const batch = pending;
+    pending = new Map();
+    const ids = [...batch.keys()];
+    const token = localStorage.getItem('token');
+
+    for (let i = 0; i < ids.length; i += MAX_BATCH) {
+        const chunk = ids.slice(i, i + MAX_BATCH);
+        try {
+            const res = await fetch(`${API_BASE_URL}/api/me/status?movieIds=${chunk.map(encodeURIComponent).join(',')}`, {
+                headers: { 'Authorization': `Bearer ${token}` }
+            });
+            const data = res.ok ? await res.json() : {};
+            chunk.forEach(id => batch.get(id).forEach(w => w.resolve(data[id] || null)));
+        } catch (error) {
+            chunk.forEach(id => batch.get(id).forEach(w => w.reject(error)));
+        }
+    }
+};
+
+/**
+ * The signed-in user's liked / watched / watchlist / rating status for one movie.
+ * Calls made within a few milliseconds of each other (e.g. a grid of posters)
+ * share a single /api/me/status request.
+ */
+export const fetchMovieStatus = (movieId) => new Promise((resolve, reject) => {
+    const id = String(movieId);
+    if (!pending.has(id)) pending.set(id, []);
+    pending.get(id).push({ resolve, reject });
+    if (!timer) timer = setTimeout(flush, BATCH_DELAY_MS);
+});